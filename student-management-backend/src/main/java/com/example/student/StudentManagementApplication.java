@@ -2,12 +2,12 @@ package com.example.student;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.ComponentScan;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableAsync
-@ComponentScan("com.example.student")
+@EnableScheduling
 public class StudentManagementApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,187 @@
+package com.example.student.admission;
+
+import com.example.student.dto.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * 选课接口准入控制
+ * 
+ * 每个请求先过单用户令牌桶（防止单个客户端刷接口），再过全局令牌桶（按数据库连接池
+ * 能承受的速率放行）。全局令牌不足时请求进入有界虚拟排队，立即返回 429 和 Retry-After，
+ * 不占用数据库连接；排队已满时返回 503。
+ * 
+ * 排队的客户端到点重试时凭排队凭证直接放行；队列中有人等待时，新请求不取全局令牌而是排到队尾，
+ * 保证先到先得，且放行总速率不超过全局速率。
+ * 
+ * 可选课程列表（GET /available）在选课窗口内同样占满连接池，走单独的读令牌桶（单用户 + 全局），
+ * 读请求幂等，超限直接返回 429 和 Retry-After，不进入排队。其余查询不受限。
+ */
+@Component
+@Slf4j
+public class AdmissionInterceptor implements HandlerInterceptor {
+    
+    @Value("${admission.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${admission.global-rate:200}")
+    private double globalRate;
+    
+    @Value("${admission.global-burst:400}")
+    private int globalBurst;
+    
+    @Value("${admission.user-rate:2}")
+    private double userRate;
+    
+    @Value("${admission.user-burst:5}")
+    private int userBurst;
+    
+    @Value("${admission.queue-capacity:5000}")
+    private int queueCapacity;
+    
+    @Value("${admission.read-global-rate:300}")
+    private double readGlobalRate;
+    
+    @Value("${admission.read-global-burst:600}")
+    private int readGlobalBurst;
+    
+    @Value("${admission.read-user-rate:5}")
+    private double readUserRate;
+    
+    @Value("${admission.read-user-burst:10}")
+    private int readUserBurst;
+    
+    @Autowired
+    private TokenBucketLimiter limiter;
+    
+    @Autowired
+    private AdmissionMetrics metrics;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private VirtualQueue queue;
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!enabled) {
+            return true;
+        }
+        if (isSafeMethod(request.getMethod())) {
+            return !isShapedRead(request) || admitRead(request, response);
+        }
+        
+        String clientKey = clientKey(request);
+        long userWait = limiter.tryAcquire("user:" + clientKey, userRate, userBurst);
+        if (userWait > 0) {
+            metrics.recordRejected();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, userWait, "请求过于频繁，请稍后重试");
+            return false;
+        }
+        
+        long ticket = queue.claim(clientKey);
+        if (ticket == 0) {
+            metrics.recordAdmitted();
+            return true;
+        }
+        if (ticket > 0) {
+            metrics.recordEarlyRetry();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, ticket, "选课排队中，请稍后重试");
+            return false;
+        }
+        
+        long globalWait = 0;
+        if (ticket == VirtualQueue.NO_TICKET) {
+            globalWait = limiter.tryAcquire("global", globalRate, globalBurst);
+            if (globalWait == 0) {
+                metrics.recordAdmitted();
+                return true;
+            }
+        }
+        
+        long retryAfter = queue.enqueue(clientKey, globalRate, queueCapacity);
+        if (retryAfter == VirtualQueue.FULL) {
+            metrics.recordRejected();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, (long) (queueCapacity * 1000 / globalRate),
+                    "选课人数过多，排队已满，请稍后重试");
+            return false;
+        }
+        metrics.recordQueued();
+        reject(response, HttpStatus.TOO_MANY_REQUESTS, Math.max(retryAfter, globalWait),
+                "选课排队中，请稍后重试");
+        return false;
+    }
+    
+    /**
+     * 读请求：单用户读桶 + 全局读桶，任一超限返回 429
+     */
+    private boolean admitRead(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String clientKey = clientKey(request);
+        long wait = limiter.tryAcquire("read-user:" + clientKey, readUserRate, readUserBurst);
+        if (wait == 0) {
+            wait = limiter.tryAcquire("read-global", readGlobalRate, readGlobalBurst);
+        }
+        if (wait > 0) {
+            metrics.recordRejected();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, wait, "查询过于频繁，请稍后重试");
+            return false;
+        }
+        metrics.recordAdmitted();
+        return true;
+    }
+    
+    /**
+     * 指标快照（含当前排队深度和令牌桶模式）
+     */
+    public Map<String, Object> metricsSnapshot() {
+        Map<String, Object> result = metrics.snapshot();
+        result.put("queueDepth", queue.depth(globalRate));
+        result.put("queueCapacity", queueCapacity);
+        result.put("limiterBackend", limiter.isRedisActive() ? "redis" : "local");
+        return result;
+    }
+    
+    private static boolean isSafeMethod(String method) {
+        return "GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method) || "OPTIONS".equalsIgnoreCase(method);
+    }
+    
+    /**
+     * 受限的查询只有可选课程列表；同一拦截路径下的其他 GET（如选课详情）直接放行
+     */
+    private static boolean isShapedRead(HttpServletRequest request) {
+        return "GET".equalsIgnoreCase(request.getMethod()) && request.getRequestURI().endsWith("/available");
+    }
+    
+    private String clientKey(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getName())) {
+            return auth.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+    
+    private void reject(HttpServletResponse response, HttpStatus status, long waitMillis, String message) throws IOException {
+        long seconds = Math.max(1, (waitMillis + 999) / 1000);
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(objectMapper.writeValueAsString(ApiResponse.error(status.value(), message)));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.student.admission;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 准入控制指标：累计次数 + 最近 60 秒的平均速率
+ */
+@Component
+public class AdmissionMetrics {
+    
+    private static final int WINDOW_SECONDS = 60;
+    
+    private final WindowCounter admitted = new WindowCounter();
+    private final WindowCounter queued = new WindowCounter();
+    private final WindowCounter earlyRetries = new WindowCounter();
+    private final WindowCounter rejected = new WindowCounter();
+    
+    void recordAdmitted() {
+        admitted.increment();
+    }
+    
+    /** 全局令牌不足，已排入虚拟队列并返回 Retry-After */
+    void recordQueued() {
+        queued.increment();
+    }
+    
+    /** 持有排队凭证但未到点就重试，返回剩余等待时间 */
+    void recordEarlyRetry() {
+        earlyRetries.increment();
+    }
+    
+    /** 单用户超限或虚拟队列已满 */
+    void recordRejected() {
+        rejected.increment();
+    }
+    
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("admittedTotal", admitted.total());
+        result.put("queuedTotal", queued.total());
+        result.put("earlyRetryTotal", earlyRetries.total());
+        result.put("rejectedTotal", rejected.total());
+        result.put("admittedRate", admitted.ratePerSecond());
+        result.put("queuedRate", queued.ratePerSecond());
+        result.put("earlyRetryRate", earlyRetries.ratePerSecond());
+        result.put("rejectedRate", rejected.ratePerSecond());
+        result.put("rateWindowSeconds", WINDOW_SECONDS);
+        return result;
+    }
+    
+    /**
+     * 按秒分桶的环形计数器
+     */
+    private static class WindowCounter {
+        private final LongAdder total = new LongAdder();
+        private final AtomicLongArray counts = new AtomicLongArray(WINDOW_SECONDS);
+        private final AtomicLongArray seconds = new AtomicLongArray(WINDOW_SECONDS);
+        
+        void increment() {
+            total.increment();
+            long second = System.currentTimeMillis() / 1000;
+            int slot = (int) (second % WINDOW_SECONDS);
+            long current = seconds.get(slot);
+            if (current != second && seconds.compareAndSet(slot, current, second)) {
+                counts.set(slot, 0);
+            }
+            counts.incrementAndGet(slot);
+        }
+        
+        long total() {
+            return total.sum();
+        }
+        
+        double ratePerSecond() {
+            long second = System.currentTimeMillis() / 1000;
+            long sum = 0;
+            for (int i = 0; i < WINDOW_SECONDS; i++) {
+                if (seconds.get(i) > second - WINDOW_SECONDS) {
+                    sum += counts.get(i);
+                }
+            }
+            return Math.round(sum * 100.0 / WINDOW_SECONDS) / 100.0;
+        }
+    }
+}
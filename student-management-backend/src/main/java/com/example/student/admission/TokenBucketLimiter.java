@@ -0,0 +1,118 @@
+package com.example.student.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 令牌桶限流器
+ * 
+ * 桶状态保存在 Redis 哈希中，补充令牌和扣减在一个 Lua 脚本内原子完成（时间取 Redis TIME，
+ * 多实例共享同一个桶）。Redis 不可用时切换到进程内令牌桶，并在 REDIS_RETRY_INTERVAL_MS
+ * 之后再尝试 Redis，避免每个请求都等待 Redis 超时。本地桶按 key 缓存，有数量上限，
+ * 闲置 LOCAL_IDLE_EXPIRY 后淘汰（闲置这么久的桶早已补满，淘汰后重建结果相同）。
+ */
+@Component
+@Slf4j
+public class TokenBucketLimiter {
+    
+    private static final String KEY_PREFIX = "admission:";
+    
+    private static final long REDIS_RETRY_INTERVAL_MS = 5000;
+    
+    private static final long LOCAL_MAX_BUCKETS = 100_000;
+    
+    private static final Duration LOCAL_IDLE_EXPIRY = Duration.ofMinutes(1);
+    
+    /**
+     * KEYS[1] 桶 key；ARGV[1] 每秒补充令牌数；ARGV[2] 桶容量
+     * 令牌以千分之一为单位存整数（Lua 数字写回 Redis 会被截断为整数）
+     * 返回 0 表示放行，否则为下一个令牌可用前需要等待的毫秒数
+     */
+    private static final DefaultRedisScript<Long> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>(
+            "local t = redis.call('TIME')\n" +
+            "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)\n" +
+            "local rate = tonumber(ARGV[1])\n" +
+            "local capacity = tonumber(ARGV[2]) * 1000\n" +
+            "local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')\n" +
+            "local tokens = tonumber(state[1])\n" +
+            "local ts = tonumber(state[2])\n" +
+            "if tokens == nil then tokens = capacity; ts = now end\n" +
+            "tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)\n" +
+            "local wait = 0\n" +
+            "if tokens >= 1000 then tokens = tokens - 1000 else wait = math.ceil((1000 - tokens) / rate) end\n" +
+            "redis.call('HSET', KEYS[1], 'tokens', math.floor(tokens), 'ts', now)\n" +
+            "redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate) + 1000)\n" +
+            "return wait",
+            Long.class);
+    
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    
+    private final Cache<String, LocalBucket> localBuckets = Caffeine.newBuilder()
+            .maximumSize(LOCAL_MAX_BUCKETS)
+            .expireAfterAccess(LOCAL_IDLE_EXPIRY)
+            .build();
+    
+    private volatile long redisRetryAt;
+    
+    /**
+     * 尝试取一个令牌
+     * @param ratePerSecond 每秒补充令牌数
+     * @param capacity 桶容量（允许的突发量）
+     * @return 0 表示放行；否则为建议等待的毫秒数
+     */
+    public long tryAcquire(String key, double ratePerSecond, int capacity) {
+        if (System.currentTimeMillis() >= redisRetryAt) {
+            try {
+                Long wait = redisTemplate.execute(TOKEN_BUCKET_SCRIPT, List.of(KEY_PREFIX + key),
+                        String.valueOf(ratePerSecond), String.valueOf(capacity));
+                if (wait != null) {
+                    return wait;
+                }
+            } catch (Exception e) {
+                redisRetryAt = System.currentTimeMillis() + REDIS_RETRY_INTERVAL_MS;
+                log.warn("令牌桶 Redis 不可用，{} ms 内使用本地令牌桶: {}", REDIS_RETRY_INTERVAL_MS, e.getMessage());
+            }
+        }
+        return localBuckets.get(key, k -> new LocalBucket())
+                .tryAcquire(ratePerSecond, capacity);
+    }
+    
+    /**
+     * 当前是否使用 Redis 令牌桶
+     */
+    public boolean isRedisActive() {
+        return System.currentTimeMillis() >= redisRetryAt;
+    }
+    
+    /**
+     * 进程内令牌桶（Redis 不可用时的降级，限额按单实例计算）
+     */
+    private static class LocalBucket {
+        private double tokens = -1;
+        private long lastNanos;
+        
+        synchronized long tryAcquire(double ratePerSecond, int capacity) {
+            long now = System.nanoTime();
+            if (tokens < 0) {
+                tokens = capacity;
+            } else {
+                tokens = Math.min(capacity, tokens + (now - lastNanos) / 1e9 * ratePerSecond);
+            }
+            lastNanos = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) * 1000 / ratePerSecond);
+        }
+    }
+}
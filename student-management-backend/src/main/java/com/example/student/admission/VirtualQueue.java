@@ -0,0 +1,192 @@
+package com.example.student.admission;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 有界虚拟排队
+ *
+ * 未被放行的请求不占用线程和连接，只领取一个按全局放行速率排开的重试时间点，
+ * 客户端按 Retry-After 到点重试，把同一时刻的重试洪峰摊平。队尾时间点减去当前时间
+ * 再乘以速率即为排队深度，超过容量时直接拒绝。
+ *
+ * 队尾保存在 Redis 中，由 Lua 脚本原子推进（时间取 Redis TIME），多实例共享同一个队列，
+ * 不会按实例数成倍放行。排入队列的客户端同时领取一张排队凭证（按客户端标识保存），
+ * 到点后 TICKET_GRACE_MS 内重试凭证即放行，不再与新请求争抢令牌；早到的重试返回剩余等待时间，
+ * 过期未用的凭证作废。Redis 不可用时降级为进程内队列（容量按单实例计算）。
+ */
+@Component
+@Slf4j
+class VirtualQueue {
+
+    /** 无凭证，且队列为空 */
+    static final long NO_TICKET = -1;
+
+    /** 无凭证，但队列中有人在等，新请求需排到队尾 */
+    static final long QUEUE_BUSY = -2;
+
+    /** 队列已满 */
+    static final long FULL = -1;
+
+    private static final String TAIL_KEY = "admission:queue:tail";
+    private static final String TICKET_PREFIX = "admission:queue:ticket:";
+
+    /** 到点后凭证的有效时间 */
+    private static final long TICKET_GRACE_MS = 10000;
+
+    private static final long REDIS_RETRY_INTERVAL_MS = 5000;
+
+    /**
+     * KEYS[1] 队尾 key；KEYS[2] 凭证 key
+     * 有到期凭证返回 0 并作废凭证；凭证未到期返回剩余毫秒数；
+     * 无凭证时队列为空返回 -1，否则返回 -2
+     */
+    private static final DefaultRedisScript<Long> CLAIM_SCRIPT = new DefaultRedisScript<>(
+            "local t = redis.call('TIME')\n" +
+            "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)\n" +
+            "local slot = tonumber(redis.call('GET', KEYS[2]))\n" +
+            "if slot ~= nil then\n" +
+            "  if now >= slot then redis.call('DEL', KEYS[2]); return 0 end\n" +
+            "  return slot - now\n" +
+            "end\n" +
+            "local tail = tonumber(redis.call('GET', KEYS[1]))\n" +
+            "if tail ~= nil and tail > now then return -2 end\n" +
+            "return -1",
+            Long.class);
+
+    /**
+     * KEYS[1] 队尾 key；KEYS[2] 凭证 key；ARGV[1] 时间间隔毫秒；ARGV[2] 容量；ARGV[3] 凭证宽限毫秒
+     * 返回分配到的重试时间点距现在的毫秒数，队列已满返回 -1
+     */
+    private static final DefaultRedisScript<Long> ENQUEUE_SCRIPT = new DefaultRedisScript<>(
+            "local t = redis.call('TIME')\n" +
+            "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)\n" +
+            "local interval = tonumber(ARGV[1])\n" +
+            "local tail = tonumber(redis.call('GET', KEYS[1])) or 0\n" +
+            "local start = math.max(tail, now)\n" +
+            "if math.floor((start - now) / interval) >= tonumber(ARGV[2]) then return -1 end\n" +
+            "local slot = start + interval\n" +
+            "redis.call('SET', KEYS[1], slot, 'PX', slot - now + 60000)\n" +
+            "redis.call('SET', KEYS[2], slot, 'PX', slot - now + tonumber(ARGV[3]))\n" +
+            "return slot - now",
+            Long.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    private final LocalQueue localQueue = new LocalQueue();
+
+    private volatile long redisRetryAt;
+
+    /**
+     * 检查客户端的排队凭证
+     * @return 0 凭证到期，放行；大于 0 为凭证剩余等待毫秒数；NO_TICKET / QUEUE_BUSY 表示没有凭证
+     */
+    long claim(String clientKey) {
+        if (redisAvailable()) {
+            try {
+                Long result = redisTemplate.execute(CLAIM_SCRIPT, List.of(TAIL_KEY, TICKET_PREFIX + clientKey));
+                if (result != null) {
+                    return result;
+                }
+            } catch (Exception e) {
+                fallback(e);
+            }
+        }
+        return localQueue.claim(clientKey);
+    }
+
+    /**
+     * 排入队尾并为客户端发放凭证
+     * @return 距离分配到的重试时间点的毫秒数；队列已满时返回 FULL
+     */
+    long enqueue(String clientKey, double ratePerSecond, int capacity) {
+        long interval = intervalMillis(ratePerSecond);
+        if (redisAvailable()) {
+            try {
+                Long result = redisTemplate.execute(ENQUEUE_SCRIPT, List.of(TAIL_KEY, TICKET_PREFIX + clientKey),
+                        String.valueOf(interval), String.valueOf(capacity), String.valueOf(TICKET_GRACE_MS));
+                if (result != null) {
+                    return result;
+                }
+            } catch (Exception e) {
+                fallback(e);
+            }
+        }
+        return localQueue.enqueue(clientKey, interval, capacity);
+    }
+
+    /**
+     * 当前排队深度
+     */
+    long depth(double ratePerSecond) {
+        long tail = localQueue.tail;
+        if (redisAvailable()) {
+            try {
+                String value = redisTemplate.opsForValue().get(TAIL_KEY);
+                tail = value == null ? 0 : Long.parseLong(value);
+            } catch (Exception e) {
+                fallback(e);
+            }
+        }
+        long remaining = tail - System.currentTimeMillis();
+        return remaining <= 0 ? 0 : remaining / intervalMillis(ratePerSecond);
+    }
+
+    private boolean redisAvailable() {
+        return System.currentTimeMillis() >= redisRetryAt;
+    }
+
+    private void fallback(Exception e) {
+        redisRetryAt = System.currentTimeMillis() + REDIS_RETRY_INTERVAL_MS;
+        log.warn("排队 Redis 不可用，{} ms 内使用本地队列: {}", REDIS_RETRY_INTERVAL_MS, e.getMessage());
+    }
+
+    private static long intervalMillis(double ratePerSecond) {
+        return Math.max(1, Math.round(1000 / ratePerSecond));
+    }
+
+    /**
+     * 进程内队列（Redis 不可用时的降级），语义与 Redis 脚本一致
+     */
+    private static class LocalQueue {
+        private volatile long tail;
+        private final Map<String, Long> tickets = new ConcurrentHashMap<>();
+
+        synchronized long claim(String clientKey) {
+            long now = System.currentTimeMillis();
+            Long slot = tickets.get(clientKey);
+            if (slot != null) {
+                if (now > slot + TICKET_GRACE_MS) {
+                    tickets.remove(clientKey);
+                } else if (now >= slot) {
+                    tickets.remove(clientKey);
+                    return 0;
+                } else {
+                    return slot - now;
+                }
+            }
+            return tail > now ? QUEUE_BUSY : NO_TICKET;
+        }
+
+        synchronized long enqueue(String clientKey, long interval, int capacity) {
+            long now = System.currentTimeMillis();
+            long start = Math.max(tail, now);
+            if ((start - now) / interval >= capacity) {
+                return FULL;
+            }
+            tail = start + interval;
+            tickets.put(clientKey, tail);
+            // 顺带清理过期凭证，避免无人重试的客户端堆积
+            tickets.values().removeIf(slot -> now > slot + TICKET_GRACE_MS);
+            return tail - now;
+        }
+    }
+}
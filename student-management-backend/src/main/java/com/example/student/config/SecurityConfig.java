@@ -86,6 +86,8 @@ public class SecurityConfig {
                 .requestMatchers("/static/**").permitAll()
                 .requestMatchers("/favicon.ico").permitAll()
                 .requestMatchers(HttpMethod.GET, "/course/list").permitAll()
+                .requestMatchers(HttpMethod.GET, "/course/list/summary").permitAll()
+                .requestMatchers(HttpMethod.GET, "/course/facets").permitAll()
                 .requestMatchers(HttpMethod.GET, "/search/**").permitAll()
                 
                 // 其他所有请求都需要认证
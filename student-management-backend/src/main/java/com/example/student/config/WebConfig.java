@@ -1,13 +1,19 @@
 package com.example.student.config;
 
+import com.example.student.admission.AdmissionInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
     
+    @Autowired
+    private AdmissionInterceptor admissionInterceptor;
+    
     /**
      * 配置 CORS
      */
@@ -17,11 +23,25 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins("*")
                 .allowedMethods("*")
                 .allowedHeaders("*")
-                .exposedHeaders("Authorization", "Content-Type")
+                .exposedHeaders("Authorization", "Content-Type", "Retry-After")
                 .allowCredentials(false)
                 .maxAge(3600);
     }
     
+    /**
+     * 选课接口准入控制（令牌桶限流 + 虚拟排队）
+     * 作用于学生选课和退课：POST enroll / drop 以及 DELETE /{enrollmentId}；
+     * 以及可选课程列表 GET /available（读令牌桶，不排队）。同路径下的其他 GET 查询拦截器直接放行
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionInterceptor)
+                .addPathPatterns("/student/courses/enroll", "/student-course/enroll",
+                        "/student/courses/drop", "/student-course/drop",
+                        "/student/courses/{enrollmentId:\\d+}", "/student-course/{enrollmentId:\\d+}",
+                        "/student/courses/available", "/student-course/available");
+    }
+    
     /**
      * 配置静态资源处理
      * 注意：只配置明确的静态资源路由，避免与 REST API 冲突
@@ -0,0 +1,30 @@
+package com.example.student.controller;
+
+import com.example.student.admission.AdmissionInterceptor;
+import com.example.student.dto.ApiResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 选课准入控制指标
+ */
+@RestController
+@RequestMapping("/admission")
+public class AdmissionMetricsController {
+    
+    @Autowired
+    private AdmissionInterceptor admissionInterceptor;
+    
+    /**
+     * 排队深度、放行/排队/拒绝的累计次数和最近一分钟速率
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/metrics")
+    public ResponseEntity<?> metrics() {
+        return ResponseEntity.ok(ApiResponse.success("获取成功", admissionInterceptor.metricsSnapshot()));
+    }
+}
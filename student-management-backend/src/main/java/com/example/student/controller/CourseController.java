@@ -1,17 +1,20 @@
 package com.example.student.controller;
 
 import com.example.student.dto.*;
+import com.example.student.service.CountService;
 import com.example.student.service.CourseService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/course")
 @Slf4j
@@ -22,6 +25,8 @@ public class CourseController {
     
     /**
      * 获取课程列表
+     * 筛选条件（关键词、分类、状态、学分范围、教师、日期范围、是否有余量）可任意组合
+     * 传入 cursor 参数（首页传空串）时使用游标分页，响应中的 nextCursor 用于请求下一页
      */
     @GetMapping("/list")
     public ResponseEntity<ApiResponse<PageResponse<CourseDTO>>> listCourses(
@@ -29,19 +34,33 @@ public class CourseController {
             @RequestParam(defaultValue = "10") Integer size,
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) String semester) {
+            @RequestParam(required = false) String semester,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Long teacherId,
+            @RequestParam(required = false) Integer minCredits,
+            @RequestParam(required = false) Integer maxCredits,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Boolean hasOpenSeats,
+            @RequestParam(defaultValue = "auto") String count,
+            @RequestParam(required = false) String cursor) {
         try {
-            Pageable pageable = PageRequest.of(current - 1, size);
-            Page<CourseDTO> page = courseService.listCourses(keyword, status, pageable);
-            
-            PageResponse<CourseDTO> response = PageResponse.<CourseDTO>builder()
-                    .current(current)
-                    .size(size)
-                    .total(page.getTotalElements())
-                    .records(page.getContent())
+            CourseFilter filter = CourseFilter.builder()
+                    .keyword(keyword).category(category).status(status)
+                    .minCredits(minCredits).maxCredits(maxCredits).teacherId(teacherId)
+                    .startDate(startDate).endDate(endDate).hasOpenSeats(hasOpenSeats)
                     .build();
+            if (cursor != null) {
+                return ResponseEntity.ok(ApiResponse.success(
+                        courseService.listCoursesByCursor(filter, cursor, size)));
+            }
+            Pageable pageable = PageRequest.of(current - 1, size);
+            PageResponse<CourseDTO> response = courseService.listCourses(filter, pageable, CountService.Mode.from(count));
             
             return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
         } catch (Exception e) {
             log.error("获取课程列表失败: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -49,6 +68,76 @@ public class CourseController {
         }
     }
     
+    /**
+     * 获取课程列表行（表格视图）：只返回列表展示需要的字段，不含课程简介、大纲、要求等长文本
+     * 参数同 /list，长文本字段通过 /course/{id} 获取
+     */
+    @GetMapping("/list/summary")
+    public ResponseEntity<ApiResponse<PageResponse<CourseSummaryDTO>>> listCourseSummaries(
+            @RequestParam(defaultValue = "1") Integer current,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Long teacherId,
+            @RequestParam(required = false) Integer minCredits,
+            @RequestParam(required = false) Integer maxCredits,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Boolean hasOpenSeats,
+            @RequestParam(defaultValue = "auto") String count,
+            @RequestParam(required = false) String cursor) {
+        try {
+            CourseFilter filter = CourseFilter.builder()
+                    .keyword(keyword).category(category).status(status)
+                    .minCredits(minCredits).maxCredits(maxCredits).teacherId(teacherId)
+                    .startDate(startDate).endDate(endDate).hasOpenSeats(hasOpenSeats)
+                    .build();
+            if (cursor != null) {
+                return ResponseEntity.ok(ApiResponse.success(
+                        courseService.listCourseSummariesByCursor(filter, cursor, size)));
+            }
+            Pageable pageable = PageRequest.of(current - 1, size);
+            return ResponseEntity.ok(ApiResponse.success(
+                    courseService.listCourseSummaries(filter, pageable, CountService.Mode.from(count))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
+        } catch (Exception e) {
+            log.error("获取课程列表失败: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(500, "获取课程列表失败"));
+        }
+    }
+    
+    /**
+     * 获取课程筛选面板的分面计数，参数与 /list 的筛选条件相同
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<ApiResponse<CourseFacetsDTO>> getCourseFacets(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Long teacherId,
+            @RequestParam(required = false) Integer minCredits,
+            @RequestParam(required = false) Integer maxCredits,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Boolean hasOpenSeats) {
+        try {
+            CourseFilter filter = CourseFilter.builder()
+                    .keyword(keyword).category(category).status(status)
+                    .minCredits(minCredits).maxCredits(maxCredits).teacherId(teacherId)
+                    .startDate(startDate).endDate(endDate).hasOpenSeats(hasOpenSeats)
+                    .build();
+            return ResponseEntity.ok(ApiResponse.success(courseService.getCourseFacets(filter)));
+        } catch (Exception e) {
+            log.error("获取课程分面计数失败: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(500, "获取课程分面计数失败"));
+        }
+    }
+    
     /**
      * 获取课程详情
      */
@@ -89,11 +89,13 @@ public class MessageController {
     /**
      * 获取用户消息列表（前端调用 /notification/messages）
      * 不需要前端传 ID，直接从 JWT Token 中获取
+     * 传入 cursor 参数（首页传空串）时使用游标分页，响应中的 nextCursor 用于请求下一页
      */
     @GetMapping("/messages")
     public ResponseEntity<?> getMessages(
             @RequestParam(defaultValue = "1") int current,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
         try {
             // 从 SecurityContext 获取当前用户 ID（来自 JWT Token）
             Long receiverId = getCurrentUserId();
@@ -102,6 +104,10 @@ public class MessageController {
                         .body(ApiResponse.error(401, "未授权，请先登录"));
             }
             
+            if (cursor != null) {
+                return ResponseEntity.ok(ApiResponse.success("获取成功",
+                        messageService.getInboxMessagesByCursor(receiverId, cursor, size)));
+            }
             Pageable pageable = PageRequest.of(current - 1, size);
             Page<MessageDTO> page = messageService.getInboxMessages(receiverId, pageable);
             
@@ -113,6 +119,9 @@ public class MessageController {
             );
             
             return ResponseEntity.ok(ApiResponse.success("获取成功", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
         } catch (Exception e) {
             log.error("获取消息失败", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -122,13 +131,19 @@ public class MessageController {
     
     /**
      * 获取收件箱
+     * 传入 cursor 参数（首页传空串）时使用游标分页
      */
     @GetMapping("/inbox")
     public ResponseEntity<?> getInbox(
             @RequestParam Long receiverId,
             @RequestParam(defaultValue = "1") int current,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
         try {
+            if (cursor != null) {
+                return ResponseEntity.ok(ApiResponse.success("获取成功",
+                        messageService.getInboxMessagesByCursor(receiverId, cursor, size)));
+            }
             Pageable pageable = PageRequest.of(current - 1, size);
             Page<MessageDTO> page = messageService.getInboxMessages(receiverId, pageable);
             
@@ -140,6 +155,9 @@ public class MessageController {
             );
             
             return ResponseEntity.ok(ApiResponse.success("获取成功", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error(500, "获取收件箱失败: " + e.getMessage()));
@@ -149,11 +167,13 @@ public class MessageController {
     /**
      * 获取未读消息
      * 不需要前端传 ID，直接从 JWT Token 中获取
+     * 传入 cursor 参数（首页传空串）时使用游标分页
      */
     @GetMapping("/unread")
     public ResponseEntity<?> getUnreadMessages(
             @RequestParam(defaultValue = "1") int current,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
         try {
             // 从 SecurityContext 获取当前用户 ID（来自 JWT Token）
             Long receiverId = getCurrentUserId();
@@ -162,6 +182,10 @@ public class MessageController {
                         .body(ApiResponse.error(401, "未授权，请先登录"));
             }
             
+            if (cursor != null) {
+                return ResponseEntity.ok(ApiResponse.success("获取成功",
+                        messageService.getUnreadMessagesByCursor(receiverId, cursor, size)));
+            }
             Pageable pageable = PageRequest.of(current - 1, size);
             Page<MessageDTO> page = messageService.getUnreadMessages(receiverId, pageable);
             
@@ -173,6 +197,9 @@ public class MessageController {
             );
             
             return ResponseEntity.ok(ApiResponse.success("获取成功", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
         } catch (Exception e) {
             log.error("获取未读消息失败", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -182,14 +209,20 @@ public class MessageController {
     
     /**
      * 获取消息会话
+     * 传入 cursor 参数（首页传空串）时使用游标分页
      */
     @GetMapping("/conversation")
     public ResponseEntity<?> getConversation(
             @RequestParam Long userId1,
             @RequestParam Long userId2,
             @RequestParam(defaultValue = "1") int current,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
         try {
+            if (cursor != null) {
+                return ResponseEntity.ok(ApiResponse.success("获取成功",
+                        messageService.getConversationByCursor(userId1, userId2, cursor, size)));
+            }
             Pageable pageable = PageRequest.of(current - 1, size);
             Page<MessageDTO> page = messageService.getConversation(userId1, userId2, pageable);
             
@@ -201,6 +234,9 @@ public class MessageController {
             );
             
             return ResponseEntity.ok(ApiResponse.success("获取成功", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error(500, "获取消息会话失败: " + e.getMessage()));
@@ -4,9 +4,10 @@ import com.example.student.dto.ApiResponse;
 import com.example.student.dto.CourseDTO;
 import com.example.student.dto.PageResponse;
 import com.example.student.dto.StudentDTO;
+import com.example.student.dto.SuggestionDTO;
+import com.example.student.service.CountService;
 import com.example.student.service.SearchService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
@@ -23,24 +24,40 @@ public class SearchController {
     
     /**
      * 搜索课程
+     * 传入 cursor 参数（首页传空串）时使用游标分页，响应中的 nextCursor 用于请求下一页
      */
     @GetMapping("/courses")
     public ResponseEntity<?> searchCourses(
             @RequestParam String keyword,
             @RequestParam(defaultValue = "1") int current,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "auto") String count,
+            @RequestParam(required = false) String cursor) {
+        // 验证分页参数（/search/** 无需登录，页码、条数必须有界）
+        if (current < 1) {
+            current = 1;
+        }
+        if (size < 1 || size > 100) {
+            size = 10;
+        }
         try {
+            if (cursor != null) {
+                if (cursor.isEmpty()) {
+                    searchService.recordKeyword(keyword);
+                }
+                return ResponseEntity.ok(ApiResponse.success("搜索成功",
+                        searchService.searchCoursesByCursor(keyword, cursor, size)));
+            }
+            if (current == 1) {
+                searchService.recordKeyword(keyword);
+            }
             Pageable pageable = PageRequest.of(current - 1, size);
-            Page<CourseDTO> page = searchService.searchCourses(keyword, pageable);
-            
-            PageResponse<CourseDTO> response = new PageResponse<CourseDTO>(
-                    page.getTotalElements(),
-                    current,
-                    size,
-                    page.getContent()
-            );
+            PageResponse<CourseDTO> response = searchService.searchCourses(keyword, pageable, CountService.Mode.from(count));
             
             return ResponseEntity.ok(ApiResponse.success("搜索成功", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error(500, "课程搜索失败: " + e.getMessage()));
@@ -49,24 +66,40 @@ public class SearchController {
     
     /**
      * 搜索学生
+     * 传入 cursor 参数（首页传空串）时使用游标分页，响应中的 nextCursor 用于请求下一页
      */
     @GetMapping("/students")
     public ResponseEntity<?> searchStudents(
             @RequestParam String keyword,
             @RequestParam(defaultValue = "1") int current,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "auto") String count,
+            @RequestParam(required = false) String cursor) {
+        // 验证分页参数（/search/** 无需登录，页码、条数必须有界）
+        if (current < 1) {
+            current = 1;
+        }
+        if (size < 1 || size > 100) {
+            size = 10;
+        }
         try {
+            if (cursor != null) {
+                if (cursor.isEmpty()) {
+                    searchService.recordKeyword(keyword);
+                }
+                return ResponseEntity.ok(ApiResponse.success("搜索成功",
+                        searchService.searchStudentsByCursor(keyword, cursor, size)));
+            }
+            if (current == 1) {
+                searchService.recordKeyword(keyword);
+            }
             Pageable pageable = PageRequest.of(current - 1, size);
-            Page<StudentDTO> page = searchService.searchStudents(keyword, pageable);
-            
-            PageResponse<StudentDTO> response = new PageResponse<StudentDTO>(
-                    page.getTotalElements(),
-                    current,
-                    size,
-                    page.getContent()
-            );
+            PageResponse<StudentDTO> response = searchService.searchStudents(keyword, pageable, CountService.Mode.from(count));
             
             return ResponseEntity.ok(ApiResponse.success("搜索成功", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error(500, "学生搜索失败: " + e.getMessage()));
@@ -80,10 +113,21 @@ public class SearchController {
     public ResponseEntity<?> globalSearch(
             @RequestParam String keyword,
             @RequestParam(defaultValue = "1") int current,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean exactTotal) {
+        // 验证分页参数（/search/** 无需登录，页码、条数必须有界）
+        if (current < 1) {
+            current = 1;
+        }
+        if (size < 1 || size > 100) {
+            size = 10;
+        }
         try {
+            if (current == 1) {
+                searchService.recordKeyword(keyword);
+            }
             Pageable pageable = PageRequest.of(current - 1, size);
-            SearchService.SearchResultDTO result = searchService.globalSearch(keyword, pageable);
+            SearchService.SearchResultDTO result = searchService.globalSearch(keyword, pageable, exactTotal);
             
             return ResponseEntity.ok(ApiResponse.success("搜索成功", result));
         } catch (Exception e) {
@@ -92,15 +136,35 @@ public class SearchController {
         }
     }
     
+    /**
+     * 搜索框联想（输入时逐字调用，替代全局搜索）
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggest(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<SuggestionDTO> suggestions = searchService.suggest(keyword, limit);
+            return ResponseEntity.ok(ApiResponse.success("获取成功", suggestions));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(500, "获取联想词失败: " + e.getMessage()));
+        }
+    }
+    
     /**
      * 获取热门搜索关键词
      */
     @GetMapping("/popular-keywords")
     public ResponseEntity<?> getPopularKeywords(
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "24h") String window) {
         try {
-            List<String> keywords = searchService.getPopularKeywords(limit);
+            List<String> keywords = searchService.getPopularKeywords(limit, window);
             return ResponseEntity.ok(ApiResponse.success("获取成功", keywords));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error(500, "获取热门关键词失败: " + e.getMessage()));
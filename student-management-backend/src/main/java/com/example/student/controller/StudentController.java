@@ -3,11 +3,16 @@ package com.example.student.controller;
 import com.example.student.dto.ApiResponse;
 import com.example.student.dto.PageResponse;
 import com.example.student.dto.StudentDTO;
+import com.example.student.dto.StudentImportJobDTO;
+import com.example.student.dto.StudentSummaryDTO;
+import com.example.student.service.CountService;
+import com.example.student.service.StudentImportService;
 import com.example.student.service.StudentService;
 import com.example.student.utils.FileUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -28,8 +33,12 @@ public class StudentController {
     @Autowired
     private FileUtil fileUtil;
     
+    @Autowired
+    private StudentImportService studentImportService;
+    
     /**
      * 获取学生列表
+     * 传入 cursor 参数（首页传空串）时使用游标分页，响应中的 nextCursor 用于请求下一页
      */
     @GetMapping("/list")
     public ResponseEntity<ApiResponse<PageResponse<StudentDTO>>> listStudents(
@@ -37,10 +46,49 @@ public class StudentController {
             @RequestParam(defaultValue = "10") Integer size,
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) Long classId,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "auto") String count,
+            @RequestParam(required = false) String cursor) {
         try {
-            PageResponse<StudentDTO> pageResponse = studentService.listStudents(current, size, keyword, classId, status);
+            if (cursor != null) {
+                return ResponseEntity.ok(ApiResponse.success(
+                        studentService.listStudentsByCursor(cursor, size, keyword, classId, status)));
+            }
+            PageResponse<StudentDTO> pageResponse = studentService.listStudents(current, size, keyword, classId, status,
+                    CountService.Mode.from(count));
             return ResponseEntity.ok(ApiResponse.success(pageResponse));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
+        } catch (Exception e) {
+            log.error("获取学生列表失败: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(500, "获取学生列表失败"));
+        }
+    }
+    
+    /**
+     * 获取学生列表行（表格视图）：只返回列表展示需要的字段，参数同 /list
+     */
+    @GetMapping("/list/summary")
+    public ResponseEntity<ApiResponse<PageResponse<StudentSummaryDTO>>> listStudentSummaries(
+            @RequestParam(defaultValue = "1") Integer current,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) Long classId,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "auto") String count,
+            @RequestParam(required = false) String cursor) {
+        try {
+            if (cursor != null) {
+                return ResponseEntity.ok(ApiResponse.success(
+                        studentService.listStudentSummariesByCursor(cursor, size, keyword, classId, status)));
+            }
+            return ResponseEntity.ok(ApiResponse.success(studentService.listStudentSummaries(current, size, keyword,
+                    classId, status, CountService.Mode.from(count))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
         } catch (Exception e) {
             log.error("获取学生列表失败: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -146,12 +194,53 @@ public class StudentController {
                         .body(ApiResponse.error(400, "ids不能为空"));
             }
             
-            studentService.batchDeleteStudents(ids);
-            return ResponseEntity.ok(ApiResponse.success("batch delete success", null));
+            int deleted = studentService.batchDeleteStudents(ids);
+            return ResponseEntity.ok(ApiResponse.success("batch delete success", Map.of("deleted", deleted)));
         } catch (Exception e) {
             log.error("批量删除学生异常: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error(500, "批量删除学生失败"));
         }
     }
+    
+    /**
+     * 批量导入学生（上传 CSV / XLSX 文件，后台执行）
+     * 返回任务 ID，通过 /student/import/{jobId} 查询进度
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<StudentImportJobDTO>> importStudents(@RequestParam("file") MultipartFile file) {
+        try {
+            if (file.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(ApiResponse.error(400, "上传文件不能为空"));
+            }
+            StudentImportJobDTO job = studentImportService.submit(file);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success("导入任务已提交", job));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error(503, e.getMessage()));
+        } catch (Exception e) {
+            log.error("提交学生导入任务失败: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(500, "提交学生导入任务失败"));
+        }
+    }
+    
+    /**
+     * 查询学生导入任务进度
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ApiResponse<StudentImportJobDTO>> getImportJob(@PathVariable String jobId) {
+        StudentImportJobDTO job = studentImportService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(404, "导入任务不存在或已过期"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(job));
+    }
 }
@@ -1,18 +1,34 @@
 package com.example.student.controller;
 
 import com.example.student.dto.ApiResponse;
+import com.example.student.dto.BulkEnrollRequest;
+import com.example.student.dto.BulkEnrollResultDTO;
+import com.example.student.dto.BulkGradeResultDTO;
 import com.example.student.dto.PageResponse;
 import com.example.student.dto.StudentCourseDTO;
+import com.example.student.dto.WaitlistPositionDTO;
+import com.example.student.service.BulkEnrollmentService;
+import com.example.student.service.BulkGradeService;
+import com.example.student.service.EnrollmentExportService;
 import com.example.student.service.StudentCourseService;
+import com.example.student.service.WaitlistService;
+import com.example.student.utils.ExportFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -20,6 +36,10 @@ import java.util.List;
 @RequiredArgsConstructor
 public class StudentCourseController {
     private final StudentCourseService studentCourseService;
+    private final EnrollmentExportService enrollmentExportService;
+    private final BulkEnrollmentService bulkEnrollmentService;
+    private final WaitlistService waitlistService;
+    private final BulkGradeService bulkGradeService;
     
     /**
      * 学生选课
@@ -55,6 +75,24 @@ public class StudentCourseController {
         }
     }
     
+    /**
+     * 批量选课（管理员）：按班级或学生列表为多门课程选课，返回逐条结果
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/bulk-enroll")
+    public ResponseEntity<?> bulkEnroll(@RequestBody BulkEnrollRequest request) {
+        try {
+            BulkEnrollResultDTO result = bulkEnrollmentService.bulkEnroll(request);
+            return ResponseEntity.ok(ApiResponse.success("批量选课完成", result));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(500, "批量选课失败: " + e.getMessage()));
+        }
+    }
+    
     /**
      * 学生退课（文档：DELETE /api/student-course/{enrollmentId}），保留旧的 /drop 兼容
      * 仅学生可以退课
@@ -95,6 +133,83 @@ public class StudentCourseController {
         }
     }
     
+    /**
+     * 加入课程候补队列（课程已满时），有人退课或课程扩容时按先后顺序自动递补并推送通知
+     */
+    @PreAuthorize("hasRole('STUDENT')")
+    @PostMapping("/waitlist")
+    public ResponseEntity<?> joinWaitlist(@RequestBody(required = false) EnrollRequest body,
+                                          @RequestParam(value = "courseId", required = false) Long courseIdParam,
+                                          @RequestParam(value = "studentId", required = false) Long studentIdParam) {
+        try {
+            Long courseId = courseIdParam != null ? courseIdParam : (body != null ? body.getCourseId() : null);
+            if (courseId == null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(ApiResponse.error(400, "courseId 必填"));
+            }
+            Long studentId = studentCourseService.resolveStudentId(studentIdParam);
+            if (studentId == null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(ApiResponse.error(400, "studentId 缺失，且无法从登录信息解析"));
+            }
+            WaitlistPositionDTO dto = waitlistService.join(studentId, courseId);
+            return ResponseEntity.ok(ApiResponse.success("已加入候补队列", dto));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(500, "加入候补失败: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * 查询候补位次（客户端轮询此接口，而不是反复调用选课）
+     */
+    @GetMapping("/waitlist/{courseId}")
+    public ResponseEntity<?> getWaitlistPosition(@PathVariable Long courseId,
+                                                 @RequestParam(value = "studentId", required = false) Long studentIdParam) {
+        try {
+            Long studentId = studentCourseService.resolveStudentId(studentIdParam);
+            if (studentId == null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(ApiResponse.error(400, "studentId 缺失，且无法从登录信息解析"));
+            }
+            WaitlistPositionDTO dto = waitlistService.getPosition(studentId, courseId);
+            return ResponseEntity.ok(ApiResponse.success("获取成功", dto));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(500, "获取候补位次失败: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * 退出候补队列
+     */
+    @PreAuthorize("hasRole('STUDENT')")
+    @DeleteMapping("/waitlist/{courseId}")
+    public ResponseEntity<?> leaveWaitlist(@PathVariable Long courseId,
+                                           @RequestParam(value = "studentId", required = false) Long studentIdParam) {
+        try {
+            Long studentId = studentCourseService.resolveStudentId(studentIdParam);
+            if (studentId == null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(ApiResponse.error(400, "studentId 缺失，且无法从登录信息解析"));
+            }
+            waitlistService.leave(studentId, courseId);
+            return ResponseEntity.ok(ApiResponse.success("已退出候补队列", null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(500, "退出候补失败: " + e.getMessage()));
+        }
+    }
+    
     /**
      * 获取学生已选课程列表
      */
@@ -145,6 +260,7 @@ public class StudentCourseController {
     
     /**
      * 获取可选课程列表
+     * excludeConflicts=true 时不返回与已选课程上课时间冲突的课程
      */
     @GetMapping("/available")
     public ResponseEntity<?> getAvailableCourses(
@@ -152,7 +268,8 @@ public class StudentCourseController {
             @RequestParam(value = "page", defaultValue = "1") int page,
             @RequestParam(value = "pageSize", defaultValue = "10") int pageSize,
             @RequestParam(value = "current", required = false) Integer currentCompat,
-            @RequestParam(value = "size", required = false) Integer sizeCompat) {
+            @RequestParam(value = "size", required = false) Integer sizeCompat,
+            @RequestParam(value = "excludeConflicts", defaultValue = "false") boolean excludeConflicts) {
         try {
             int pageIndex = currentCompat != null ? currentCompat : page;
             int pageSizeVal = sizeCompat != null ? sizeCompat : pageSize;
@@ -162,7 +279,7 @@ public class StudentCourseController {
                         .body(ApiResponse.error(400, "studentId 缺失，且无法从登录信息解析"));
             }
             Pageable pageable = PageRequest.of(Math.max(0, pageIndex - 1), pageSizeVal);
-            Page<StudentCourseDTO> result = studentCourseService.getAvailableCourses(studentId, pageable);
+            Page<StudentCourseDTO> result = studentCourseService.getAvailableCourses(studentId, excludeConflicts, pageable);
 
             return ResponseEntity.ok(ApiResponse.success("success", buildPage(result, pageIndex, pageSizeVal)));
         } catch (Exception e) {
@@ -173,6 +290,7 @@ public class StudentCourseController {
     
     /**
      * 获取选课历史
+     * 传入 cursor 参数（首页传空串）时使用游标分页，响应中的 nextCursor 用于请求下一页
      */
     @GetMapping("/history")
     public ResponseEntity<?> getEnrollmentHistory(
@@ -180,7 +298,8 @@ public class StudentCourseController {
             @RequestParam(value = "page", defaultValue = "1") int page,
             @RequestParam(value = "pageSize", defaultValue = "10") int pageSize,
             @RequestParam(value = "current", required = false) Integer currentCompat,
-            @RequestParam(value = "size", required = false) Integer sizeCompat) {
+            @RequestParam(value = "size", required = false) Integer sizeCompat,
+            @RequestParam(value = "cursor", required = false) String cursor) {
         try {
             int pageIndex = currentCompat != null ? currentCompat : page;
             int pageSizeVal = sizeCompat != null ? sizeCompat : pageSize;
@@ -189,10 +308,22 @@ public class StudentCourseController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body(ApiResponse.error(400, "studentId 缺失，且无法从登录信息解析"));
             }
+            if (pageSizeVal <= 0) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(ApiResponse.error(400, "每页条数必须大于0"));
+            }
+            if (cursor != null) {
+                PageResponse<StudentCourseDTO> result =
+                        studentCourseService.getEnrollmentHistoryByCursor(studentId, cursor, pageSizeVal);
+                return ResponseEntity.ok(ApiResponse.success("success", result));
+            }
             Pageable pageable = PageRequest.of(Math.max(0, pageIndex - 1), pageSizeVal);
             Page<StudentCourseDTO> result = studentCourseService.getEnrollmentHistory(studentId, pageable);
 
             return ResponseEntity.ok(ApiResponse.success("success", buildPage(result, pageIndex, pageSizeVal)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error(500, "获取选课历史失败: " + e.getMessage()));
@@ -258,28 +389,91 @@ public class StudentCourseController {
     }
 
     /**
-     * 导出选课清单（简化实现：返回 CSV 文本流）
+     * 批量录入成绩（上传 CSV / XLSX 文件），courseId 参数可为文件中未填课程的行指定课程
      */
-    @GetMapping("/export")
-    public ResponseEntity<?> exportEnrollments(
-            @RequestParam(value = "studentId", required = false) Long studentIdParam,
-            @RequestParam(value = "format", defaultValue = "csv") String format) {
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @PostMapping(value = "/grades/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> bulkGradeFile(@RequestParam("file") MultipartFile file,
+                                           @RequestParam(value = "courseId", required = false) Long courseId) {
         try {
-            Long studentId = studentCourseService.resolveStudentId(studentIdParam);
-            if (studentId == null) {
+            if (file.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(ApiResponse.error(400, "studentId 缺失，且无法从登录信息解析"));
+                        .body(ApiResponse.error(400, "上传文件不能为空"));
             }
-            String csv = studentCourseService.exportEnrollmentsCsv(studentId);
-            String filename = "enrollments.csv";
-            return ResponseEntity.ok()
-                    .header("Content-Disposition", "attachment; filename=" + filename)
-                    .header("Content-Type", "text/csv; charset=UTF-8")
-                    .body(csv);
+            ExportFormat format = ExportFormat.fromFilename(file.getOriginalFilename());
+            BulkGradeResultDTO result = bulkGradeService.importFile(file.getInputStream(), format, courseId);
+            return ResponseEntity.ok(ApiResponse.success("批量录入成绩完成", result));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(500, "批量录入成绩失败: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * 批量录入成绩（JSON 数组请求体，流式解析）
+     */
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @PostMapping(value = "/grades/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> bulkGradeJson(HttpServletRequest request,
+                                           @RequestParam(value = "courseId", required = false) Long courseId) {
+        try {
+            BulkGradeResultDTO result = bulkGradeService.importJson(request.getInputStream(), courseId);
+            return ResponseEntity.ok(ApiResponse.success("批量录入成绩完成", result));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
+        } catch (JsonProcessingException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, "JSON 格式错误: " + e.getOriginalMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(ApiResponse.error(500, "导出失败: " + e.getMessage()));
+                    .body(ApiResponse.error(500, "批量录入成绩失败: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 导出学生本人的选课清单（流式输出，format 支持 csv / xlsx）
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEnrollments(
+            @RequestParam(value = "studentId", required = false) Long studentIdParam,
+            @RequestParam(value = "format", defaultValue = "csv") String format) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        Long studentId = studentCourseService.resolveStudentId(studentIdParam);
+        if (studentId == null) {
+            throw new IllegalArgumentException("studentId 缺失，且无法从登录信息解析");
         }
+        StreamingResponseBody body = out -> enrollmentExportService.exportForStudent(studentId, exportFormat, out);
+        return buildExport("enrollments", exportFormat, body);
+    }
+    
+    /**
+     * 管理员导出选课数据：可按课程、学期（课程开课日期区间）和状态过滤，流式输出
+     */
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @GetMapping("/export/all")
+    public ResponseEntity<StreamingResponseBody> exportAllEnrollments(
+            @RequestParam(value = "courseId", required = false) Long courseId,
+            @RequestParam(value = "termStart", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate termStart,
+            @RequestParam(value = "termEnd", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate termEnd,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "format", defaultValue = "csv") String format) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        StreamingResponseBody body = out ->
+                enrollmentExportService.exportAll(courseId, termStart, termEnd, status, exportFormat, out);
+        String filename = courseId != null ? "enrollments-course-" + courseId : "enrollments-all";
+        return buildExport(filename, exportFormat, body);
+    }
+    
+    private static ResponseEntity<StreamingResponseBody> buildExport(String name, ExportFormat format,
+                                                                     StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=" + name + "." + format.getExtension())
+                .header("Content-Type", format.getContentType())
+                .body(body);
     }
 
     private static <T> PageResponse<T> buildPage(Page<T> page, int pageIndex, int pageSize) {
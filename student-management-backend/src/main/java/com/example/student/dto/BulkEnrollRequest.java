@@ -0,0 +1,19 @@
+package com.example.student.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkEnrollRequest {
+    /** 按班级选课（与 studentIds 二选一，同时传入时优先 classId） */
+    private Long classId;
+    private List<Long> studentIds;
+    private List<Long> courseIds;
+}
@@ -0,0 +1,29 @@
+package com.example.student.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkEnrollResultDTO {
+    private Integer total;
+    private Integer succeeded;
+    private Integer failed;
+    private List<Row> rows;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Row {
+        private Long studentId;
+        private Long courseId;
+        private Boolean success;
+        private String message;
+    }
+}
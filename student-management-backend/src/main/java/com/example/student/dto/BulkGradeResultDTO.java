@@ -0,0 +1,31 @@
+package com.example.student.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkGradeResultDTO {
+    private Long total;
+    private Long succeeded;
+    private Long failed;
+    /** 只返回失败行，成功行不逐条回显 */
+    private List<RowError> errors;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        /** 上传文件中的行号（含表头，从 1 开始）或 JSON 数组下标（从 1 开始） */
+        private Long rowNumber;
+        private Long studentId;
+        private Long courseId;
+        private String message;
+    }
+}
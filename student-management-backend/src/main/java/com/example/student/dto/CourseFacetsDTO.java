@@ -0,0 +1,38 @@
+package com.example.student.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 课程筛选面板的分面计数
+ *
+ * 每个维度的计数应用了除该维度以外的全部筛选条件（选中某个分类后，其他分类的计数不变，可以切换或多选）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseFacetsDTO {
+    /** 满足全部筛选条件的课程数 */
+    private Long total;
+    private List<FacetCount> categories;
+    private List<FacetCount> statuses;
+    private List<FacetCount> credits;
+    private List<FacetCount> teachers;
+    /** value 为 true（有余量）/ false（已满） */
+    private List<FacetCount> openSeats;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetCount {
+        private String value;
+        /** 显示名称（教师为用户名），其余维度为 null */
+        private String label;
+        private Long count;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.student.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 课程列表筛选条件，各字段为 null 时不限
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseFilter {
+    /** 名称/代码/简介包含 */
+    private String keyword;
+    private String category;
+    private String status;
+    private Integer minCredits;
+    private Integer maxCredits;
+    private Long teacherId;
+    /** 上课时间段与 [startDate, endDate] 有交集 */
+    private LocalDate startDate;
+    private LocalDate endDate;
+    /** true 只看有余量的课程（enrolled < capacity），false 只看已满的课程 */
+    private Boolean hasOpenSeats;
+}
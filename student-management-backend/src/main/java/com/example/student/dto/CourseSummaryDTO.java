@@ -0,0 +1,37 @@
+package com.example.student.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 课程列表行（只含表格展示需要的列，不含 description / syllabus / requirements 等 TEXT 列）
+ * 由查询直接构造（构造器表达式），字段顺序即构造器参数顺序
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseSummaryDTO {
+    private Long id;
+    private String name;
+    private String code;
+    private Long teacherId;
+    private String category;
+    private Integer capacity;
+    private Integer enrolled;
+    private String status;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate startDate;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate endDate;
+    
+    private Integer credits;
+    private String location;
+}
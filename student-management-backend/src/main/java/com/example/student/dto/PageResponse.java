@@ -1,5 +1,6 @@
 package com.example.student.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,4 +17,30 @@ public class PageResponse<T> {
     private Integer current;
     private Integer size;
     private List<T> records;
+    
+    /**
+     * 游标分页时下一页的游标，为 null 表示没有更多数据（偏移分页时不返回）
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+    
+    /**
+     * total 是否精确；为 false 时 total 为估计值（大表估算或未统计总数时的已知下限）
+     */
+    @Builder.Default
+    private Boolean totalExact = true;
+    
+    /**
+     * 是否还有下一页（未统计总数时用于判断翻页，其余情况不返回）
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean hasNext;
+    
+    public PageResponse(Long total, Integer current, Integer size, List<T> records) {
+        this.total = total;
+        this.current = current;
+        this.size = size;
+        this.records = records;
+        this.totalExact = true;
+    }
 }
@@ -0,0 +1,48 @@
+package com.example.student.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 学生批量导入任务进度
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StudentImportJobDTO {
+    private String jobId;
+    /** pending / running / completed / failed */
+    private String status;
+    private String fileName;
+    /** 已读取的数据行数 */
+    private Long processed;
+    private Long succeeded;
+    private Long failed;
+    /** 失败行（最多返回前 1000 条） */
+    private List<RowError> errors;
+    /** 任务失败原因 */
+    private String message;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    private LocalDateTime startedAt;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    private LocalDateTime finishedAt;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        /** 上传文件中的行号（含表头，从 1 开始） */
+        private Long rowNumber;
+        private String studentId;
+        private String message;
+    }
+}
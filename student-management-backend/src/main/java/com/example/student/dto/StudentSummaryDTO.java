@@ -0,0 +1,29 @@
+package com.example.student.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 学生列表行（只含表格展示需要的列），班级名称由查询连接班级表带出
+ * 由查询直接构造（构造器表达式），字段顺序即构造器参数顺序
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StudentSummaryDTO {
+    private Long id;
+    private String studentId;
+    private String name;
+    private Long classId;
+    private String className;
+    private String gender;
+    private Integer age;
+    private String phone;
+    private String email;
+    private String major;
+    private Integer admissionYear;
+    private String status;
+}
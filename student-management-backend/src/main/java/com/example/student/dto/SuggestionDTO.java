@@ -0,0 +1,19 @@
+package com.example.student.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SuggestionDTO {
+    /** course | student */
+    private String type;
+    private Long id;
+    private String name;
+    /** 课程代码或学号 */
+    private String code;
+}
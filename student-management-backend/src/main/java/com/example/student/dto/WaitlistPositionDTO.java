@@ -0,0 +1,19 @@
+package com.example.student.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitlistPositionDTO {
+    private Long courseId;
+    private Long studentId;
+    /** 队列中的位次，从 1 开始 */
+    private Long position;
+    /** 当前候补总人数 */
+    private Long waitlistSize;
+}
@@ -14,7 +14,11 @@ import java.time.LocalDateTime;
 @Table(name = "courses", indexes = {
     @Index(name = "idx_teacher_id", columnList = "teacher_id"),
     @Index(name = "idx_status", columnList = "status"),
-    @Index(name = "idx_code", columnList = "code")
+    @Index(name = "idx_code", columnList = "code"),
+    @Index(name = "idx_category", columnList = "category"),
+    @Index(name = "idx_credits", columnList = "credits"),
+    @Index(name = "idx_start_date", columnList = "start_date"),
+    @Index(name = "idx_end_date", columnList = "end_date")
 })
 @Data
 @NoArgsConstructor
@@ -0,0 +1,35 @@
+package com.example.student.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "course_waitlist", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_waitlist_course_student", columnNames = {"course_id", "student_id"})
+}, indexes = {
+    @Index(name = "idx_waitlist_course_id", columnList = "course_id,id"),
+    @Index(name = "idx_waitlist_student_id", columnList = "student_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseWaitlist {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+    
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+    
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false, name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -12,6 +12,8 @@ import java.time.LocalDateTime;
 @Table(name = "messages", indexes = {
     @Index(name = "idx_sender_id", columnList = "sender_id"),
     @Index(name = "idx_receiver_id", columnList = "receiver_id"),
+    @Index(name = "idx_receiver_status", columnList = "receiver_id, status"),
+    @Index(name = "idx_sender_receiver", columnList = "sender_id, receiver_id"),
     @Index(name = "idx_status", columnList = "status"),
     @Index(name = "idx_created_at", columnList = "created_at")
 })
@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "student_courses", indexes = {
     @Index(name = "idx_student_id_course", columnList = "student_id,course_id"),
-    @Index(name = "idx_status_enrollment", columnList = "status")
+    @Index(name = "idx_status_enrollment", columnList = "status"),
+    @Index(name = "idx_student_enroll_date", columnList = "student_id,enroll_date,id")
 })
 @Data
 @NoArgsConstructor
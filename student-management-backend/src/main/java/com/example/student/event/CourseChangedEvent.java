@@ -0,0 +1,29 @@
+package com.example.student.event;
+
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 课程数据变更事件（创建/修改/删除），由 CourseService 在事务内发布，
+ * 监听方通过 @TransactionalEventListener 在提交后处理
+ */
+@Getter
+public class CourseChangedEvent {
+    private final Collection<Long> courseIds;
+    private final boolean deleted;
+    
+    public CourseChangedEvent(Collection<Long> courseIds, boolean deleted) {
+        this.courseIds = courseIds;
+        this.deleted = deleted;
+    }
+    
+    public static CourseChangedEvent saved(Long courseId) {
+        return new CourseChangedEvent(List.of(courseId), false);
+    }
+    
+    public static CourseChangedEvent deleted(Long courseId) {
+        return new CourseChangedEvent(List.of(courseId), true);
+    }
+}
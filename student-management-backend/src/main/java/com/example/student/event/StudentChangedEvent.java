@@ -0,0 +1,29 @@
+package com.example.student.event;
+
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 学生数据变更事件（创建/修改/删除），由 StudentService 在事务内发布，
+ * 监听方通过 @TransactionalEventListener 在提交后处理
+ */
+@Getter
+public class StudentChangedEvent {
+    private final Collection<Long> studentIds;
+    private final boolean deleted;
+    
+    public StudentChangedEvent(Collection<Long> studentIds, boolean deleted) {
+        this.studentIds = studentIds;
+        this.deleted = deleted;
+    }
+    
+    public static StudentChangedEvent saved(Long studentId) {
+        return new StudentChangedEvent(List.of(studentId), false);
+    }
+    
+    public static StudentChangedEvent deleted(Collection<Long> studentIds) {
+        return new StudentChangedEvent(studentIds, true);
+    }
+}
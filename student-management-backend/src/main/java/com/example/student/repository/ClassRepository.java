@@ -2,12 +2,36 @@ package com.example.student.repository;
 
 import com.example.student.entity.Class;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ClassRepository extends JpaRepository<Class, Long> {
     Optional<Class> findByName(String name);
     boolean existsByName(String name);
+    
+    /**
+     * 按增量调整学生数（原子更新，不读取班级行）
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Class c SET c.studentCount = c.studentCount + :delta WHERE c.id = :classId")
+    int adjustStudentCount(@Param("classId") Long classId, @Param("delta") int delta);
+    
+    /**
+     * 各班级记录的学生数 [id, studentCount]（对账用）
+     */
+    @Query("SELECT c.id, c.studentCount FROM Class c")
+    List<Object[]> findStudentCounts();
+    
+    /**
+     * 对账修正：仅当学生数仍为 expected 时改为 actual，返回受影响行数
+     */
+    @Modifying
+    @Query("UPDATE Class c SET c.studentCount = :actual WHERE c.id = :classId AND c.studentCount = :expected")
+    int resetStudentCount(@Param("classId") Long classId, @Param("expected") int expected, @Param("actual") int actual);
 }
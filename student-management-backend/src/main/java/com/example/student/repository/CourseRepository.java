@@ -1,17 +1,25 @@
 package com.example.student.repository;
 
 import com.example.student.entity.Course;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CourseRepository extends JpaRepository<Course, Long> {
+public interface CourseRepository extends JpaRepository<Course, Long>, JpaSpecificationExecutor<Course>,
+        CourseRepositoryCustom {
     Optional<Course> findByCode(String code);
     
     @Query("SELECT c FROM Course c WHERE (c.name LIKE %:keyword% OR c.code LIKE %:keyword% OR c.description LIKE %:keyword%) AND c.status = :status")
@@ -20,7 +28,126 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     @Query("SELECT c FROM Course c WHERE c.name LIKE %:keyword% OR c.code LIKE %:keyword% OR c.description LIKE %:keyword%")
     Page<Course> findByKeyword(@Param("keyword") String keyword, Pageable pageable);
     
+    /**
+     * 同 findByKeyword，但不执行 COUNT（多取一行判断是否还有下一页）
+     */
+    @Query("SELECT c FROM Course c WHERE c.name LIKE %:keyword% OR c.code LIKE %:keyword% OR c.description LIKE %:keyword%")
+    Slice<Course> findSliceByKeyword(@Param("keyword") String keyword, Pageable pageable);
+    
     Page<Course> findByStatus(String status, Pageable pageable);
     
+    @Query("SELECT COUNT(c) FROM Course c WHERE c.name LIKE %:keyword% OR c.code LIKE %:keyword% OR c.description LIKE %:keyword%")
+    long countByKeyword(@Param("keyword") String keyword);
+    
+    @Query("SELECT c FROM Course c")
+    Slice<Course> findAllSlice(Pageable pageable);
+    
+    /**
+     * 游标分页：按主键 seek，取 id 大于 lastId 的前 limit 条；keyword / status 为 null 时不过滤
+     * （也用于 LIKE 后端关键词搜索的游标分页）
+     */
+    @Query("SELECT c FROM Course c WHERE c.id > :lastId AND " +
+           "(:keyword IS NULL OR c.name LIKE %:keyword% OR c.code LIKE %:keyword% OR c.description LIKE %:keyword%) AND " +
+           "(:status IS NULL OR c.status = :status) ORDER BY c.id")
+    List<Course> findByFiltersAfter(@Param("keyword") String keyword, @Param("status") String status,
+                                    @Param("lastId") Long lastId, Pageable limit);
+    
+    // 以下全文检索查询依赖 ngram 全文索引 ft_courses (name, code, description)，返回 [id, score]，
+    // score = 相关度 × 1000 取整，按 (score DESC, id) 排序，偏移分页与游标分页顺序一致
+    
+    @Query(value = "SELECT c.id, FLOOR(MATCH(c.name, c.code, c.description) AGAINST (:query IN BOOLEAN MODE) * 1000) AS score FROM courses c " +
+                   "WHERE MATCH(c.name, c.code, c.description) AGAINST (:query IN BOOLEAN MODE) ORDER BY score DESC, c.id LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Object[]> findFulltextHits(@Param("query") String query, @Param("offset") long offset, @Param("limit") int limit);
+    
+    @Query(value = "SELECT hits.id, hits.score FROM (" +
+                   "SELECT c.id, FLOOR(MATCH(c.name, c.code, c.description) AGAINST (:query IN BOOLEAN MODE) * 1000) AS score FROM courses c WHERE MATCH(c.name, c.code, c.description) AGAINST (:query IN BOOLEAN MODE)) hits " +
+                   "WHERE hits.score < :afterScore OR (hits.score = :afterScore AND hits.id > :afterId) " +
+                   "ORDER BY hits.score DESC, hits.id LIMIT :limit", nativeQuery = true)
+    List<Object[]> findFulltextHitsAfter(@Param("query") String query, @Param("afterScore") int afterScore,
+                                         @Param("afterId") long afterId, @Param("limit") int limit);
+    
+    @Query(value = "SELECT COUNT(*) FROM courses c WHERE MATCH(c.name, c.code, c.description) AGAINST (:query IN BOOLEAN MODE)", nativeQuery = true)
+    long countFulltext(@Param("query") String query);
+    
     Page<Course> findByTeacherId(Long teacherId, Pageable pageable);
+    
+    /**
+     * 学生可选课程：status = 'open' 且学生没有活跃选课记录（反连接），同时带出教师用户名
+     * 返回 [Course, teacherName]，过滤、连接、分页均在数据库完成
+     */
+    @Query(value = "SELECT c, u.username FROM Course c LEFT JOIN User u ON u.id = c.teacherId " +
+                   "WHERE c.status = 'open' AND NOT EXISTS (" +
+                   "SELECT 1 FROM StudentCourse sc WHERE sc.courseId = c.id AND sc.studentId = :studentId AND sc.status = 'active') " +
+                   "ORDER BY c.id",
+           countQuery = "SELECT COUNT(c) FROM Course c " +
+                   "WHERE c.status = 'open' AND NOT EXISTS (" +
+                   "SELECT 1 FROM StudentCourse sc WHERE sc.courseId = c.id AND sc.studentId = :studentId AND sc.status = 'active')")
+    Page<Object[]> findAvailableForStudent(@Param("studentId") Long studentId, Pageable pageable);
+    
+    /**
+     * 同 findAvailableForStudent，并排除指定课程（如与学生课表时间冲突的课程）
+     */
+    @Query(value = "SELECT c, u.username FROM Course c LEFT JOIN User u ON u.id = c.teacherId " +
+                   "WHERE c.status = 'open' AND c.id NOT IN :excludedIds AND NOT EXISTS (" +
+                   "SELECT 1 FROM StudentCourse sc WHERE sc.courseId = c.id AND sc.studentId = :studentId AND sc.status = 'active') " +
+                   "ORDER BY c.id",
+           countQuery = "SELECT COUNT(c) FROM Course c " +
+                   "WHERE c.status = 'open' AND c.id NOT IN :excludedIds AND NOT EXISTS (" +
+                   "SELECT 1 FROM StudentCourse sc WHERE sc.courseId = c.id AND sc.studentId = :studentId AND sc.status = 'active')")
+    Page<Object[]> findAvailableForStudentExcluding(@Param("studentId") Long studentId,
+                                                    @Param("excludedIds") Collection<Long> excludedIds,
+                                                    Pageable pageable);
+    
+    /**
+     * 条件占座：仅当 enrolled < capacity 时 +1，返回受影响行数（0 表示已满或课程不存在）
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Course c SET c.enrolled = c.enrolled + 1 WHERE c.id = :courseId AND c.enrolled < c.capacity")
+    int reserveSeat(@Param("courseId") Long courseId);
+    
+    /**
+     * 批量选课时锁定课程行（按 id 顺序加锁，避免死锁）
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Course c WHERE c.id IN :ids ORDER BY c.id")
+    List<Course> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * 按增量调整已选人数（调用方需已持有课程行锁并自行校验容量）
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Course c SET c.enrolled = c.enrolled + :delta WHERE c.id = :courseId")
+    int adjustEnrolled(@Param("courseId") Long courseId, @Param("delta") int delta);
+    
+    /**
+     * 批量归还座位：enrolled 减去 count，最低为 0
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Course c SET c.enrolled = CASE WHEN c.enrolled > :count THEN c.enrolled - :count ELSE 0 END WHERE c.id = :courseId")
+    int releaseSeats(@Param("courseId") Long courseId, @Param("count") int count);
+    
+    /**
+     * 释放座位：仅当 enrolled > 0 时 -1
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Course c SET c.enrolled = c.enrolled - 1 WHERE c.id = :courseId AND c.enrolled > 0")
+    int releaseSeat(@Param("courseId") Long courseId);
+    
+    /**
+     * 搜索索引字段 [id, name, code, description]，按 id 顺序分批读取
+     */
+    @Query("SELECT c.id, c.name, c.code, c.description FROM Course c WHERE c.id > :lastId ORDER BY c.id")
+    List<Object[]> findSearchFieldsAfter(@Param("lastId") Long lastId, Pageable limit);
+    
+    @Query("SELECT c.id, c.name, c.code, c.description FROM Course c WHERE c.id IN :ids")
+    List<Object[]> findSearchFieldsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * 联想词字段 [id, name, code, enrolled]，按 id 顺序分批读取
+     */
+    @Query("SELECT c.id, c.name, c.code, c.enrolled FROM Course c WHERE c.id > :lastId ORDER BY c.id")
+    List<Object[]> findSuggestFieldsAfter(@Param("lastId") Long lastId, Pageable limit);
+    
+    @Query("SELECT c.id, c.name, c.code, c.enrolled FROM Course c WHERE c.id IN :ids")
+    List<Object[]> findSuggestFieldsByIdIn(@Param("ids") Collection<Long> ids);
 }
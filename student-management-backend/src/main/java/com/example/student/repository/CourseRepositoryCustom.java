@@ -0,0 +1,32 @@
+package com.example.student.repository;
+
+import com.example.student.dto.CourseSummaryDTO;
+import com.example.student.entity.Course;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * 课程动态条件查询（Criteria），由 CourseRepositoryImpl 实现
+ */
+public interface CourseRepositoryCustom {
+    
+    /**
+     * 按条件分页查询，不执行 COUNT（多取一行判断是否还有下一页）
+     */
+    Slice<Course> findSlice(Specification<Course> spec, Pageable pageable);
+    
+    /**
+     * 同 findSlice，但只查询列表展示需要的列（不读取 TEXT 列）
+     */
+    Slice<CourseSummaryDTO> findSummarySlice(Specification<Course> spec, Pageable pageable);
+    
+    /**
+     * 分面分组统计：一次 GROUP BY 返回满足 spec 的课程按
+     * [category, status, credits, teacherId, sign(capacity - enrolled), count] 分组的计数，
+     * sign 为 1 表示有余量
+     */
+    List<Object[]> countFacetGroups(Specification<Course> spec);
+}
@@ -0,0 +1,85 @@
+package com.example.student.repository;
+
+import com.example.student.dto.CourseSummaryDTO;
+import com.example.student.entity.Course;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+public class CourseRepositoryImpl implements CourseRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public Slice<Course> findSlice(Specification<Course> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Course> query = cb.createQuery(Course.class);
+        Root<Course> root = query.from(Course.class);
+        query.select(root);
+        return slice(query, root, spec, pageable);
+    }
+    
+    @Override
+    public Slice<CourseSummaryDTO> findSummarySlice(Specification<Course> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CourseSummaryDTO> query = cb.createQuery(CourseSummaryDTO.class);
+        Root<Course> root = query.from(Course.class);
+        query.select(cb.construct(CourseSummaryDTO.class,
+                root.get("id"), root.get("name"), root.get("code"), root.get("teacherId"), root.get("category"),
+                root.get("capacity"), root.get("enrolled"), root.get("status"), root.get("startDate"),
+                root.get("endDate"), root.get("credits"), root.get("location")));
+        return slice(query, root, spec, pageable);
+    }
+    
+    /**
+     * 应用条件和排序（默认按 id），多取一行判断是否还有下一页
+     */
+    private <T> Slice<T> slice(CriteriaQuery<T> query, Root<Course> root, Specification<Course> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        query.where(spec.toPredicate(root, query, cb));
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(toOrders(pageable.getSort(), root, cb));
+        } else {
+            query.orderBy(cb.asc(root.get("id")));
+        }
+        
+        TypedQuery<T> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize() + 1);
+        }
+        List<T> rows = typedQuery.getResultList();
+        boolean hasNext = pageable.isPaged() && rows.size() > pageable.getPageSize();
+        List<T> content = hasNext ? new ArrayList<>(rows.subList(0, pageable.getPageSize())) : rows;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+    
+    @Override
+    public List<Object[]> countFacetGroups(Specification<Course> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Course> root = query.from(Course.class);
+        // 不用 CASE WHEN：条件查询中的字面量会绑定为参数，SELECT 与 GROUP BY 中的表达式不再一致
+        Expression<Integer> openSeats = cb.sign(cb.diff(root.<Integer>get("capacity"), root.<Integer>get("enrolled")));
+        query.multiselect(root.get("category"), root.get("status"), root.get("credits"),
+                        root.get("teacherId"), openSeats, cb.count(root))
+                .where(spec.toPredicate(root, query, cb))
+                .groupBy(root.get("category"), root.get("status"), root.get("credits"),
+                        root.get("teacherId"), openSeats);
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.student.repository;
+
+import com.example.student.dto.CourseFilter;
+import com.example.student.entity.Course;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 课程动态查询条件
+ *
+ * 只拼接实际传入的条件，条件列均有索引（分类、状态、学分、教师、开课日期）；
+ * 分面统计需要分别控制"分面维度"和"其他条件"，因此两类条件分开构造
+ */
+public final class CourseSpecifications {
+    
+    private CourseSpecifications() {
+    }
+    
+    /**
+     * 全部筛选条件
+     */
+    public static Specification<Course> matching(CourseFilter filter) {
+        return baseOf(filter).and(facetsOf(filter));
+    }
+    
+    /**
+     * 非分面条件：关键词、日期范围
+     */
+    public static Specification<Course> baseOf(CourseFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (hasText(filter.getKeyword())) {
+                String pattern = "%" + filter.getKeyword().trim() + "%";
+                predicates.add(cb.or(
+                        cb.like(root.get("name"), pattern),
+                        cb.like(root.get("code"), pattern),
+                        cb.like(root.get("description"), pattern)));
+            }
+            // 上课时间段与 [startDate, endDate] 有交集；未设置起止日期的课程视为不限
+            if (filter.getStartDate() != null) {
+                predicates.add(cb.or(cb.isNull(root.get("endDate")),
+                        cb.greaterThanOrEqualTo(root.get("endDate"), filter.getStartDate())));
+            }
+            if (filter.getEndDate() != null) {
+                predicates.add(cb.or(cb.isNull(root.get("startDate")),
+                        cb.lessThanOrEqualTo(root.get("startDate"), filter.getEndDate())));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+    
+    /**
+     * 分面条件：分类、状态、学分范围、教师、是否有余量
+     */
+    public static Specification<Course> facetsOf(CourseFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (hasText(filter.getCategory())) {
+                predicates.add(cb.equal(root.get("category"), filter.getCategory()));
+            }
+            if (hasText(filter.getStatus())) {
+                predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+            }
+            if (filter.getMinCredits() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("credits"), filter.getMinCredits()));
+            }
+            if (filter.getMaxCredits() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("credits"), filter.getMaxCredits()));
+            }
+            if (filter.getTeacherId() != null) {
+                predicates.add(cb.equal(root.get("teacherId"), filter.getTeacherId()));
+            }
+            if (filter.getHasOpenSeats() != null) {
+                Predicate open = hasOpenSeats(root, cb);
+                predicates.add(filter.getHasOpenSeats() ? open : cb.not(open));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+    
+    /**
+     * id 大于 lastId（游标分页）
+     */
+    public static Specification<Course> idAfter(long lastId) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), lastId);
+    }
+    
+    /**
+     * 有余量：enrolled < capacity（任一为空视为无余量，与分面统计一致）
+     */
+    static Predicate hasOpenSeats(Root<Course> root, CriteriaBuilder cb) {
+        return cb.lessThan(root.get("enrolled"), root.<Integer>get("capacity"));
+    }
+    
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+}
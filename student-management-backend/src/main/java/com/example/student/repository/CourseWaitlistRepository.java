@@ -0,0 +1,54 @@
+package com.example.student.repository;
+
+import com.example.student.entity.CourseWaitlist;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CourseWaitlistRepository extends JpaRepository<CourseWaitlist, Long> {
+    Optional<CourseWaitlist> findByCourseIdAndStudentId(Long courseId, Long studentId);
+    
+    boolean existsByCourseIdAndStudentId(Long courseId, Long studentId);
+    
+    long countByCourseId(Long courseId);
+    
+    boolean existsByCourseId(Long courseId);
+    
+    /**
+     * 锁定队首（并发退课时同一候补者只会被递补一次）
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<CourseWaitlist> findFirstByCourseIdOrderByIdAsc(Long courseId);
+    
+    @Query("SELECT COUNT(w) FROM CourseWaitlist w WHERE w.courseId = :courseId AND w.id < :id")
+    long countAhead(@Param("courseId") Long courseId, @Param("id") Long id);
+    
+    /**
+     * 课程的整个候补队列 [id, studentId]，按入队顺序
+     */
+    @Query("SELECT w.id, w.studentId FROM CourseWaitlist w WHERE w.courseId = :courseId ORDER BY w.id")
+    List<Object[]> findQueueByCourseId(@Param("courseId") Long courseId);
+    
+    /**
+     * 给定学生的候补记录 [courseId, studentId]
+     */
+    @Query("SELECT w.courseId, w.studentId FROM CourseWaitlist w WHERE w.studentId IN :studentIds")
+    List<Object[]> findEntriesByStudentIdIn(@Param("studentIds") Collection<Long> studentIds);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM CourseWaitlist w WHERE w.studentId IN :studentIds")
+    int deleteByStudentIdIn(@Param("studentIds") Collection<Long> studentIds);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM CourseWaitlist w WHERE w.courseId = :courseId AND w.studentId IN :studentIds")
+    int deleteByCourseIdAndStudentIdIn(@Param("courseId") Long courseId, @Param("studentIds") Collection<Long> studentIds);
+}
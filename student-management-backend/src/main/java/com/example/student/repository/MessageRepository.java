@@ -24,6 +24,22 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     
     Page<Message> findBySenderIdAndReceiverId(Long senderId, Long receiverId, Pageable pageable);
     
+    // 以下游标分页查询按主键倒序 seek（新消息在前），取 id 小于 lastId 的前 limit 条；
+    // 二级索引隐含主键列，(receiver_id) / (receiver_id, status) / (sender_id, receiver_id) 即可覆盖排序
+    
+    @Query("SELECT m FROM Message m WHERE m.receiverId = :receiverId AND m.id < :lastId ORDER BY m.id DESC")
+    List<Message> findInboxBefore(@Param("receiverId") Long receiverId, @Param("lastId") Long lastId, Pageable limit);
+    
+    @Query("SELECT m FROM Message m WHERE m.receiverId = :receiverId AND m.status = :status AND m.id < :lastId " +
+           "ORDER BY m.id DESC")
+    List<Message> findByStatusBefore(@Param("receiverId") Long receiverId, @Param("status") String status,
+                                     @Param("lastId") Long lastId, Pageable limit);
+    
+    @Query("SELECT m FROM Message m WHERE m.senderId = :senderId AND m.receiverId = :receiverId AND m.id < :lastId " +
+           "ORDER BY m.id DESC")
+    List<Message> findConversationBefore(@Param("senderId") Long senderId, @Param("receiverId") Long receiverId,
+                                         @Param("lastId") Long lastId, Pageable limit);
+    
     @Query("SELECT COUNT(m) FROM Message m WHERE m.receiverId = :receiverId AND m.status = 'unread'")
     Integer countUnreadMessages(@Param("receiverId") Long receiverId);
     
@@ -4,10 +4,13 @@ import com.example.student.entity.StudentCourse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,4 +30,62 @@ public interface StudentCourseRepository extends JpaRepository<StudentCourse, Lo
     List<StudentCourse> findActiveEnrollmentsByStudentId(@Param("studentId") Long studentId);
     
     Integer countByCourseIdAndStatus(Long courseId, String status);
+    
+    /**
+     * 批量选课用：一次取出这些学生在目标课程上的已有记录以及全部活跃选课，返回 [studentId, courseId, status]
+     */
+    @Query("SELECT sc.studentId, sc.courseId, sc.status FROM StudentCourse sc " +
+           "WHERE sc.studentId IN :studentIds AND (sc.courseId IN :courseIds OR sc.status = 'active')")
+    List<Object[]> findEnrollmentStates(@Param("studentIds") Collection<Long> studentIds,
+                                        @Param("courseIds") Collection<Long> courseIds);
+    
+    @Query("SELECT sc.courseId FROM StudentCourse sc WHERE sc.studentId = :studentId AND sc.status = 'active'")
+    List<Long> findActiveCourseIdsByStudentId(@Param("studentId") Long studentId);
+    
+    /**
+     * 选课历史（偏移分页），按 enroll_date、id 倒序
+     */
+    @Query("SELECT sc FROM StudentCourse sc WHERE sc.studentId = :studentId ORDER BY sc.enrollDate DESC, sc.id DESC")
+    Page<StudentCourse> findHistoryByStudentId(@Param("studentId") Long studentId, Pageable pageable);
+    
+    /**
+     * 选课历史（游标分页首页），不做 COUNT
+     */
+    @Query("SELECT sc FROM StudentCourse sc WHERE sc.studentId = :studentId ORDER BY sc.enrollDate DESC, sc.id DESC")
+    List<StudentCourse> findHistoryHead(@Param("studentId") Long studentId, Pageable limit);
+    
+    /**
+     * 选课历史（游标分页后续页）：在 (student_id, enroll_date, id) 索引上 seek
+     * 倒序时 enroll_date 为 NULL 的记录排在最后，因此游标之后还包括全部 NULL 行
+     */
+    @Query("SELECT sc FROM StudentCourse sc WHERE sc.studentId = :studentId " +
+           "AND (sc.enrollDate < :enrollDate OR (sc.enrollDate = :enrollDate AND sc.id < :id) OR sc.enrollDate IS NULL) " +
+           "ORDER BY sc.enrollDate DESC, sc.id DESC")
+    List<StudentCourse> findHistoryBefore(@Param("studentId") Long studentId,
+                                          @Param("enrollDate") LocalDateTime enrollDate,
+                                          @Param("id") Long id,
+                                          Pageable limit);
+    
+    /**
+     * 选课历史（游标分页后续页，游标已进入 enroll_date 为 NULL 的尾部）：按 id 倒序继续
+     */
+    @Query("SELECT sc FROM StudentCourse sc WHERE sc.studentId = :studentId " +
+           "AND sc.enrollDate IS NULL AND sc.id < :id ORDER BY sc.id DESC")
+    List<StudentCourse> findUndatedHistoryBefore(@Param("studentId") Long studentId,
+                                                 @Param("id") Long id,
+                                                 Pageable limit);
+    
+    /**
+     * 给定学生的活跃选课按课程计数 [courseId, count]（批量删除学生时归还座位）
+     */
+    @Query("SELECT sc.courseId, COUNT(sc) FROM StudentCourse sc " +
+           "WHERE sc.studentId IN :studentIds AND sc.status = 'active' GROUP BY sc.courseId ORDER BY sc.courseId")
+    List<Object[]> countActiveByCourseForStudents(@Param("studentIds") Collection<Long> studentIds);
+    
+    /**
+     * 删除给定学生的全部选课记录（一条 DELETE ... WHERE student_id IN (...)）
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM StudentCourse sc WHERE sc.studentId IN :studentIds")
+    int deleteByStudentIdIn(@Param("studentIds") Collection<Long> studentIds);
 }
@@ -1,13 +1,17 @@
 package com.example.student.repository;
 
+import com.example.student.dto.StudentSummaryDTO;
 import com.example.student.entity.Student;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,12 +32,165 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
         Pageable pageable
     );
     
+    /**
+     * 同 findByFilters，但不执行 COUNT，总数由 CountService 按策略计算
+     * 同时连接班级表带出班级名称，返回 [Student, className]，一页只需一次查询
+     */
+    @Query("SELECT s, c.name FROM Student s LEFT JOIN Class c ON c.id = s.classId WHERE " +
+           "(:keyword IS NULL OR s.name LIKE %:keyword% OR s.studentId LIKE %:keyword%) AND " +
+           "(:classId IS NULL OR s.classId = :classId) AND " +
+           "(:status IS NULL OR s.status = :status)")
+    Slice<Object[]> findSliceWithClassNameByFilters(
+        @Param("keyword") String keyword,
+        @Param("classId") Long classId,
+        @Param("status") String status,
+        Pageable pageable
+    );
+    
+    /**
+     * 学生列表行投影：只查询表格展示需要的列并带出班级名称，不执行 COUNT
+     */
+    @Query("SELECT new com.example.student.dto.StudentSummaryDTO(s.id, s.studentId, s.name, s.classId, c.name, " +
+           "s.gender, s.age, s.phone, s.email, s.major, s.admissionYear, s.status) " +
+           "FROM Student s LEFT JOIN Class c ON c.id = s.classId WHERE " +
+           "(:keyword IS NULL OR s.name LIKE %:keyword% OR s.studentId LIKE %:keyword%) AND " +
+           "(:classId IS NULL OR s.classId = :classId) AND " +
+           "(:status IS NULL OR s.status = :status)")
+    Slice<StudentSummaryDTO> findSummarySliceByFilters(
+        @Param("keyword") String keyword,
+        @Param("classId") Long classId,
+        @Param("status") String status,
+        Pageable pageable
+    );
+    
+    /**
+     * 学生列表行投影的游标分页
+     */
+    @Query("SELECT new com.example.student.dto.StudentSummaryDTO(s.id, s.studentId, s.name, s.classId, c.name, " +
+           "s.gender, s.age, s.phone, s.email, s.major, s.admissionYear, s.status) " +
+           "FROM Student s LEFT JOIN Class c ON c.id = s.classId WHERE s.id > :lastId AND " +
+           "(:keyword IS NULL OR s.name LIKE %:keyword% OR s.studentId LIKE %:keyword%) AND " +
+           "(:classId IS NULL OR s.classId = :classId) AND " +
+           "(:status IS NULL OR s.status = :status) ORDER BY s.id")
+    List<StudentSummaryDTO> findSummariesByFiltersAfter(
+        @Param("keyword") String keyword,
+        @Param("classId") Long classId,
+        @Param("status") String status,
+        @Param("lastId") Long lastId,
+        Pageable limit
+    );
+    
+    /**
+     * 游标分页：按主键 seek，取 id 大于 lastId 的前 limit 条（深翻页不扫描前面的行）
+     */
+    @Query("SELECT s FROM Student s WHERE s.id > :lastId AND " +
+           "(:keyword IS NULL OR s.name LIKE %:keyword% OR s.studentId LIKE %:keyword%) AND " +
+           "(:classId IS NULL OR s.classId = :classId) AND " +
+           "(:status IS NULL OR s.status = :status) ORDER BY s.id")
+    List<Student> findByFiltersAfter(
+        @Param("keyword") String keyword,
+        @Param("classId") Long classId,
+        @Param("status") String status,
+        @Param("lastId") Long lastId,
+        Pageable limit
+    );
+    
+    @Query("SELECT COUNT(s) FROM Student s WHERE " +
+           "(:keyword IS NULL OR s.name LIKE %:keyword% OR s.studentId LIKE %:keyword%) AND " +
+           "(:classId IS NULL OR s.classId = :classId) AND " +
+           "(:status IS NULL OR s.status = :status)")
+    long countByFilters(
+        @Param("keyword") String keyword,
+        @Param("classId") Long classId,
+        @Param("status") String status
+    );
+    
+    @Query("SELECT COUNT(s) FROM Student s WHERE s.name LIKE %:keyword% OR s.studentId LIKE %:keyword% OR s.email LIKE %:keyword% OR s.phone LIKE %:keyword%")
+    long countByKeyword(@Param("keyword") String keyword);
+    
+    @Query("SELECT s FROM Student s")
+    Slice<Student> findAllSlice(Pageable pageable);
+    
     @Query("SELECT s FROM Student s WHERE s.name LIKE %:keyword% OR s.studentId LIKE %:keyword% OR s.email LIKE %:keyword% OR s.phone LIKE %:keyword%")
     Page<Student> findByKeyword(@Param("keyword") String keyword, Pageable pageable);
     
+    /**
+     * 同 findByKeyword，但不执行 COUNT（多取一行判断是否还有下一页）
+     */
+    @Query("SELECT s FROM Student s WHERE s.name LIKE %:keyword% OR s.studentId LIKE %:keyword% OR s.email LIKE %:keyword% OR s.phone LIKE %:keyword%")
+    Slice<Student> findSliceByKeyword(@Param("keyword") String keyword, Pageable pageable);
+    
+    /**
+     * 关键词搜索的游标分页（LIKE 后端无相关度，按主键顺序 seek）
+     */
+    @Query("SELECT s FROM Student s WHERE s.id > :lastId AND " +
+           "(s.name LIKE %:keyword% OR s.studentId LIKE %:keyword% OR s.email LIKE %:keyword% OR s.phone LIKE %:keyword%) " +
+           "ORDER BY s.id")
+    List<Student> findByKeywordAfter(@Param("keyword") String keyword, @Param("lastId") Long lastId, Pageable limit);
+    
+    // 以下全文检索查询依赖 ngram 全文索引 ft_students (name, student_id, email)，返回 [id, score]，
+    // score = 相关度 × 1000 取整，按 (score DESC, id) 排序，偏移分页与游标分页顺序一致
+    
+    @Query(value = "SELECT s.id, FLOOR(MATCH(s.name, s.student_id, s.email) AGAINST (:query IN BOOLEAN MODE) * 1000) AS score FROM students s " +
+                   "WHERE MATCH(s.name, s.student_id, s.email) AGAINST (:query IN BOOLEAN MODE) ORDER BY score DESC, s.id LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Object[]> findFulltextHits(@Param("query") String query, @Param("offset") long offset, @Param("limit") int limit);
+    
+    @Query(value = "SELECT hits.id, hits.score FROM (" +
+                   "SELECT s.id, FLOOR(MATCH(s.name, s.student_id, s.email) AGAINST (:query IN BOOLEAN MODE) * 1000) AS score FROM students s WHERE MATCH(s.name, s.student_id, s.email) AGAINST (:query IN BOOLEAN MODE)) hits " +
+                   "WHERE hits.score < :afterScore OR (hits.score = :afterScore AND hits.id > :afterId) " +
+                   "ORDER BY hits.score DESC, hits.id LIMIT :limit", nativeQuery = true)
+    List<Object[]> findFulltextHitsAfter(@Param("query") String query, @Param("afterScore") int afterScore,
+                                         @Param("afterId") long afterId, @Param("limit") int limit);
+    
+    @Query(value = "SELECT COUNT(*) FROM students s WHERE MATCH(s.name, s.student_id, s.email) AGAINST (:query IN BOOLEAN MODE)", nativeQuery = true)
+    long countFulltext(@Param("query") String query);
+    
     List<Student> findByClassId(Long classId);
     
     long countByClassId(Long classId);
     
+    /**
+     * 各班级实际学生数 [classId, count]，一次 GROUP BY（班级学生数对账用）
+     */
+    @Query("SELECT s.classId, COUNT(s) FROM Student s GROUP BY s.classId")
+    List<Object[]> countGroupByClassId();
+    
+    /**
+     * 给定学生按班级计数 [classId, count]（批量删除时调整班级学生数）
+     */
+    @Query("SELECT s.classId, COUNT(s) FROM Student s WHERE s.id IN :ids GROUP BY s.classId")
+    List<Object[]> countByClassIdForIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * 按 id 批量删除（一条 DELETE ... WHERE id IN (...)，不逐行加载实体）
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Student s WHERE s.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * 给定学号中已存在的学号（批量导入时按批校验唯一性）
+     */
+    @Query("SELECT s.studentId FROM Student s WHERE s.studentId IN :studentIds")
+    List<String> findExistingStudentIds(@Param("studentIds") Collection<String> studentIds);
+    
+    @Query("SELECT s.id FROM Student s WHERE s.studentId IN :studentIds")
+    List<Long> findIdsByStudentIdIn(@Param("studentIds") Collection<String> studentIds);
+    
     List<Student> findByIdIn(List<Long> ids);
+    
+    @Query("SELECT s.id FROM Student s WHERE s.classId = :classId ORDER BY s.id")
+    List<Long> findIdsByClassId(@Param("classId") Long classId);
+    
+    @Query("SELECT s.id FROM Student s WHERE s.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * 搜索索引字段 [id, name, studentId, email, phone]，按 id 顺序分批读取
+     */
+    @Query("SELECT s.id, s.name, s.studentId, s.email, s.phone FROM Student s WHERE s.id > :lastId ORDER BY s.id")
+    List<Object[]> findSearchFieldsAfter(@Param("lastId") Long lastId, Pageable limit);
+    
+    @Query("SELECT s.id, s.name, s.studentId, s.email, s.phone FROM Student s WHERE s.id IN :ids")
+    List<Object[]> findSearchFieldsByIdIn(@Param("ids") Collection<Long> ids);
 }
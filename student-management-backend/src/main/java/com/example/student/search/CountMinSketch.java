@@ -0,0 +1,57 @@
+package com.example.student.search;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min Sketch：固定内存估计任意关键词的出现次数，只会高估不会低估
+ * 误差约为 总次数 × e / width，概率 1 - e^-depth
+ *
+ * 非线程安全，由调用方串行访问
+ */
+class CountMinSketch {
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L
+    };
+
+    private final int depth;
+    private final int mask;
+    private final long[] table;
+
+    /**
+     * @param depth 行数（哈希函数个数），最多 8
+     * @param width 每行计数器个数，向上取 2 的幂
+     */
+    CountMinSketch(int depth, int width) {
+        this.depth = Math.min(depth, SEEDS.length);
+        int size = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.mask = size - 1;
+        this.table = new long[this.depth * size];
+    }
+
+    void add(String key, long count) {
+        int hash = key.hashCode();
+        for (int row = 0; row < depth; row++) {
+            table[index(row, hash)] += count;
+        }
+    }
+
+    long estimate(String key) {
+        int hash = key.hashCode();
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, table[index(row, hash)]);
+        }
+        return min;
+    }
+
+    void clear() {
+        Arrays.fill(table, 0);
+    }
+
+    private int index(int row, int hash) {
+        long h = (hash ^ SEEDS[row]) * 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return row * (mask + 1) + (int) (h & mask);
+    }
+}
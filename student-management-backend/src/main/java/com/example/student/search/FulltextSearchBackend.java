@@ -0,0 +1,211 @@
+package com.example.student.search;
+
+import com.example.student.entity.Course;
+import com.example.student.entity.Student;
+import com.example.student.repository.CourseRepository;
+import com.example.student.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * MySQL 全文检索（InnoDB FULLTEXT + ngram 分词）
+ *
+ * 索引由 MySQL 在事务提交时维护，多实例部署无需各自构建内存索引。关键词按短语（BOOLEAN MODE 的 "..."）匹配，
+ * 即要求 n-gram 连续出现，命中集合与 LIKE '%kw%' 基本一致，但走倒排索引而不是全表扫描；按相关度排序。
+ * 短于 ngram_token_size 的关键词无法走全文索引，回退到 LIKE。
+ *
+ * search.backend = fulltext 时启动后检查全文索引，缺失则异步创建（大表需要数分钟），
+ * 创建完成前 isReady() 为 false，由 SearchService 回退到 LIKE。也可以事先执行 db/fulltext_indexes.sql。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FulltextSearchBackend implements SearchBackend {
+
+    private final CourseRepository courseRepository;
+    private final StudentRepository studentRepository;
+    private final LikeSearchBackend likeSearchBackend;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${search.backend:memory}")
+    private String configuredBackend;
+
+    /** 与 MySQL 的 ngram_token_size 保持一致 */
+    @Value("${search.fulltext.ngram-token-size:2}")
+    private int ngramTokenSize;
+
+    private volatile boolean ready;
+
+    @Override
+    public String getName() {
+        return "fulltext";
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 启用全文检索时确保全文索引存在
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        if (!getName().equals(configuredBackend)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            createIfMissing("courses", "ft_courses", "name, code, description");
+            createIfMissing("students", "ft_students", "name, student_id, email");
+            ready = true;
+            log.info("全文索引就绪，耗时 {} ms", System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("全文索引创建失败，继续使用数据库 LIKE 搜索: {}", e.getMessage(), e);
+        }
+    }
+
+    private void createIfMissing(String table, String index, String columns) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?",
+                Integer.class, table, index);
+        if (existing != null && existing > 0) {
+            return;
+        }
+        log.info("创建全文索引 {}.{} ({})", table, index, columns);
+        // 表名、索引名、列名只来自本类常量
+        jdbcTemplate.execute("ALTER TABLE " + table + " ADD FULLTEXT INDEX " + index
+                + " (" + columns + ") WITH PARSER ngram");
+    }
+
+    @Override
+    public Page<Course> searchCourses(String keyword, Pageable pageable) {
+        String query = toQuery(keyword);
+        if (query == null) {
+            return likeSearchBackend.searchCourses(keyword, pageable);
+        }
+        List<Object[]> hits = courseRepository.findFulltextHits(query, pageable.getOffset(), pageable.getPageSize());
+        List<Course> content = SearchResults.loadInOrder(ids(hits), courseRepository::findAllById, Course::getId);
+        // 最后一页可由偏移量直接得出总数，不执行 COUNT
+        return PageableExecutionUtils.getPage(content, pageable, () -> courseRepository.countFulltext(query));
+    }
+
+    @Override
+    public Page<Student> searchStudents(String keyword, Pageable pageable) {
+        String query = toQuery(keyword);
+        if (query == null) {
+            return likeSearchBackend.searchStudents(keyword, pageable);
+        }
+        List<Object[]> hits = studentRepository.findFulltextHits(query, pageable.getOffset(), pageable.getPageSize());
+        List<Student> content = SearchResults.loadInOrder(ids(hits), studentRepository::findAllById, Student::getId);
+        return PageableExecutionUtils.getPage(content, pageable, () -> studentRepository.countFulltext(query));
+    }
+
+    @Override
+    public Slice<Course> searchCoursesSlice(String keyword, Pageable pageable) {
+        String query = toQuery(keyword);
+        if (query == null) {
+            return likeSearchBackend.searchCoursesSlice(keyword, pageable);
+        }
+        List<Object[]> hits = courseRepository.findFulltextHits(query, pageable.getOffset(), pageable.getPageSize() + 1);
+        return toSlice(hits, pageable, courseRepository::findAllById, Course::getId);
+    }
+
+    @Override
+    public Slice<Student> searchStudentsSlice(String keyword, Pageable pageable) {
+        String query = toQuery(keyword);
+        if (query == null) {
+            return likeSearchBackend.searchStudentsSlice(keyword, pageable);
+        }
+        List<Object[]> hits = studentRepository.findFulltextHits(query, pageable.getOffset(), pageable.getPageSize() + 1);
+        return toSlice(hits, pageable, studentRepository::findAllById, Student::getId);
+    }
+
+    @Override
+    public ScoredSlice<Course> searchCoursesAfter(String keyword, int afterScore, long afterId, int limit) {
+        String query = toQuery(keyword);
+        if (query == null) {
+            return likeSearchBackend.searchCoursesAfter(keyword, afterScore, afterId, limit);
+        }
+        List<Object[]> hits = courseRepository.findFulltextHitsAfter(query, afterScore, afterId, limit + 1);
+        return SearchResults.loadScored(ids(hits), scores(hits), limit, null,
+                courseRepository::findAllById, Course::getId);
+    }
+
+    @Override
+    public ScoredSlice<Student> searchStudentsAfter(String keyword, int afterScore, long afterId, int limit) {
+        String query = toQuery(keyword);
+        if (query == null) {
+            return likeSearchBackend.searchStudentsAfter(keyword, afterScore, afterId, limit);
+        }
+        List<Object[]> hits = studentRepository.findFulltextHitsAfter(query, afterScore, afterId, limit + 1);
+        return SearchResults.loadScored(ids(hits), scores(hits), limit, null,
+                studentRepository::findAllById, Student::getId);
+    }
+
+    @Override
+    public long countCourses(String keyword) {
+        String query = toQuery(keyword);
+        return query == null ? likeSearchBackend.countCourses(keyword) : courseRepository.countFulltext(query);
+    }
+
+    @Override
+    public long countStudents(String keyword) {
+        String query = toQuery(keyword);
+        return query == null ? likeSearchBackend.countStudents(keyword) : studentRepository.countFulltext(query);
+    }
+
+    /**
+     * 关键词转为 BOOLEAN MODE 短语查询；去掉双引号（短语内其余运算符均按字面处理），
+     * 有效字符数不足一个 n-gram 时返回 null
+     */
+    private String toQuery(String keyword) {
+        String phrase = keyword.replace('"', ' ').trim();
+        String compact = phrase.replaceAll("\\s+", "");
+        if (compact.codePointCount(0, compact.length()) < ngramTokenSize) {
+            return null;
+        }
+        return '"' + phrase + '"';
+    }
+
+    private static <T> Slice<T> toSlice(List<Object[]> hits, Pageable pageable,
+                                        Function<Collection<Long>, List<T>> loader, Function<T, Long> idGetter) {
+        boolean hasNext = hits.size() > pageable.getPageSize();
+        List<Long> ids = ids(hasNext ? hits.subList(0, pageable.getPageSize()) : hits);
+        return new SliceImpl<>(SearchResults.loadInOrder(ids, loader, idGetter), pageable, hasNext);
+    }
+
+    private static List<Long> ids(List<Object[]> hits) {
+        List<Long> ids = new ArrayList<>(hits.size());
+        for (Object[] hit : hits) {
+            ids.add(((Number) hit[0]).longValue());
+        }
+        return ids;
+    }
+
+    private static int[] scores(List<Object[]> hits) {
+        int[] scores = new int[hits.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = ((Number) hits.get(i)[1]).intValue();
+        }
+        return scores;
+    }
+}
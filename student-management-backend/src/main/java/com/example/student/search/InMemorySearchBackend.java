@@ -0,0 +1,323 @@
+package com.example.student.search;
+
+import com.example.student.entity.Course;
+import com.example.student.entity.Student;
+import com.example.student.event.CourseChangedEvent;
+import com.example.student.event.StudentChangedEvent;
+import com.example.student.repository.CourseRepository;
+import com.example.student.repository.StudentRepository;
+import com.example.student.search.analysis.Analyzer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 内存倒排索引搜索
+ *
+ * 启动后异步全量构建（按 id 分批读取索引字段），构建完成前 isReady() 为 false，
+ * 由 SearchService 回退到数据库搜索。之后由课程/学生变更事件在事务提交后增量更新。
+ * 索引只负责排序和分页，命中的一页实体再按主键批量读取。
+ *
+ * 每个节点各有一份索引：本节点更新后通过 Redis 频道 search_index:changed 通知其他节点按 id 重新读取，
+ * 各节点更新完索引后再递增搜索缓存版本，避免索引更新前查出的旧结果留在共享缓存里。
+ * 发布订阅不保证送达，另按 search.index.rebuild-interval-ms 定期在后台重建新索引后整体替换兜底。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InMemorySearchBackend implements SearchBackend, MessageListener {
+
+    private static final int BUILD_BATCH_SIZE = 5000;
+
+    private static final String CHANNEL = "search_index:changed";
+    private static final String COURSE = "course";
+    private static final String STUDENT = "student";
+
+    /** 课程字段权重：名称、代码、简介 */
+    private static final int[] COURSE_FIELD_WEIGHTS = {5, 4, 1};
+
+    /** 学生字段权重：姓名、学号、邮箱、电话 */
+    private static final int[] STUDENT_FIELD_WEIGHTS = {5, 4, 2, 2};
+
+    private final CourseRepository courseRepository;
+    private final StudentRepository studentRepository;
+    private final SearchCache searchCache;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    /** 本节点标识，忽略自己发出的通知 */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /** 重建时整体替换，读取方每次取当前引用 */
+    private volatile InvertedIndex courseIndex = newCourseIndex();
+    private volatile InvertedIndex studentIndex = newStudentIndex();
+
+    /** 构建期间变更过的文档，新索引替换上线后按数据库当前状态重放 */
+    private final Set<Long> changedCoursesDuringBuild = ConcurrentHashMap.newKeySet();
+    private final Set<Long> changedStudentsDuringBuild = ConcurrentHashMap.newKeySet();
+
+    /** 未选用内存索引时不构建也不维护，避免占用内存 */
+    @Value("${search.backend:memory}")
+    private String configuredBackend;
+
+    private volatile boolean ready;
+    private volatile boolean building;
+
+    /** 课程名称常用缩写（"高数"、"gs"），开启子序列匹配 */
+    private static InvertedIndex newCourseIndex() {
+        return new InvertedIndex(Analyzer.chinese(), true, COURSE_FIELD_WEIGHTS);
+    }
+
+    /** 学生量大且姓名短，只做子串/前缀匹配 */
+    private static InvertedIndex newStudentIndex() {
+        return new InvertedIndex(Analyzer.chinese(), false, STUDENT_FIELD_WEIGHTS);
+    }
+
+    @PostConstruct
+    void subscribe() {
+        if (enabled()) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "memory";
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 启动后全量构建索引
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (enabled()) {
+            build();
+        }
+    }
+
+    /**
+     * 定期重建，弥补丢失的变更通知；重建期间旧索引继续服务，内存峰值约为两份索引
+     */
+    @Scheduled(initialDelayString = "${search.index.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${search.index.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        if (enabled() && ready) {
+            build();
+        }
+    }
+
+    private synchronized void build() {
+        long start = System.currentTimeMillis();
+        building = true;
+        try {
+            InvertedIndex courses = newCourseIndex();
+            long lastId = 0;
+            List<Object[]> rows;
+            do {
+                rows = courseRepository.findSearchFieldsAfter(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+                for (Object[] row : rows) {
+                    courses.putIfAbsent((Long) row[0], (String) row[1], (String) row[2], (String) row[3]);
+                    lastId = (Long) row[0];
+                }
+            } while (rows.size() == BUILD_BATCH_SIZE);
+
+            InvertedIndex students = newStudentIndex();
+            lastId = 0;
+            do {
+                rows = studentRepository.findSearchFieldsAfter(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+                for (Object[] row : rows) {
+                    students.putIfAbsent((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (String) row[4]);
+                    lastId = (Long) row[0];
+                }
+            } while (rows.size() == BUILD_BATCH_SIZE);
+
+            courseIndex = courses;
+            studentIndex = students;
+            building = false;
+            // 构建期间的变更可能早于或晚于分批读取，替换后按数据库当前状态重放一次
+            reindexCourses(List.copyOf(changedCoursesDuringBuild));
+            reindexStudents(List.copyOf(changedStudentsDuringBuild));
+
+            ready = true;
+            log.info("搜索索引构建完成: 课程 {} 门, 学生 {} 人, 耗时 {} ms",
+                    courses.size(), students.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("搜索索引构建失败，{}: {}", ready ? "继续使用旧索引" : "继续使用数据库搜索", e.getMessage(), e);
+        } finally {
+            building = false;
+            changedCoursesDuringBuild.clear();
+            changedStudentsDuringBuild.clear();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        if (!enabled()) {
+            return;
+        }
+        applyCourseChange(event.getCourseIds(), event.isDeleted());
+        publish(COURSE, event.getCourseIds(), event.isDeleted());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        if (!enabled()) {
+            return;
+        }
+        applyStudentChange(event.getStudentIds(), event.isDeleted());
+        publish(STUDENT, event.getStudentIds(), event.isDeleted());
+    }
+
+    /**
+     * 其他节点的变更通知，消息格式：nodeId:course|student:0|1(是否删除):id,id,...
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":", 4);
+        if (parts.length < 4 || nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            List<Long> ids = new ArrayList<>();
+            for (String id : parts[3].split(",")) {
+                ids.add(Long.parseLong(id));
+            }
+            boolean deleted = "1".equals(parts[2]);
+            if (COURSE.equals(parts[1])) {
+                applyCourseChange(ids, deleted);
+            } else if (STUDENT.equals(parts[1])) {
+                applyStudentChange(ids, deleted);
+            }
+        } catch (Exception e) {
+            log.error("处理搜索索引变更通知失败: {}", e.getMessage());
+        }
+    }
+
+    private void applyCourseChange(Collection<Long> ids, boolean deleted) {
+        if (building) {
+            changedCoursesDuringBuild.addAll(ids);
+        }
+        if (deleted) {
+            ids.forEach(courseIndex::remove);
+        } else {
+            reindexCourses(ids);
+        }
+        searchCache.invalidate(SearchCache.COURSES);
+    }
+
+    private void applyStudentChange(Collection<Long> ids, boolean deleted) {
+        if (building) {
+            changedStudentsDuringBuild.addAll(ids);
+        }
+        if (deleted) {
+            ids.forEach(studentIndex::remove);
+        } else {
+            reindexStudents(ids);
+        }
+        searchCache.invalidate(SearchCache.STUDENTS);
+    }
+
+    /**
+     * 按数据库当前状态更新给定课程：存在则写入，已不存在则移除
+     */
+    private void reindexCourses(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        InvertedIndex index = courseIndex;
+        Set<Long> missing = new HashSet<>(ids);
+        for (Object[] row : courseRepository.findSearchFieldsByIdIn(ids)) {
+            index.put((Long) row[0], (String) row[1], (String) row[2], (String) row[3]);
+            missing.remove((Long) row[0]);
+        }
+        missing.forEach(index::remove);
+    }
+
+    private void reindexStudents(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        InvertedIndex index = studentIndex;
+        Set<Long> missing = new HashSet<>(ids);
+        for (Object[] row : studentRepository.findSearchFieldsByIdIn(ids)) {
+            index.put((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (String) row[4]);
+            missing.remove((Long) row[0]);
+        }
+        missing.forEach(index::remove);
+    }
+
+    private void publish(String type, Collection<Long> ids, boolean deleted) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        String body = nodeId + ":" + type + ":" + (deleted ? "1" : "0") + ":"
+                + ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        try {
+            redisTemplate.convertAndSend(CHANNEL, body);
+        } catch (Exception e) {
+            log.error("发布搜索索引变更通知失败: {}", e.getMessage());
+        }
+    }
+
+    private boolean enabled() {
+        return getName().equals(configuredBackend);
+    }
+
+    @Override
+    public Page<Course> searchCourses(String keyword, Pageable pageable) {
+        SearchHits hits = courseIndex.search(keyword, pageable.getOffset(), pageable.getPageSize());
+        List<Course> content = SearchResults.loadInOrder(hits.getIds(), courseRepository::findAllById, Course::getId);
+        return new PageImpl<>(content, pageable, hits.getTotal());
+    }
+
+    @Override
+    public Page<Student> searchStudents(String keyword, Pageable pageable) {
+        SearchHits hits = studentIndex.search(keyword, pageable.getOffset(), pageable.getPageSize());
+        List<Student> content = SearchResults.loadInOrder(hits.getIds(), studentRepository::findAllById, Student::getId);
+        return new PageImpl<>(content, pageable, hits.getTotal());
+    }
+
+    @Override
+    public ScoredSlice<Course> searchCoursesAfter(String keyword, int afterScore, long afterId, int limit) {
+        SearchHits hits = courseIndex.searchAfter(keyword, afterScore, afterId, limit + 1);
+        return SearchResults.loadScored(hits.getIds(), hits.getScores(), limit, hits.getTotal(), courseRepository::findAllById, Course::getId);
+    }
+
+    @Override
+    public ScoredSlice<Student> searchStudentsAfter(String keyword, int afterScore, long afterId, int limit) {
+        SearchHits hits = studentIndex.searchAfter(keyword, afterScore, afterId, limit + 1);
+        return SearchResults.loadScored(hits.getIds(), hits.getScores(), limit, hits.getTotal(), studentRepository::findAllById, Student::getId);
+    }
+}
@@ -0,0 +1,429 @@
+package com.example.student.search;
+
+import com.example.student.search.analysis.Analyzer;
+import com.example.student.search.analysis.NGramTokenizer;
+import com.example.student.search.analysis.VariantKind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 内存 n-gram 倒排索引
+ *
+ * 每个文档由若干字段组成（字段权重在构造时给定），字段经 Analyzer 归一化并扩展出拼音形式，
+ * 各形式分别由 n-gram 分词器切分后写入倒排链（原始 int 数组）。
+ * 查询时取关键词对应的倒排链求交集，再对候选文档逐一校验（排除 n-gram 拼接造成的误命中），
+ * 按"字段权重 × 匹配方式"打分，只保留前 offset + limit 名。
+ *
+ * 开启缩写匹配时，不超过 ABBREVIATION_MAX_LENGTH 的纯中文或纯字母数字关键词改走单字/字母项，
+ * 额外允许子序列匹配：原文中的"高数"匹配"高等数学"，首字母中的"gs"匹配"gdsx"。
+ *
+ * 读多写少：查询持读锁，写入持写锁。删除只打标记，倒排链中的失效文档在查询时跳过，
+ * 失效文档超过四分之一时整体重排压缩。
+ */
+class InvertedIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final int COMPACT_MIN_DELETED = 1024;
+
+    private static final int MAX_INTERSECT_LISTS = 2;
+
+    private static final int ABBREVIATION_MAX_LENGTH = 4;
+
+    private final Analyzer analyzer;
+    private final NGramTokenizer tokenizer;
+    private final boolean abbreviations;
+    private final int[] fieldWeights;
+    private final int variants;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, PostingList> postings = new HashMap<>();
+    private Map<Long, Integer> docById = new HashMap<>();
+    private long[] ids = new long[INITIAL_CAPACITY];
+    /** 每个文档的全部字段形式，按 字段 × 形式 平铺；null 表示已删除 */
+    private String[][] docs = new String[INITIAL_CAPACITY][];
+    private int nextDoc;
+    private int deleted;
+
+    InvertedIndex(Analyzer analyzer, boolean abbreviations, int... fieldWeights) {
+        this.analyzer = analyzer;
+        this.tokenizer = analyzer.tokenizer();
+        this.abbreviations = abbreviations;
+        this.fieldWeights = fieldWeights;
+        this.variants = analyzer.variantCount();
+    }
+
+    /**
+     * 写入或覆盖文档
+     */
+    void put(long id, String... fields) {
+        String[] analyzed = analyze(fields);
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            addInternal(id, analyzed);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 文档不存在时才写入（全量构建时使用，避免覆盖构建期间由变更事件写入的新数据）
+     */
+    void putIfAbsent(long id, String... fields) {
+        String[] analyzed = analyze(fields);
+        lock.writeLock().lock();
+        try {
+            if (!docById.containsKey(id)) {
+                addInternal(id, analyzed);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return docById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 搜索，返回按相关度排序的第 offset ~ offset + limit 条文档 ID 和命中总数
+     */
+    SearchHits search(String keyword, long offset, int limit) {
+        // 结果数不会超过文档数：偏移越界时只统计总数，堆大小以文档数为上限
+        int documents = size();
+        if (offset >= documents) {
+            return collect(keyword, 0, 0, Integer.MAX_VALUE, 0);
+        }
+        return collect(keyword, (int) offset, (int) Math.min(offset + limit, documents) - (int) offset,
+                Integer.MAX_VALUE, 0);
+    }
+
+    /**
+     * 游标分页搜索：只返回排在 (afterScore, afterId) 之后的前 limit 条（相关度降序、ID 升序），
+     * 代价与翻到第几页无关；总数仍为全部命中数
+     */
+    SearchHits searchAfter(String keyword, int afterScore, long afterId, int limit) {
+        return collect(keyword, 0, Math.min(limit, size()), afterScore, afterId);
+    }
+
+    private SearchHits collect(String keyword, int offset, int limit, int afterScore, long afterId) {
+        String query = analyzer.normalize(keyword);
+        if (query.isEmpty()) {
+            return SearchHits.EMPTY;
+        }
+        boolean prefixOnly = tokenizer.isPrefixQuery(query);
+        List<String> terms = abbreviations && query.length() <= ABBREVIATION_MAX_LENGTH
+                ? tokenizer.abbreviationTerms(query) : null;
+        boolean abbreviation = terms != null;
+        if (!abbreviation) {
+            terms = tokenizer.queryTerms(query, prefixOnly);
+        }
+        Matcher matcher = new Matcher(query, prefixOnly, abbreviation);
+        TopK top = new TopK(offset + limit);
+        long total = 0;
+
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    return SearchHits.EMPTY;
+                }
+                lists.add(list);
+            }
+            // 只用最短的几条倒排链求交集，剩余的约束交给逐文档校验（长链上倍增查找反而更慢）
+            lists.sort(Comparator.comparingInt(PostingList::size));
+            if (lists.size() > MAX_INTERSECT_LISTS) {
+                lists = lists.subList(0, MAX_INTERSECT_LISTS);
+            }
+
+            PostingList driver = lists.get(0);
+            int[] cursors = new int[lists.size()];
+            candidates:
+            for (int i = 0; i < driver.size(); i++) {
+                int doc = driver.get(i);
+                for (int j = 1; j < lists.size(); j++) {
+                    PostingList other = lists.get(j);
+                    cursors[j] = other.advance(cursors[j], doc);
+                    if (cursors[j] >= other.size()) {
+                        break candidates;
+                    }
+                    if (other.get(cursors[j]) != doc) {
+                        continue candidates;
+                    }
+                }
+                String[] fields = docs[doc];
+                if (fields == null) {
+                    continue;
+                }
+                int score = score(fields, matcher);
+                if (score == 0) {
+                    continue;
+                }
+                total++;
+                long id = ids[doc];
+                if (score > afterScore || (score == afterScore && id <= afterId)) {
+                    continue;
+                }
+                top.offer(score, id);
+            }
+
+            long[] ranked = top.drainDescending();
+            int count = Math.max(0, ranked.length - offset);
+            List<Long> resultIds = new ArrayList<>(count);
+            int[] scores = new int[count];
+            for (int i = offset; i < ranked.length; i++) {
+                resultIds.add(TopK.id(ranked[i]));
+                scores[i - offset] = TopK.score(ranked[i]);
+            }
+            return new SearchHits(resultIds, scores, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 相关度：最佳字段形式的 权重 × 匹配分，同分时文本越短越靠前；未命中返回 0
+     */
+    private int score(String[] fields, Matcher matcher) {
+        int best = 0;
+        int bestLength = Integer.MAX_VALUE;
+        for (int f = 0; f < fieldWeights.length; f++) {
+            for (int v = 0; v < variants; v++) {
+                String text = fields[f * variants + v];
+                if (text == null) {
+                    continue;
+                }
+                int match = matcher.match(analyzer.kind(v), text);
+                if (match == 0) {
+                    continue;
+                }
+                int fieldScore = fieldWeights[f] * match;
+                if (fieldScore > best || (fieldScore == best && text.length() < bestLength)) {
+                    best = fieldScore;
+                    bestLength = text.length();
+                }
+            }
+        }
+        return best == 0 ? 0 : (best << 10) + (1023 - Math.min(bestLength, 1023));
+    }
+
+    private String[] analyze(String[] fields) {
+        String[] analyzed = new String[fieldWeights.length * variants];
+        for (int f = 0; f < fieldWeights.length; f++) {
+            analyzer.analyze(f < fields.length ? fields[f] : null, analyzed, f * variants);
+        }
+        return analyzed;
+    }
+
+    private void addInternal(long id, String[] fields) {
+        if (nextDoc == docs.length) {
+            int capacity = docs.length + (docs.length >> 1);
+            docs = Arrays.copyOf(docs, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+        }
+        int doc = nextDoc++;
+        docs[doc] = fields;
+        ids[doc] = id;
+        docById.put(id, doc);
+
+        Set<String> terms = new HashSet<>();
+        for (String text : fields) {
+            if (text != null) {
+                tokenizer.documentTerms(text, abbreviations, terms);
+            }
+        }
+        for (String term : terms) {
+            postings.computeIfAbsent(term, k -> new PostingList()).add(doc);
+        }
+    }
+
+    private void removeInternal(long id) {
+        Integer doc = docById.remove(id);
+        if (doc != null) {
+            docs[doc] = null;
+            deleted++;
+        }
+    }
+
+    /**
+     * 失效文档过多时按原顺序重新编号并重建倒排链
+     */
+    private void compactIfNeeded() {
+        if (deleted < COMPACT_MIN_DELETED || deleted * 4 < nextDoc) {
+            return;
+        }
+        String[][] oldDocs = docs;
+        long[] oldIds = ids;
+        int oldCount = nextDoc;
+
+        postings = new HashMap<>();
+        docById = new HashMap<>();
+        docs = new String[Math.max(INITIAL_CAPACITY, oldCount - deleted)][];
+        ids = new long[docs.length];
+        nextDoc = 0;
+        deleted = 0;
+        for (int doc = 0; doc < oldCount; doc++) {
+            if (oldDocs[doc] != null) {
+                addInternal(oldIds[doc], oldDocs[doc]);
+            }
+        }
+    }
+
+    /**
+     * 单次查询的匹配规则
+     * <pre>
+     *            相等  前缀  包含  子序列（仅缩写查询）
+     * 原文        8     4     2     1（中文关键词）
+     * 拼音全拼    6     3     2     -
+     * 拼音首字母  6     3     1     1（字母关键词）
+     * </pre>
+     * 长度 1~2 的非中文关键词只做相等/前缀匹配
+     */
+    private static class Matcher {
+        private final String query;
+        private final boolean prefixOnly;
+        private final boolean abbreviation;
+        private final boolean cjkQuery;
+
+        Matcher(String query, boolean prefixOnly, boolean abbreviation) {
+            this.query = query;
+            this.prefixOnly = prefixOnly;
+            this.abbreviation = abbreviation;
+            this.cjkQuery = NGramTokenizer.containsCjk(query);
+        }
+
+        int match(VariantKind kind, String text) {
+            boolean original = kind == VariantKind.ORIGINAL;
+            if (text.equals(query)) {
+                return original ? 8 : 6;
+            }
+            if (text.startsWith(query)) {
+                return original ? 4 : 3;
+            }
+            if (!prefixOnly && text.contains(query)) {
+                return kind == VariantKind.INITIALS ? 1 : 2;
+            }
+            if (abbreviation && isSubsequence(text)
+                    && ((original && cjkQuery) || (kind == VariantKind.INITIALS && !cjkQuery))) {
+                return 1;
+            }
+            return 0;
+        }
+
+        private boolean isSubsequence(String text) {
+            int q = 0;
+            for (int i = 0; i < text.length() && q < query.length(); i++) {
+                if (text.charAt(i) == query.charAt(q)) {
+                    q++;
+                }
+            }
+            return q == query.length();
+        }
+    }
+
+    /**
+     * 定长小顶堆，保留排名最前的 k 个文档；键 = 得分（高位）+ 文档 ID 取反（同分时 ID 小的优先）
+     */
+    private static class TopK {
+        private static final int ID_BITS = 40;
+        private static final long ID_MASK = (1L << ID_BITS) - 1;
+
+        private final long[] heap;
+        private int size;
+
+        TopK(int k) {
+            this.heap = new long[Math.max(0, k)];
+        }
+
+        static int score(long key) {
+            return (int) (key >>> ID_BITS);
+        }
+
+        static long id(long key) {
+            return ID_MASK - (key & ID_MASK);
+        }
+
+        void offer(int score, long id) {
+            if (heap.length == 0) {
+                return;
+            }
+            long key = ((long) score << ID_BITS) | (ID_MASK - id);
+            if (size < heap.length) {
+                heap[size] = key;
+                siftUp(size++);
+            } else if (key > heap[0]) {
+                heap[0] = key;
+                siftDown(0);
+            }
+        }
+
+        long[] drainDescending() {
+            long[] result = new long[size];
+            for (int i = size - 1; i >= 0; i--) {
+                result[i] = heap[0];
+                heap[0] = heap[--size];
+                siftDown(0);
+            }
+            return result;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >> 1;
+                if (heap[parent] <= heap[i]) {
+                    break;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) {
+                    break;
+                }
+                int smallest = left + 1 < size && heap[left + 1] < heap[left] ? left + 1 : left;
+                if (heap[i] <= heap[smallest]) {
+                    break;
+                }
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.student.search;
+
+import com.example.student.search.analysis.Analyzer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 热门搜索关键词统计
+ *
+ * 记录：按线程分条带的 Space-Saving 缓冲（每条带一把锁，tryLock 失败换下一条带，热路径上没有锁竞争），
+ * 定时汇总到本节点当前小时的 Count-Min Sketch；小时内累计次数达到 min-count 的关键词才写入 Redis，
+ * 避免长尾的一次性关键词撑大有序集合。
+ *
+ * Redis 中按小时分桶 search:hot:bucket:{yyyyMMddHH}，所有节点共享；每分钟用 ZUNIONSTORE
+ * 合成 1h / 24h / 7d 三个滑动窗口（最老的桶按仍在窗口内的比例加权）并截断到前 WINDOW_KEEP 名，
+ * 查询直接 ZREVRANGE，与关键词总量无关。Redis 不可用时返回本节点当前小时的统计。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class KeywordTracker {
+
+    private static final String BUCKET_PREFIX = "search:hot:bucket:";
+    private static final String WINDOW_PREFIX = "search:hot:window:";
+    private static final DateTimeFormatter HOUR_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHH");
+
+    /** 窗口名 -> 小时数 */
+    private static final Map<String, Integer> WINDOWS = new LinkedHashMap<>();
+
+    static {
+        WINDOWS.put("1h", 1);
+        WINDOWS.put("24h", 24);
+        WINDOWS.put("7d", 168);
+    }
+
+    private static final int MAX_KEYWORD_LENGTH = 50;
+    private static final int STRIPE_CAPACITY = 256;
+    private static final int HOUR_CAPACITY = 1000;
+    private static final int WINDOW_KEEP = 1000;
+    private static final long WINDOW_REFRESH_MILLIS = 60_000;
+    private static final Duration BUCKET_TTL = Duration.ofDays(8);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final Analyzer analyzer = Analyzer.standard();
+    private final Stripe[] stripes = createStripes();
+
+    /** 以下状态只在定时汇总线程中访问 */
+    private final CountMinSketch hourSketch = new CountMinSketch(4, 1 << 14);
+    private SpaceSaving hourTop = new SpaceSaving(HOUR_CAPACITY);
+    private String currentHour;
+    private long lastWindowRefresh;
+
+    /** 本节点当前小时的热门关键词快照，Redis 不可用时使用 */
+    private volatile List<String> localTop = List.of();
+
+    /** 小时内累计次数达到该值才写入 Redis */
+    @Value("${search.hot-keywords.min-count:2}")
+    private int minCount;
+
+    /**
+     * 记录一次用户提交的搜索关键词
+     */
+    public void record(String keyword) {
+        String key = analyzer.normalize(keyword);
+        if (key.isEmpty() || key.length() > MAX_KEYWORD_LENGTH) {
+            return;
+        }
+        int mask = stripes.length - 1;
+        int start = (int) Thread.currentThread().getId() & mask;
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[(start + i) & mask];
+            if (stripe.lock.tryLock()) {
+                try {
+                    stripe.buffer.offer(key, 1);
+                } finally {
+                    stripe.lock.unlock();
+                }
+                return;
+            }
+        }
+        Stripe stripe = stripes[start];
+        stripe.lock.lock();
+        try {
+            stripe.buffer.offer(key, 1);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * 热门关键词
+     * @param window 1h | 24h | 7d
+     */
+    public List<String> top(int limit, String window) {
+        if (!WINDOWS.containsKey(window)) {
+            throw new IllegalArgumentException("不支持的时间窗口: " + window);
+        }
+        try {
+            Set<String> keywords = redisTemplate.opsForZSet().reverseRange(WINDOW_PREFIX + window, 0, limit - 1);
+            if (keywords != null && !keywords.isEmpty()) {
+                return new ArrayList<>(keywords);
+            }
+        } catch (Exception e) {
+            log.error("读取热门关键词失败: {}", e.getMessage());
+        }
+        List<String> local = localTop;
+        return new ArrayList<>(local.subList(0, Math.min(limit, local.size())));
+    }
+
+    /**
+     * 汇总各条带缓冲，写入 Redis 小时桶并按需刷新滑动窗口
+     */
+    @Scheduled(fixedDelayString = "${search.hot-keywords.flush-interval-ms:10000}")
+    public void flush() {
+        LocalDateTime now = LocalDateTime.now();
+        String hour = now.format(HOUR_FORMAT);
+        if (!hour.equals(currentHour)) {
+            hourSketch.clear();
+            hourTop = new SpaceSaving(HOUR_CAPACITY);
+            currentHour = hour;
+        }
+
+        Map<String, Long> drained = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            SpaceSaving buffer;
+            stripe.lock.lock();
+            try {
+                if (stripe.buffer.isEmpty()) {
+                    continue;
+                }
+                buffer = stripe.buffer;
+                stripe.buffer = new SpaceSaving(STRIPE_CAPACITY);
+            } finally {
+                stripe.lock.unlock();
+            }
+            buffer.forEach((key, count) -> drained.merge(key, count, Long::sum));
+        }
+
+        Map<String, Long> increments = new HashMap<>();
+        drained.forEach((key, count) -> {
+            long before = hourSketch.estimate(key);
+            hourSketch.add(key, count);
+            hourTop.offer(key, count);
+            long after = before + count;
+            if (after >= minCount) {
+                // 刚达到门槛时补上此前未写入的次数
+                increments.put(key, before >= minCount ? count : after);
+            }
+        });
+        if (!drained.isEmpty()) {
+            localTop = hourTop.top(100);
+        }
+
+        try {
+            if (!increments.isEmpty()) {
+                writeBucket(BUCKET_PREFIX + hour, increments);
+            }
+            if (System.currentTimeMillis() - lastWindowRefresh >= WINDOW_REFRESH_MILLIS) {
+                refreshWindows(now);
+                lastWindowRefresh = System.currentTimeMillis();
+            }
+        } catch (Exception e) {
+            log.error("写入热门关键词失败: {}", e.getMessage());
+        }
+    }
+
+    private void writeBucket(String bucket, Map<String, Long> increments) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                increments.forEach((key, count) -> ops.opsForZSet().incrementScore(bucket, key, count));
+                ops.expire(bucket, BUCKET_TTL);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * 窗口 = 最近 hours 个完整小时桶 + 当前桶；最老的桶只有一部分仍在窗口内，按比例加权
+     */
+    private void refreshWindows(LocalDateTime now) {
+        double oldestWeight = 1 - now.getMinute() / 60.0;
+        for (Map.Entry<String, Integer> window : WINDOWS.entrySet()) {
+            int hours = window.getValue();
+            List<String> buckets = new ArrayList<>(hours + 1);
+            double[] weights = new double[hours + 1];
+            for (int i = 0; i <= hours; i++) {
+                buckets.add(BUCKET_PREFIX + now.minusHours(i).format(HOUR_FORMAT));
+                weights[i] = i == hours ? oldestWeight : 1;
+            }
+            String destination = WINDOW_PREFIX + window.getKey();
+            redisTemplate.opsForZSet().unionAndStore(buckets.get(0), buckets.subList(1, buckets.size()),
+                    destination, Aggregate.SUM, Weights.of(weights));
+            redisTemplate.opsForZSet().removeRange(destination, 0, -(WINDOW_KEEP + 1));
+        }
+    }
+
+    private static Stripe[] createStripes() {
+        int count = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+        Stripe[] stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        return stripes;
+    }
+
+    private static class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        SpaceSaving buffer = new SpaceSaving(STRIPE_CAPACITY);
+    }
+}
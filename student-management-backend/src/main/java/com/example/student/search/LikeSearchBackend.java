@@ -0,0 +1,72 @@
+package com.example.student.search;
+
+import com.example.student.entity.Course;
+import com.example.student.entity.Student;
+import com.example.student.repository.CourseRepository;
+import com.example.student.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+/**
+ * 数据库 LIKE '%keyword%' 搜索（全表扫描，无相关度排序），作为其他后端不可用时的兜底
+ */
+@Component
+@RequiredArgsConstructor
+public class LikeSearchBackend implements SearchBackend {
+    private final CourseRepository courseRepository;
+    private final StudentRepository studentRepository;
+    
+    @Override
+    public String getName() {
+        return "like";
+    }
+    
+    @Override
+    public boolean isReady() {
+        return true;
+    }
+    
+    @Override
+    public Page<Course> searchCourses(String keyword, Pageable pageable) {
+        return courseRepository.findByKeyword(keyword, pageable);
+    }
+    
+    @Override
+    public Page<Student> searchStudents(String keyword, Pageable pageable) {
+        return studentRepository.findByKeyword(keyword, pageable);
+    }
+    
+    @Override
+    public Slice<Course> searchCoursesSlice(String keyword, Pageable pageable) {
+        return courseRepository.findSliceByKeyword(keyword, pageable);
+    }
+    
+    @Override
+    public Slice<Student> searchStudentsSlice(String keyword, Pageable pageable) {
+        return studentRepository.findSliceByKeyword(keyword, pageable);
+    }
+    
+    @Override
+    public ScoredSlice<Course> searchCoursesAfter(String keyword, int afterScore, long afterId, int limit) {
+        return ScoredSlice.unscored(courseRepository.findByFiltersAfter(keyword, null, afterId, PageRequest.of(0, limit + 1)), limit);
+    }
+    
+    @Override
+    public ScoredSlice<Student> searchStudentsAfter(String keyword, int afterScore, long afterId, int limit) {
+        return ScoredSlice.unscored(studentRepository.findByKeywordAfter(keyword, afterId, PageRequest.of(0, limit + 1)), limit);
+    }
+    
+    @Override
+    public long countCourses(String keyword) {
+        return courseRepository.countByKeyword(keyword);
+    }
+    
+    @Override
+    public long countStudents(String keyword) {
+        return studentRepository.countByKeyword(keyword);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.student.search;
+
+import java.util.Arrays;
+
+/**
+ * 倒排链：升序的文档编号，存放在原始 int 数组中（不装箱）
+ * 文档编号单调递增分配，追加即保持有序
+ */
+class PostingList {
+    private int[] docs = new int[4];
+    private int size;
+    
+    void add(int doc) {
+        if (size > 0 && docs[size - 1] == doc) {
+            return;
+        }
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size + (size >> 1) + 1);
+        }
+        docs[size++] = doc;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    int get(int index) {
+        return docs[index];
+    }
+    
+    /**
+     * 从 from 开始查找第一个 >= target 的位置（倍增 + 二分），不存在时返回 size
+     */
+    int advance(int from, int target) {
+        if (from >= size || docs[from] >= target) {
+            return from;
+        }
+        int step = 1;
+        int low = from;
+        int high = from + 1;
+        while (high < size && docs[high] < target) {
+            low = high;
+            step <<= 1;
+            high = from + step;
+        }
+        high = Math.min(high, size - 1);
+        if (docs[high] < target) {
+            return size;
+        }
+        int index = Arrays.binarySearch(docs, low + 1, high + 1, target);
+        return index >= 0 ? index : -index - 1;
+    }
+}
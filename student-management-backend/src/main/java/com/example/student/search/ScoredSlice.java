@@ -0,0 +1,29 @@
+package com.example.student.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 游标分页搜索的一页结果：记录与其相关度得分一一对应，得分和 ID 用于生成下一页游标
+ */
+@Getter
+@AllArgsConstructor
+public class ScoredSlice<T> {
+    private final List<T> content;
+    private final List<Integer> scores;
+    private final boolean hasNext;
+    /** 命中总数，后端不顺带给出时为 null */
+    private final Long total;
+    
+    /**
+     * 由多取一行（limit + 1）的按 id 顺序查询结果生成，没有相关度，得分恒为 0
+     */
+    public static <T> ScoredSlice<T> unscored(List<T> rows, int limit) {
+        boolean hasNext = rows.size() > limit;
+        List<T> content = hasNext ? rows.subList(0, limit) : rows;
+        return new ScoredSlice<>(content, Collections.nCopies(content.size(), 0), hasNext, null);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.student.search;
+
+import com.example.student.entity.Course;
+import com.example.student.entity.Student;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * 关键词搜索后端，由配置项 search.backend 选择
+ */
+public interface SearchBackend {
+    
+    /**
+     * 后端名称（对应 search.backend 的取值）
+     */
+    String getName();
+    
+    /**
+     * 是否可以提供服务（如内存索引尚未构建完成时返回 false，由调用方回退到其他后端）
+     */
+    boolean isReady();
+    
+    /**
+     * 按关键词搜索课程（匹配名称、代码、简介），结果按相关度排序
+     */
+    Page<Course> searchCourses(String keyword, Pageable pageable);
+    
+    /**
+     * 按关键词搜索学生（匹配姓名、学号、邮箱、电话），结果按相关度排序
+     */
+    Page<Student> searchStudents(String keyword, Pageable pageable);
+    
+    /**
+     * 游标分页搜索课程：返回排序位置在 (afterScore, afterId) 之后的最多 limit 条。
+     * 排序为相关度降序、同分 ID 升序；没有相关度的后端得分恒为 0，即按 ID 升序 seek。
+     * 首页传 afterScore = Integer.MAX_VALUE, afterId = 0
+     */
+    ScoredSlice<Course> searchCoursesAfter(String keyword, int afterScore, long afterId, int limit);
+    
+    /**
+     * 游标分页搜索学生，约定同 searchCoursesAfter
+     */
+    ScoredSlice<Student> searchStudentsAfter(String keyword, int afterScore, long afterId, int limit);
+    
+    /**
+     * 同 searchCourses，但不要求精确总数；返回 Page 时总数可直接使用（如内存索引），
+     * 否则调用方只知道是否还有下一页
+     */
+    default Slice<Course> searchCoursesSlice(String keyword, Pageable pageable) {
+        return searchCourses(keyword, pageable);
+    }
+    
+    /**
+     * 同 searchStudents，但不要求精确总数
+     */
+    default Slice<Student> searchStudentsSlice(String keyword, Pageable pageable) {
+        return searchStudents(keyword, pageable);
+    }
+    
+    /**
+     * 关键词命中的课程总数
+     */
+    default long countCourses(String keyword) {
+        return searchCourses(keyword, PageRequest.of(0, 1)).getTotalElements();
+    }
+    
+    /**
+     * 关键词命中的学生总数
+     */
+    default long countStudents(String keyword) {
+        return searchStudents(keyword, PageRequest.of(0, 1)).getTotalElements();
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.student.search;
+
+import com.example.student.event.CourseChangedEvent;
+import com.example.student.event.StudentChangedEvent;
+import com.example.student.search.analysis.Analyzer;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 搜索结果两级缓存：本地 Caffeine 近端缓存 + Redis
+ *
+ * 缓存键 = 命名空间版本号 + 操作 + 归一化关键词 + 分页参数。课程/学生变更事件（事务提交后）递增对应命名空间的
+ * 版本号（Redis INCR），旧版本的键不再被访问、随 TTL 自然过期，失效是 O(1) 的，无需扫描删除。
+ * 本节点的变更立即生效；其他节点的变更在本地版本号刷新（version-check-ms）后生效。
+ * Redis 不可用时只使用本地缓存，变更时整体清空本地缓存。
+ *
+ * 指标：search.cache.requests{result=local_hit|redis_hit|miss}，search.cache.hit.ratio{tier=local|all}
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchCache {
+
+    public static final String COURSES = "courses";
+    public static final String STUDENTS = "students";
+
+    private static final String KEY_PREFIX = "search_cache:";
+    private static final String VERSION_PREFIX = KEY_PREFIX + "version:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final Analyzer analyzer = Analyzer.standard();
+
+    /** 命名空间 -> [版本号, 下次刷新时间] */
+    private final Map<String, long[]> versions = new ConcurrentHashMap<>();
+
+    private Cache<String, Object> local;
+    private Counter localHits;
+    private Counter redisHits;
+    private Counter misses;
+
+    @Value("${search.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${search.cache.local-max-size:10000}")
+    private long localMaxSize;
+
+    @Value("${search.cache.local-ttl-seconds:30}")
+    private long localTtlSeconds;
+
+    @Value("${search.cache.version-check-ms:1000}")
+    private long versionCheckMs;
+
+    @PostConstruct
+    void init() {
+        local = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                .build();
+        localHits = requests("local_hit");
+        redisHits = requests("redis_hit");
+        misses = requests("miss");
+        Gauge.builder("search.cache.hit.ratio", this, cache -> cache.ratio(cache.localHits.count()))
+                .tag("tier", "local")
+                .description("本地近端缓存命中率")
+                .register(meterRegistry);
+        Gauge.builder("search.cache.hit.ratio", this,
+                        cache -> cache.ratio(cache.localHits.count() + cache.redisHits.count()))
+                .tag("tier", "all")
+                .description("搜索缓存总命中率（本地 + Redis）")
+                .register(meterRegistry);
+    }
+
+    private Counter requests(String result) {
+        return Counter.builder("search.cache.requests")
+                .tag("result", result)
+                .description("搜索缓存请求数")
+                .register(meterRegistry);
+    }
+
+    private double ratio(double hits) {
+        double total = localHits.count() + redisHits.count() + misses.count();
+        return total == 0 ? 0 : hits / total;
+    }
+
+    /**
+     * 关键词归一化（全角转半角、转小写、去首尾空白），与各搜索后端的匹配规则一致
+     */
+    public String normalize(String keyword) {
+        return keyword == null ? "" : analyzer.normalize(keyword);
+    }
+
+    /**
+     * 读取缓存，未命中时调用 loader 并写入两级缓存
+     */
+    public <T> T get(String[] namespaces, String key, TypeReference<T> type, Supplier<T> loader) {
+        return get(namespaces, key, type, loader, value -> true);
+    }
+
+    /**
+     * 同 get，由 cacheable 判断 loader 的结果是否可以缓存
+     *
+     * @param namespaces 结果依赖的命名空间（COURSES / STUDENTS），任一变更即失效
+     * @param key        操作名 + 归一化关键词 + 分页参数
+     * @param cacheable  loader 结果是否可以缓存（如超时的部分结果不缓存）
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String[] namespaces, String key, TypeReference<T> type, Supplier<T> loader,
+                     Predicate<T> cacheable) {
+        if (!enabled) {
+            return loader.get();
+        }
+        StringBuilder fullKey = new StringBuilder(KEY_PREFIX);
+        for (String namespace : namespaces) {
+            fullKey.append(namespace).append(':').append(version(namespace)).append(':');
+        }
+        String cacheKey = fullKey.append(key).toString();
+
+        Object cached = local.getIfPresent(cacheKey);
+        if (cached != null) {
+            localHits.increment();
+            return (T) cached;
+        }
+
+        try {
+            String json = redisTemplate.opsForValue().get(cacheKey);
+            if (json != null) {
+                T value = objectMapper.readValue(json, type);
+                local.put(cacheKey, value);
+                redisHits.increment();
+                return value;
+            }
+        } catch (Exception e) {
+            log.error("读取搜索缓存失败: {}", e.getMessage());
+        }
+
+        misses.increment();
+        T value = loader.get();
+        if (value != null && cacheable.test(value)) {
+            local.put(cacheKey, value);
+            try {
+                redisTemplate.opsForValue().set(cacheKey, objectMapper.writeValueAsString(value),
+                        Duration.ofSeconds(ttlSeconds));
+            } catch (Exception e) {
+                log.error("写入搜索缓存失败: {}", e.getMessage());
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 命名空间当前版本号：本地缓存 version-check-ms，过期后从 Redis 刷新；Redis 不可用时沿用旧值
+     */
+    private long version(String namespace) {
+        long now = System.currentTimeMillis();
+        long[] cached = versions.get(namespace);
+        if (cached != null && cached[1] > now) {
+            return cached[0];
+        }
+        long version = cached == null ? 0 : cached[0];
+        try {
+            String value = redisTemplate.opsForValue().get(VERSION_PREFIX + namespace);
+            version = value == null ? 0 : Long.parseLong(value);
+        } catch (Exception e) {
+            log.error("读取搜索缓存版本失败: {}", e.getMessage());
+        }
+        versions.put(namespace, new long[]{version, now + versionCheckMs});
+        return version;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        bumpVersion(COURSES);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        bumpVersion(STUDENTS);
+    }
+
+    /**
+     * 使命名空间下的缓存失效（内存索引在本节点更新完成后调用，清掉索引更新前写入的旧结果）
+     */
+    public void invalidate(String namespace) {
+        bumpVersion(namespace);
+    }
+
+    private void bumpVersion(String namespace) {
+        try {
+            Long version = redisTemplate.opsForValue().increment(VERSION_PREFIX + namespace);
+            if (version != null) {
+                versions.put(namespace, new long[]{version, System.currentTimeMillis() + versionCheckMs});
+                return;
+            }
+        } catch (Exception e) {
+            log.error("刷新搜索缓存版本失败: {}", e.getMessage());
+        }
+        // 版本号无法递增时清空本地缓存，Redis 中的旧结果随 TTL 过期
+        local.invalidateAll();
+    }
+}
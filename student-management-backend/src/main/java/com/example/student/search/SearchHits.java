@@ -0,0 +1,19 @@
+package com.example.student.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 一页命中的文档 ID（已按相关度排序）、对应的相关度得分和命中总数
+ */
+@Getter
+@AllArgsConstructor
+public class SearchHits {
+    static final SearchHits EMPTY = new SearchHits(List.of(), new int[0], 0);
+
+    private final List<Long> ids;
+    private final int[] scores;
+    private final long total;
+}
@@ -0,0 +1,56 @@
+package com.example.student.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 搜索后端共用的结果装配：后端只给出排好序的 ID，实体按主键批量读取后恢复顺序
+ */
+final class SearchResults {
+
+    private SearchResults() {
+    }
+
+    /**
+     * 按主键批量读取并恢复给定的顺序（读取间隙被删除的实体直接跳过）
+     */
+    static <T> List<T> loadInOrder(List<Long> ids, Function<Collection<Long>, List<T>> loader,
+                                   Function<T, Long> idGetter) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, T> byId = loader.apply(ids).stream()
+                .collect(Collectors.toMap(idGetter, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 游标分页：ids / scores 多取一条（limit + 1），多出的一条只用于判断是否还有下一页；
+     * 实体读取后与得分一一对应
+     */
+    static <T> ScoredSlice<T> loadScored(List<Long> ids, int[] scores, int limit, Long total,
+                                         Function<Collection<Long>, List<T>> loader, Function<T, Long> idGetter) {
+        boolean hasNext = ids.size() > limit;
+        List<Long> pageIds = hasNext ? ids.subList(0, limit) : ids;
+        Map<Long, T> byId = pageIds.isEmpty() ? Map.of() : loader.apply(pageIds).stream()
+                .collect(Collectors.toMap(idGetter, Function.identity()));
+        List<T> content = new ArrayList<>(pageIds.size());
+        List<Integer> pageScores = new ArrayList<>(pageIds.size());
+        for (int i = 0; i < pageIds.size(); i++) {
+            T entity = byId.get(pageIds.get(i));
+            if (entity != null) {
+                content.add(entity);
+                pageScores.add(scores[i]);
+            }
+        }
+        return new ScoredSlice<>(content, pageScores, hasNext, total);
+    }
+}
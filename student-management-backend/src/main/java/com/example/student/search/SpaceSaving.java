@@ -0,0 +1,125 @@
+package com.example.student.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Space-Saving 频繁项统计：最多跟踪 capacity 个关键词，内存与关键词种类无关
+ *
+ * 满员时新关键词顶替计数最小者并继承其计数（计数只会高估），真正的高频词总能留在表中。
+ * 计数器放在按计数排序的小顶堆里，更新和替换都是 O(log capacity)。
+ *
+ * 非线程安全，由调用方串行访问
+ */
+class SpaceSaving {
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final Counter[] heap;
+    private int size;
+
+    SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+        this.heap = new Counter[capacity];
+    }
+
+    void offer(String key, long count) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count += count;
+            siftDown(counter.index);
+            return;
+        }
+        if (size < capacity) {
+            counter = new Counter(key);
+            counter.count = count;
+            counter.index = size;
+            heap[size++] = counter;
+            counters.put(key, counter);
+            siftUp(counter.index);
+            return;
+        }
+        Counter min = heap[0];
+        counters.remove(min.key);
+        min.key = key;
+        min.count += count;
+        counters.put(key, min);
+        siftDown(0);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 遍历全部 (关键词, 计数)
+     */
+    void forEach(ObjLongConsumer<String> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(heap[i].key, heap[i].count);
+        }
+    }
+
+    /**
+     * 计数最高的 k 个关键词，按计数降序
+     */
+    List<String> top(int k) {
+        Counter[] sorted = Arrays.copyOf(heap, size);
+        Arrays.sort(sorted, Comparator.comparingLong((Counter c) -> c.count).reversed());
+        List<String> result = new ArrayList<>(Math.min(k, size));
+        for (int i = 0; i < sorted.length && i < k; i++) {
+            result.add(sorted[i].key);
+        }
+        return result;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >> 1;
+            if (heap[parent].count <= heap[i].count) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                break;
+            }
+            int smallest = left + 1 < size && heap[left + 1].count < heap[left].count ? left + 1 : left;
+            if (heap[i].count <= heap[smallest].count) {
+                break;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        Counter tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+        heap[a].index = a;
+        heap[b].index = b;
+    }
+
+    private static class Counter {
+        String key;
+        long count;
+        int index;
+
+        Counter(String key) {
+            this.key = key;
+        }
+    }
+}
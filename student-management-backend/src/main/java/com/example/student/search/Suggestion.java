@@ -0,0 +1,33 @@
+package com.example.student.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Comparator;
+
+/**
+ * 联想词条目：一门课程或一名学生，同一条目可挂在多个键（名称、代码、拼音）下
+ * 条目不可变，数据变更时整体替换，字典树中按引用识别
+ */
+@Getter
+@AllArgsConstructor
+class Suggestion {
+    static final String COURSE = "course";
+    static final String STUDENT = "student";
+
+    /** 热度高的在前，同热度时名称短的在前 */
+    static final Comparator<Suggestion> BY_POPULARITY = Comparator
+            .comparingLong(Suggestion::getWeight).reversed()
+            .thenComparingInt(s -> s.getName().length())
+            .thenComparing(Suggestion::getName)
+            .thenComparing(Suggestion::getType)
+            .thenComparingLong(Suggestion::getId);
+
+    private final String type;
+    private final long id;
+    private final String name;
+    /** 课程代码或学号 */
+    private final String code;
+    /** 热度：课程为已选人数，学生为 0 */
+    private final long weight;
+}
@@ -0,0 +1,247 @@
+package com.example.student.search;
+
+import com.example.student.dto.SuggestionDTO;
+import com.example.student.event.CourseChangedEvent;
+import com.example.student.event.StudentChangedEvent;
+import com.example.student.repository.CourseRepository;
+import com.example.student.repository.StudentRepository;
+import com.example.student.search.analysis.Analyzer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 搜索框联想词
+ *
+ * 键：课程名称（含拼音全拼、首字母）、课程代码、学生姓名、学号，统一经全角转半角和小写归一化。
+ * 启动后异步全量构建，之后由课程/学生变更事件在事务提交后增量更新（先摘除旧键再挂入新键）。
+ * 课程热度取已选人数，选退课不触发变更事件，热度在课程下次被编辑时刷新。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SuggestionIndex {
+
+    /** 单次联想最多返回的条数（字典树每个节点预存的条目数） */
+    public static final int MAX_LIMIT = SuggestionTrie.TOP_K;
+
+    private static final int BUILD_BATCH_SIZE = 5000;
+
+    private final CourseRepository courseRepository;
+    private final StudentRepository studentRepository;
+
+    private final Analyzer courseAnalyzer = Analyzer.chinese();
+    private final Analyzer studentAnalyzer = Analyzer.standard();
+    private final SuggestionTrie trie = new SuggestionTrie();
+
+    /** 当前挂在字典树上的条目，更新和删除时据此摘除旧键；写操作在本对象上串行 */
+    private final Map<Long, Suggestion> courses = new HashMap<>();
+    private final Map<Long, Suggestion> students = new HashMap<>();
+
+    private final Set<Long> deletedCoursesDuringBuild = ConcurrentHashMap.newKeySet();
+    private final Set<Long> deletedStudentsDuringBuild = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean ready;
+    private volatile boolean building;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 前缀联想，返回热度最高的 limit 条（最多 MAX_LIMIT 条）
+     */
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        String key = studentAnalyzer.normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        return trie.topK(key, limit).stream()
+                .map(s -> SuggestionDTO.builder()
+                        .type(s.getType())
+                        .id(s.getId())
+                        .name(s.getName())
+                        .code(s.getCode())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 启动后全量构建
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        building = true;
+        try {
+            long lastId = 0;
+            List<Object[]> rows;
+            do {
+                rows = courseRepository.findSuggestFieldsAfter(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+                for (Object[] row : rows) {
+                    Long id = (Long) row[0];
+                    if (!deletedCoursesDuringBuild.contains(id)) {
+                        putCourseIfAbsent(row);
+                    }
+                    lastId = id;
+                }
+            } while (rows.size() == BUILD_BATCH_SIZE);
+
+            lastId = 0;
+            do {
+                rows = studentRepository.findSearchFieldsAfter(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+                for (Object[] row : rows) {
+                    Long id = (Long) row[0];
+                    if (!deletedStudentsDuringBuild.contains(id)) {
+                        putStudentIfAbsent(row);
+                    }
+                    lastId = id;
+                }
+            } while (rows.size() == BUILD_BATCH_SIZE);
+
+            ready = true;
+            log.info("联想词索引构建完成: 课程 {} 门, 学生 {} 人, 耗时 {} ms",
+                    courses.size(), students.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("联想词索引构建失败: {}", e.getMessage(), e);
+        } finally {
+            building = false;
+            deletedCoursesDuringBuild.clear();
+            deletedStudentsDuringBuild.clear();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        if (event.isDeleted()) {
+            for (Long id : event.getCourseIds()) {
+                if (building) {
+                    deletedCoursesDuringBuild.add(id);
+                }
+                removeCourse(id);
+            }
+            return;
+        }
+        for (Object[] row : courseRepository.findSuggestFieldsByIdIn(event.getCourseIds())) {
+            putCourse(row);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        if (event.isDeleted()) {
+            for (Long id : event.getStudentIds()) {
+                if (building) {
+                    deletedStudentsDuringBuild.add(id);
+                }
+                removeStudent(id);
+            }
+            return;
+        }
+        for (Object[] row : studentRepository.findSearchFieldsByIdIn(event.getStudentIds())) {
+            putStudent(row);
+        }
+    }
+
+    /** row: [id, name, code, enrolled] */
+    private synchronized void putCourse(Object[] row) {
+        removeCourse((Long) row[0]);
+        putCourseIfAbsent(row);
+    }
+
+    private synchronized void putCourseIfAbsent(Object[] row) {
+        Long id = (Long) row[0];
+        if (courses.containsKey(id)) {
+            return;
+        }
+        Integer enrolled = (Integer) row[3];
+        Suggestion suggestion = new Suggestion(Suggestion.COURSE, id, (String) row[1], (String) row[2],
+                enrolled == null ? 0 : enrolled);
+        courses.put(id, suggestion);
+        for (String key : courseKeys(suggestion)) {
+            trie.add(key, suggestion);
+        }
+    }
+
+    private synchronized void removeCourse(Long id) {
+        Suggestion suggestion = courses.remove(id);
+        if (suggestion != null) {
+            for (String key : courseKeys(suggestion)) {
+                trie.remove(key, suggestion);
+            }
+        }
+    }
+
+    /** row: [id, name, studentId, email, phone] */
+    private synchronized void putStudent(Object[] row) {
+        removeStudent((Long) row[0]);
+        putStudentIfAbsent(row);
+    }
+
+    private synchronized void putStudentIfAbsent(Object[] row) {
+        Long id = (Long) row[0];
+        if (students.containsKey(id)) {
+            return;
+        }
+        Suggestion suggestion = new Suggestion(Suggestion.STUDENT, id, (String) row[1], (String) row[2], 0);
+        students.put(id, suggestion);
+        for (String key : studentKeys(suggestion)) {
+            trie.add(key, suggestion);
+        }
+    }
+
+    private synchronized void removeStudent(Long id) {
+        Suggestion suggestion = students.remove(id);
+        if (suggestion != null) {
+            for (String key : studentKeys(suggestion)) {
+                trie.remove(key, suggestion);
+            }
+        }
+    }
+
+    /**
+     * 课程名称的全部形式（原文、拼音全拼、首字母）加课程代码
+     */
+    private Set<String> courseKeys(Suggestion suggestion) {
+        String[] variants = new String[courseAnalyzer.variantCount()];
+        courseAnalyzer.analyze(suggestion.getName(), variants, 0);
+        Set<String> keys = new LinkedHashSet<>();
+        for (String variant : variants) {
+            if (variant != null && !variant.isEmpty()) {
+                keys.add(variant);
+            }
+        }
+        addIfNotEmpty(keys, courseAnalyzer.normalize(suggestion.getCode()));
+        return keys;
+    }
+
+    /**
+     * 学生姓名和学号（学生量大，不展开拼音以控制内存）
+     */
+    private Set<String> studentKeys(Suggestion suggestion) {
+        Set<String> keys = new LinkedHashSet<>();
+        addIfNotEmpty(keys, studentAnalyzer.normalize(suggestion.getName()));
+        addIfNotEmpty(keys, studentAnalyzer.normalize(suggestion.getCode()));
+        return keys;
+    }
+
+    private static void addIfNotEmpty(Set<String> keys, String key) {
+        if (!key.isEmpty()) {
+            keys.add(key);
+        }
+    }
+}
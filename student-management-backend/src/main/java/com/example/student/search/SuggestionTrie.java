@@ -0,0 +1,315 @@
+package com.example.student.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 联想词压缩字典树（radix tree）
+ *
+ * 单分支路径合并为一条边（学号这类长而唯一的后缀只占一个节点），子节点按首字符有序存放在数组中。
+ * 每个节点预先保存其子树内热度最高的 TOP_K 个条目，查询只需沿前缀走到对应节点直接返回，
+ * 耗时与数据量无关。
+ *
+ * 写入时沿路径逐个节点插入候选；删除时自底向上只重算包含该条目的节点（由本节点词条与子节点的前 K 合并）。
+ * 查询持读锁，写入持写锁。
+ */
+class SuggestionTrie {
+
+    static final int TOP_K = 10;
+
+    private static final char[] NO_CHARS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+    private static final Suggestion[] NO_SUGGESTIONS = new Suggestion[0];
+
+    private final Node root = new Node("");
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 在归一化后的键下挂入条目
+     */
+    void add(String key, Suggestion suggestion) {
+        if (key.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Node node = root;
+            root.offer(suggestion);
+            int i = 0;
+            while (i < key.length()) {
+                int index = node.indexOf(key.charAt(i));
+                if (index < 0) {
+                    Node leaf = new Node(key.substring(i));
+                    leaf.addTerminal(suggestion);
+                    leaf.offer(suggestion);
+                    node.insertChild(-index - 1, leaf);
+                    return;
+                }
+                Node child = node.children[index];
+                int common = commonPrefix(child.label, key, i);
+                if (common < child.label.length()) {
+                    child = node.split(index, common);
+                }
+                child.offer(suggestion);
+                i += common;
+                node = child;
+            }
+            node.addTerminal(suggestion);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 从键下移除条目（按引用匹配）
+     */
+    void remove(String key, Suggestion suggestion) {
+        if (key.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            List<Node> path = new ArrayList<>();
+            path.add(root);
+            Node node = root;
+            int i = 0;
+            while (i < key.length()) {
+                int index = node.indexOf(key.charAt(i));
+                if (index < 0) {
+                    return;
+                }
+                Node child = node.children[index];
+                if (!key.startsWith(child.label, i)) {
+                    return;
+                }
+                i += child.label.length();
+                node = child;
+                path.add(node);
+            }
+            if (!node.removeTerminal(suggestion)) {
+                return;
+            }
+            for (int p = path.size() - 1; p >= 0; p--) {
+                Node current = path.get(p);
+                if (current.topContains(suggestion)) {
+                    current.recomputeTop();
+                }
+            }
+            prune(path);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 前缀下热度最高的 limit 个条目（limit 不超过 TOP_K）
+     */
+    List<Suggestion> topK(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int i = 0;
+            while (i < prefix.length()) {
+                int index = node.indexOf(prefix.charAt(i));
+                if (index < 0) {
+                    return List.of();
+                }
+                Node child = node.children[index];
+                int remaining = prefix.length() - i;
+                if (remaining <= child.label.length()) {
+                    if (!child.label.regionMatches(0, prefix, i, remaining)) {
+                        return List.of();
+                    }
+                    node = child;
+                    break;
+                }
+                if (!prefix.startsWith(child.label, i)) {
+                    return List.of();
+                }
+                i += child.label.length();
+                node = child;
+            }
+            Suggestion[] top = node.top;
+            return List.of(Arrays.copyOf(top, Math.min(top.length, Math.max(0, limit))));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 删除空叶子，并把只剩一个子节点且无词条的中间节点与子节点合并
+     */
+    private void prune(List<Node> path) {
+        for (int p = path.size() - 1; p > 0; p--) {
+            Node node = path.get(p);
+            Node parent = path.get(p - 1);
+            if (node.terminalCount > 0) {
+                return;
+            }
+            if (node.children.length == 0) {
+                parent.removeChild(node);
+                continue;
+            }
+            if (node.children.length == 1) {
+                node.absorbOnlyChild();
+            }
+            return;
+        }
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static class Node {
+        /** 从父节点到本节点的边 */
+        String label;
+        char[] firsts = NO_CHARS;
+        Node[] children = NO_NODES;
+        /** 键恰好在本节点结束的条目 */
+        Suggestion[] terminals = NO_SUGGESTIONS;
+        int terminalCount;
+        /** 子树内热度最高的条目，有序、去重 */
+        Suggestion[] top = NO_SUGGESTIONS;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        /**
+         * 子节点下标；不存在时返回 -(插入位置) - 1
+         */
+        int indexOf(char c) {
+            return Arrays.binarySearch(firsts, c);
+        }
+
+        void insertChild(int position, Node child) {
+            char[] newFirsts = new char[firsts.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(firsts, 0, newFirsts, 0, position);
+            System.arraycopy(children, 0, newChildren, 0, position);
+            newFirsts[position] = child.label.charAt(0);
+            newChildren[position] = child;
+            System.arraycopy(firsts, position, newFirsts, position + 1, firsts.length - position);
+            System.arraycopy(children, position, newChildren, position + 1, children.length - position);
+            firsts = newFirsts;
+            children = newChildren;
+        }
+
+        void removeChild(Node child) {
+            int position = indexOf(child.label.charAt(0));
+            char[] newFirsts = new char[firsts.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(firsts, 0, newFirsts, 0, position);
+            System.arraycopy(children, 0, newChildren, 0, position);
+            System.arraycopy(firsts, position + 1, newFirsts, position, firsts.length - position - 1);
+            System.arraycopy(children, position + 1, newChildren, position, children.length - position - 1);
+            firsts = newFirsts;
+            children = newChildren;
+        }
+
+        /**
+         * 在第 index 个子节点的边上 common 处插入中间节点，返回中间节点
+         */
+        Node split(int index, int common) {
+            Node child = children[index];
+            Node middle = new Node(child.label.substring(0, common));
+            child.label = child.label.substring(common);
+            middle.firsts = new char[]{child.label.charAt(0)};
+            middle.children = new Node[]{child};
+            middle.top = child.top;
+            children[index] = middle;
+            return middle;
+        }
+
+        /**
+         * 合并唯一的子节点（本节点无词条时其前 K 与子节点相同）
+         */
+        void absorbOnlyChild() {
+            Node child = children[0];
+            label = label + child.label;
+            firsts = child.firsts;
+            children = child.children;
+            terminals = child.terminals;
+            terminalCount = child.terminalCount;
+            top = child.top;
+        }
+
+        void addTerminal(Suggestion suggestion) {
+            if (terminalCount == terminals.length) {
+                terminals = Arrays.copyOf(terminals, terminalCount + (terminalCount >> 1) + 1);
+            }
+            terminals[terminalCount++] = suggestion;
+        }
+
+        boolean removeTerminal(Suggestion suggestion) {
+            for (int i = 0; i < terminalCount; i++) {
+                if (terminals[i] == suggestion) {
+                    terminals[i] = terminals[--terminalCount];
+                    terminals[terminalCount] = null;
+                    if (terminalCount == 0) {
+                        terminals = NO_SUGGESTIONS;
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean topContains(Suggestion suggestion) {
+            for (Suggestion s : top) {
+                if (s == suggestion) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 把条目放入前 K（已存在或排不进时忽略）；数组整体替换
+         */
+        void offer(Suggestion suggestion) {
+            if (topContains(suggestion)) {
+                return;
+            }
+            int position = 0;
+            while (position < top.length && Suggestion.BY_POPULARITY.compare(top[position], suggestion) < 0) {
+                position++;
+            }
+            if (position >= TOP_K) {
+                return;
+            }
+            int length = Math.min(top.length + 1, TOP_K);
+            Suggestion[] newTop = new Suggestion[length];
+            System.arraycopy(top, 0, newTop, 0, position);
+            newTop[position] = suggestion;
+            System.arraycopy(top, position, newTop, position + 1, length - position - 1);
+            top = newTop;
+        }
+
+        /**
+         * 由本节点词条和各子节点的前 K 重新计算
+         */
+        void recomputeTop() {
+            top = NO_SUGGESTIONS;
+            for (int i = 0; i < terminalCount; i++) {
+                offer(terminals[i]);
+            }
+            for (Node child : children) {
+                for (Suggestion s : child.top) {
+                    if (top.length == TOP_K && Suggestion.BY_POPULARITY.compare(s, top[TOP_K - 1]) > 0) {
+                        break;
+                    }
+                    offer(s);
+                }
+            }
+        }
+    }
+}
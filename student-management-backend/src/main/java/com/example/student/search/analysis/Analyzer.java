@@ -0,0 +1,86 @@
+package com.example.student.search.analysis;
+
+import java.util.List;
+
+/**
+ * 分析器管道：字符过滤（全角转半角、小写）-> 文本扩展（拼音）-> n-gram 分词
+ *
+ * 每个字段归一化后得到固定数量的"形式"（原文在第 0 位，其后按扩展器顺序排列，不适用时为 null），
+ * 每种形式分别分词入索引；查询只做字符过滤，再与各形式逐一校验。
+ */
+public class Analyzer {
+    
+    private final List<CharFilter> charFilters;
+    private final List<TextExpander> expanders;
+    private final NGramTokenizer tokenizer;
+    private final VariantKind[] kinds;
+    
+    public Analyzer(List<CharFilter> charFilters, List<TextExpander> expanders, NGramTokenizer tokenizer) {
+        this.charFilters = charFilters;
+        this.expanders = expanders;
+        this.tokenizer = tokenizer;
+        this.kinds = new VariantKind[1 + expanders.size()];
+        this.kinds[0] = VariantKind.ORIGINAL;
+        for (int i = 0; i < expanders.size(); i++) {
+            this.kinds[i + 1] = expanders.get(i).kind();
+        }
+    }
+    
+    /**
+     * 标准管道：全角转半角 + 小写 + n-gram
+     */
+    public static Analyzer standard() {
+        return new Analyzer(
+                List.of(new WidthFoldingCharFilter(), new LowerCaseCharFilter()),
+                List.of(),
+                new NGramTokenizer());
+    }
+    
+    /**
+     * 中文管道：在标准管道基础上扩展拼音全拼和首字母
+     */
+    public static Analyzer chinese() {
+        return new Analyzer(
+                List.of(new WidthFoldingCharFilter(), new LowerCaseCharFilter()),
+                List.of(new PinyinExpander(false), new PinyinExpander(true)),
+                new NGramTokenizer());
+    }
+    
+    public String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String result = text;
+        for (CharFilter filter : charFilters) {
+            result = filter.apply(result);
+        }
+        return result;
+    }
+    
+    /**
+     * 每个字段的形式数量（原文 + 扩展）
+     */
+    public int variantCount() {
+        return kinds.length;
+    }
+    
+    public VariantKind kind(int slot) {
+        return kinds[slot];
+    }
+    
+    /**
+     * 归一化字段并写出全部形式到 out[offset ~ offset + variantCount)
+     */
+    public void analyze(String text, String[] out, int offset) {
+        String normalized = normalize(text);
+        out[offset] = normalized;
+        for (int i = 0; i < expanders.size(); i++) {
+            String expanded = normalized.isEmpty() ? null : expanders.get(i).expand(normalized);
+            out[offset + 1 + i] = expanded == null || expanded.equals(normalized) ? null : expanded;
+        }
+    }
+    
+    public NGramTokenizer tokenizer() {
+        return tokenizer;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.student.search.analysis;
+
+/**
+ * 字符级归一化（分词前执行），索引和查询两侧必须使用同一组过滤器
+ */
+public interface CharFilter {
+    
+    String apply(String text);
+}
@@ -0,0 +1,14 @@
+package com.example.student.search.analysis;
+
+import java.util.Locale;
+
+/**
+ * 转小写并去掉首尾空白
+ */
+public class LowerCaseCharFilter implements CharFilter {
+    
+    @Override
+    public String apply(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+}
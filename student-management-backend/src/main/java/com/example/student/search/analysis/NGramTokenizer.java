@@ -0,0 +1,130 @@
+package com.example.student.search.analysis;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * n-gram 分词器
+ *
+ * 写入时的切分规则：
+ * <ul>
+ *   <li>中日韩字符：单字、含中文字符的二元组、纯中文三元组</li>
+ *   <li>其他字符：连续三元组</li>
+ *   <li>文本开头 1~2 个字符额外记前缀项</li>
+ *   <li>开启缩写时，每个字母/数字额外记一个字母项，用于首字母缩写的子序列匹配</li>
+ * </ul>
+ * 查询项与写入规则一一对应：包含关键词的文本一定包含全部查询项，误命中由调用方做子串校验排除。
+ */
+public class NGramTokenizer {
+    
+    public static final char PREFIX_MARK = '\u0001';
+    
+    public static final char LETTER_MARK = '\u0002';
+    
+    /**
+     * 中日韩字符（汉字、假名、谚文），按码段判断，避免逐字符查 Unicode 脚本表
+     */
+    public static boolean isCjk(char c) {
+        return (c >= '\u4E00' && c <= '\u9FFF')
+                || (c >= '\u3400' && c <= '\u4DBF')
+                || (c >= '\u3040' && c <= '\u30FF')
+                || (c >= '\uAC00' && c <= '\uD7AF')
+                || (c >= '\uF900' && c <= '\uFAFF');
+    }
+    
+    public static boolean containsCjk(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (isCjk(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 文本切分出的索引项，写入 terms（调用方负责去重容器）
+     */
+    public void documentTerms(String text, boolean letters, Set<String> terms) {
+        int len = text.length();
+        if (len == 0) {
+            return;
+        }
+        terms.add(PREFIX_MARK + text.substring(0, 1));
+        if (len >= 2) {
+            terms.add(PREFIX_MARK + text.substring(0, 2));
+        }
+        for (int i = 0; i < len; i++) {
+            char c = text.charAt(i);
+            boolean cjk = isCjk(c);
+            if (cjk) {
+                terms.add(String.valueOf(c));
+            } else if (letters && Character.isLetterOrDigit(c)) {
+                terms.add(String.valueOf(new char[]{LETTER_MARK, c}));
+            }
+            if (i + 1 < len && (cjk || isCjk(text.charAt(i + 1)))) {
+                terms.add(text.substring(i, i + 2));
+            }
+            if (i + 2 < len && isTrigram(text, i)) {
+                terms.add(text.substring(i, i + 3));
+            }
+        }
+    }
+    
+    /**
+     * 子串 / 前缀匹配的查询项
+     */
+    public List<String> queryTerms(String query, boolean prefixOnly) {
+        if (prefixOnly) {
+            return List.of(PREFIX_MARK + query);
+        }
+        int len = query.length();
+        if (len == 1) {
+            return List.of(query);
+        }
+        Set<String> terms = new HashSet<>();
+        for (int i = 0; i + 1 < len; i++) {
+            if (isCjk(query.charAt(i)) || isCjk(query.charAt(i + 1))) {
+                terms.add(query.substring(i, i + 2));
+            }
+            if (i + 2 < len && isTrigram(query, i)) {
+                terms.add(query.substring(i, i + 3));
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+    
+    /**
+     * 缩写（子序列）匹配的查询项：汉字取单字项，字母/数字取字母项；含其他字符时返回 null
+     */
+    public List<String> abbreviationTerms(String query) {
+        Set<String> terms = new HashSet<>();
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (isCjk(c)) {
+                terms.add(String.valueOf(c));
+            } else if (Character.isLetterOrDigit(c)) {
+                terms.add(String.valueOf(new char[]{LETTER_MARK, c}));
+            } else {
+                return null;
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+    
+    /**
+     * 长度 1~2 且不含中文的关键词按前缀匹配（更短的子串匹配没有区分度）
+     */
+    public boolean isPrefixQuery(String query) {
+        return query.length() <= 2 && !containsCjk(query);
+    }
+    
+    /**
+     * 三元组：三个字符全为中文或全为非中文（中英混合的窗口已由二元组覆盖）
+     */
+    private static boolean isTrigram(String text, int start) {
+        boolean first = isCjk(text.charAt(start));
+        return isCjk(text.charAt(start + 1)) == first && isCjk(text.charAt(start + 2)) == first;
+    }
+}
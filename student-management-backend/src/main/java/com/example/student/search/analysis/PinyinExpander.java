@@ -0,0 +1,73 @@
+package com.example.student.search.analysis;
+
+import net.sourceforge.pinyin4j.PinyinHelper;
+import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
+import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
+import net.sourceforge.pinyin4j.format.exception.BadHanyuPinyinOutputFormatCombination;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 拼音扩展：汉字转为不带声调的拼音全拼（"高等数学" -> "gaodengshuxue"）
+ * 或首字母（"高等数学" -> "gdsx"），非汉字原样保留。多音字取第一个读音。
+ */
+public class PinyinExpander implements TextExpander {
+    
+    private static final HanyuPinyinOutputFormat FORMAT = new HanyuPinyinOutputFormat();
+    
+    static {
+        FORMAT.setCaseType(HanyuPinyinCaseType.LOWERCASE);
+        FORMAT.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
+        FORMAT.setVCharType(HanyuPinyinVCharType.WITH_V);
+    }
+    
+    /** 单字拼音缓存（常用汉字数量有限，查表结果长期复用） */
+    private static final Map<Character, String> CACHE = new ConcurrentHashMap<>();
+    
+    private final boolean initialsOnly;
+    
+    public PinyinExpander(boolean initialsOnly) {
+        this.initialsOnly = initialsOnly;
+    }
+    
+    @Override
+    public VariantKind kind() {
+        return initialsOnly ? VariantKind.INITIALS : VariantKind.PINYIN;
+    }
+    
+    @Override
+    public String expand(String normalized) {
+        StringBuilder sb = null;
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            String pinyin = NGramTokenizer.isCjk(c) ? pinyin(c) : "";
+            if (!pinyin.isEmpty() && sb == null) {
+                sb = new StringBuilder(normalized.length() * (initialsOnly ? 1 : 4));
+                sb.append(normalized, 0, i);
+            }
+            if (sb == null) {
+                continue;
+            }
+            if (pinyin.isEmpty()) {
+                sb.append(c);
+            } else {
+                sb.append(initialsOnly ? pinyin.substring(0, 1) : pinyin);
+            }
+        }
+        return sb == null ? null : sb.toString();
+    }
+    
+    private static String pinyin(char c) {
+        return CACHE.computeIfAbsent(c, key -> {
+            try {
+                String[] readings = PinyinHelper.toHanyuPinyinStringArray(key, FORMAT);
+                return readings == null || readings.length == 0 ? "" : readings[0];
+            } catch (BadHanyuPinyinOutputFormatCombination e) {
+                return "";
+            }
+        });
+    }
+}
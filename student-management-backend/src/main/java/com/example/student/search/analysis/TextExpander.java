@@ -0,0 +1,18 @@
+package com.example.student.search.analysis;
+
+/**
+ * 文本扩展：为归一化后的字段生成一种额外的可检索形式（如拼音全拼、首字母），
+ * 扩展形式与原文一起分词入索引，查询时一并校验
+ */
+public interface TextExpander {
+    
+    /**
+     * 扩展形式的类别，决定命中后的打分
+     */
+    VariantKind kind();
+    
+    /**
+     * @return 扩展后的文本；不适用（如不含汉字）时返回 null
+     */
+    String expand(String normalized);
+}
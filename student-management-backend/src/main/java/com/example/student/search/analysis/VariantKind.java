@@ -0,0 +1,10 @@
+package com.example.student.search.analysis;
+
+/**
+ * 字段文本的形式：原文 / 拼音全拼 / 拼音首字母
+ */
+public enum VariantKind {
+    ORIGINAL,
+    PINYIN,
+    INITIALS
+}
@@ -0,0 +1,28 @@
+package com.example.student.search.analysis;
+
+/**
+ * 全角转半角：全角 ASCII（U+FF01 ~ U+FF5E）折叠为对应半角字符，全角空格折叠为普通空格
+ */
+public class WidthFoldingCharFilter implements CharFilter {
+    
+    @Override
+    public String apply(String text) {
+        char[] chars = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            char folded = c;
+            if (c >= '\uFF01' && c <= '\uFF5E') {
+                folded = (char) (c - 0xFEE0);
+            } else if (c == '\u3000') {
+                folded = ' ';
+            }
+            if (folded != c) {
+                if (chars == null) {
+                    chars = text.toCharArray();
+                }
+                chars[i] = folded;
+            }
+        }
+        return chars == null ? text : new String(chars);
+    }
+}
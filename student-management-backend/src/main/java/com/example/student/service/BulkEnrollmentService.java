@@ -0,0 +1,184 @@
+package com.example.student.service;
+
+import com.example.student.dto.BulkEnrollRequest;
+import com.example.student.dto.BulkEnrollResultDTO;
+import com.example.student.entity.Course;
+import com.example.student.repository.CourseRepository;
+import com.example.student.repository.StudentCourseRepository;
+import com.example.student.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 批量选课（管理员按班级或学生列表为多门课程选课）
+ * 
+ * 整批在一个事务内完成：学生/课程/已有选课均用集合查询一次取回，
+ * 课程行按 id 顺序加锁后按剩余容量分配座位，选课记录通过 JDBC 批量插入，
+ * 每门课程的已选人数只更新一次。选上的学生在同一事务内移出该课程的候补队列。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkEnrollmentService {
+    
+    private static final int BATCH_SIZE = 1000;
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO student_courses (student_id, course_id, enroll_date, status, created_at, updated_at) " +
+            "VALUES (?, ?, ?, 'active', ?, ?)";
+    
+    /** 已有非活跃记录（已退课/已完成）时重新激活并清除旧成绩，与单个选课一致，不重复插入 */
+    private static final String REACTIVATE_SQL =
+            "UPDATE student_courses SET status = 'active', grade = NULL, enroll_date = ?, updated_at = ? " +
+            "WHERE student_id = ? AND course_id = ?";
+    
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final StudentCourseRepository studentCourseRepository;
+    private final TimetableIndex timetableIndex;
+    private final WaitlistService waitlistService;
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Transactional
+    public BulkEnrollResultDTO bulkEnroll(BulkEnrollRequest request) {
+        if (request.getCourseIds() == null || request.getCourseIds().isEmpty()) {
+            throw new IllegalArgumentException("courseIds 不能为空");
+        }
+        
+        // 1. 解析学生列表
+        List<Long> studentIds;
+        Set<Long> existingStudents;
+        if (request.getClassId() != null) {
+            studentIds = studentRepository.findIdsByClassId(request.getClassId());
+            existingStudents = new HashSet<>(studentIds);
+        } else if (request.getStudentIds() != null && !request.getStudentIds().isEmpty()) {
+            studentIds = new ArrayList<>(new LinkedHashSet<>(request.getStudentIds()));
+            existingStudents = new HashSet<>(studentRepository.findExistingIds(studentIds));
+        } else {
+            throw new IllegalArgumentException("classId 和 studentIds 不能同时为空");
+        }
+        
+        List<Long> courseIds = request.getCourseIds().stream().distinct().sorted().collect(Collectors.toList());
+        List<BulkEnrollResultDTO.Row> rows = new ArrayList<>(studentIds.size() * courseIds.size());
+        if (studentIds.isEmpty()) {
+            return buildResult(rows);
+        }
+        
+        // 2. 锁定课程行，取回已有选课记录和学生当前活跃课程
+        Map<Long, Course> courses = courseRepository.findAllByIdForUpdate(courseIds).stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+        
+        // 只有活跃记录算已选；非活跃记录（已退课/已完成）选课时重新激活
+        Set<String> activePairs = new HashSet<>();
+        Set<String> inactivePairs = new HashSet<>();
+        Map<Long, Set<Long>> activeCourses = new HashMap<>();
+        if (!existingStudents.isEmpty()) {
+            for (Object[] state : studentCourseRepository.findEnrollmentStates(existingStudents, courseIds)) {
+                Long studentId = (Long) state[0];
+                Long courseId = (Long) state[1];
+                boolean active = "active".equals(state[2]);
+                if (courseIds.contains(courseId)) {
+                    (active ? activePairs : inactivePairs).add(pairKey(studentId, courseId));
+                }
+                if (active) {
+                    activeCourses.computeIfAbsent(studentId, k -> new HashSet<>()).add(courseId);
+                }
+            }
+        }
+        
+        // 3. 逐课程分配座位
+        List<long[]> inserts = new ArrayList<>();
+        List<long[]> reactivations = new ArrayList<>();
+        Map<Long, List<Long>> enrolledByCourse = new LinkedHashMap<>();
+        for (Long courseId : courseIds) {
+            Course course = courses.get(courseId);
+            int remaining = course == null ? 0 : Math.max(0, course.getCapacity() - course.getEnrolled());
+            int granted = 0;
+            
+            for (Long studentId : studentIds) {
+                String error = null;
+                if (course == null) {
+                    error = "课程不存在";
+                } else if (!existingStudents.contains(studentId)) {
+                    error = "学生不存在";
+                } else if (activePairs.contains(pairKey(studentId, courseId))) {
+                    error = "学生已选过该课程";
+                } else {
+                    Set<Long> timetable = activeCourses.getOrDefault(studentId, Collections.emptySet());
+                    Long conflict = timetableIndex.findConflict(timetable, courseId);
+                    if (conflict != null) {
+                        error = "与已选课程（ID: " + conflict + "）上课时间冲突";
+                    } else if (remaining <= 0) {
+                        error = "课程已满，无法选择";
+                    }
+                }
+                
+                if (error != null) {
+                    rows.add(new BulkEnrollResultDTO.Row(studentId, courseId, false, error));
+                    continue;
+                }
+                (inactivePairs.contains(pairKey(studentId, courseId)) ? reactivations : inserts)
+                        .add(new long[]{studentId, courseId});
+                activeCourses.computeIfAbsent(studentId, k -> new HashSet<>()).add(courseId);
+                enrolledByCourse.computeIfAbsent(courseId, k -> new ArrayList<>()).add(studentId);
+                remaining--;
+                granted++;
+                rows.add(new BulkEnrollResultDTO.Row(studentId, courseId, true, "选课成功"));
+            }
+            
+            if (granted > 0) {
+                courseRepository.adjustEnrolled(courseId, granted);
+            }
+        }
+        
+        // 4. JDBC 批量插入新选课记录、重新激活已有记录
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts, BATCH_SIZE, (ps, pair) -> {
+                ps.setLong(1, pair[0]);
+                ps.setLong(2, pair[1]);
+                ps.setTimestamp(3, now);
+                ps.setTimestamp(4, now);
+                ps.setTimestamp(5, now);
+            });
+        }
+        if (!reactivations.isEmpty()) {
+            jdbcTemplate.batchUpdate(REACTIVATE_SQL, reactivations, BATCH_SIZE, (ps, pair) -> {
+                ps.setTimestamp(1, now);
+                ps.setTimestamp(2, now);
+                ps.setLong(3, pair[0]);
+                ps.setLong(4, pair[1]);
+            });
+        }
+        
+        // 5. 已选上的学生不再候补该课程，避免之后递补时重复计入
+        enrolledByCourse.forEach(waitlistService::removeEnrolled);
+        
+        log.info("批量选课完成: 学生 {} 人, 课程 {} 门, 成功 {} 条（其中重新激活 {} 条）", studentIds.size(), courseIds.size(),
+                inserts.size() + reactivations.size(), reactivations.size());
+        return buildResult(rows);
+    }
+    
+    private static String pairKey(Long studentId, Long courseId) {
+        return studentId + ":" + courseId;
+    }
+    
+    private static BulkEnrollResultDTO buildResult(List<BulkEnrollResultDTO.Row> rows) {
+        int succeeded = (int) rows.stream().filter(BulkEnrollResultDTO.Row::getSuccess).count();
+        return BulkEnrollResultDTO.builder()
+                .total(rows.size())
+                .succeeded(succeeded)
+                .failed(rows.size() - succeeded)
+                .rows(rows)
+                .build();
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.student.service;
+
+import com.example.student.dto.BulkGradeResultDTO;
+import com.example.student.utils.ExportFormat;
+import com.example.student.utils.RowReader;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 批量录入成绩 / 完成课程
+ * 
+ * 上传文件（CSV / XLSX）或 JSON 数组均边解析边处理：每行先做本地校验，
+ * 通过的行攒够 BATCH_SIZE 条后用一次 JDBC 批量 UPDATE 写入，按每条语句的影响行数
+ * 判断选课记录是否存在。内存中只保留当前批次和失败行，十万行级别的导入也不会堆积。
+ * 
+ * 文件需带表头，按列名匹配（忽略大小写）：studentId、courseId、grade、status，
+ * 其余列忽略，因此选课导出文件改完成绩后可直接上传。请求指定 courseId 时文件可省略该列。
+ * status 列只能把记录改为 completed；填 active / dropped 时仅校验当前状态一致、不做修改，
+ * 选课和退课须走选课接口（座位和候补递补）。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkGradeService {
+    
+    private static final int BATCH_SIZE = 1000;
+    
+    private static final int GRADE_MAX_LENGTH = 2;
+    
+    private static final Set<String> STATUSES = Set.of("active", "completed", "dropped");
+    
+    /**
+     * 导入只能把状态改为 completed；改为 active / dropped 会改变座位占用和候补递补，
+     * 必须走选课、退课接口。其余状态值只作为"当前状态必须一致"的校验（便于原样回传导出文件）
+     */
+    private static final String SETTABLE_STATUS = "completed";
+    
+    private static final String UPDATE_SQL =
+            "UPDATE student_courses SET grade = COALESCE(?, grade), status = COALESCE(?, status), updated_at = ? " +
+            "WHERE student_id = ? AND course_id = ? AND (? IS NULL OR status = ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * 从 CSV / XLSX 文件导入
+     */
+    @Transactional
+    public BulkGradeResultDTO importFile(InputStream in, ExportFormat format, Long courseId) throws IOException {
+        GradeBatch batch = new GradeBatch(courseId);
+        try (RowReader reader = format.openReader(in)) {
+            reader.read(batch::acceptRow);
+        }
+        if (batch.columns == null) {
+            throw new IllegalArgumentException("文件为空或缺少表头");
+        }
+        return batch.finish();
+    }
+    
+    /**
+     * 从 JSON 数组导入：[{"studentId":1,"courseId":2,"grade":"A","status":"completed"}, ...]
+     */
+    @Transactional
+    public BulkGradeResultDTO importJson(InputStream in, Long courseId) throws IOException {
+        GradeBatch batch = new GradeBatch(courseId);
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("请求体必须是 JSON 数组");
+            }
+            long rowNumber = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                JsonNode node = parser.readValueAsTree();
+                batch.accept(++rowNumber, text(node, "studentId"), text(node, "courseId"),
+                        text(node, "grade"), text(node, "status"));
+            }
+        }
+        return batch.finish();
+    }
+    
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+    
+    /**
+     * 一次导入的累积状态：表头映射、待写批次、计数和失败行
+     */
+    private class GradeBatch {
+        private final Long defaultCourseId;
+        private Map<String, Integer> columns;
+        private String[] header;
+        
+        private final List<Object[]> pending = new ArrayList<>(BATCH_SIZE);
+        private final List<Long> pendingRows = new ArrayList<>(BATCH_SIZE);
+        private final List<BulkGradeResultDTO.RowError> errors = new ArrayList<>();
+        private long total;
+        private long succeeded;
+        private final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        
+        GradeBatch(Long defaultCourseId) {
+            this.defaultCourseId = defaultCourseId;
+        }
+        
+        void acceptRow(long rowNumber, String[] cells) {
+            if (columns == null) {
+                parseHeader(cells);
+                return;
+            }
+            // 多工作表时每个工作表都带表头
+            if (Arrays.equals(cells, header) || isBlank(cells)) {
+                return;
+            }
+            accept(rowNumber, cell(cells, "studentid"), cell(cells, "courseid"),
+                    cell(cells, "grade"), cell(cells, "status"));
+        }
+        
+        void accept(long rowNumber, String studentIdText, String courseIdText, String gradeText, String statusText) {
+            total++;
+            Long studentId = parseId(studentIdText);
+            Long courseId = isEmpty(courseIdText) ? defaultCourseId : parseId(courseIdText);
+            String grade = isEmpty(gradeText) ? null : gradeText.trim();
+            String status = isEmpty(statusText) ? null : statusText.trim().toLowerCase(Locale.ROOT);
+            
+            String error = null;
+            if (studentId == null) {
+                error = "studentId 无效";
+            } else if (courseId == null) {
+                error = "courseId 无效";
+            } else if (grade == null && status == null) {
+                error = "成绩和状态不能同时为空";
+            } else if (grade != null && grade.length() > GRADE_MAX_LENGTH) {
+                error = "成绩长度不能超过" + GRADE_MAX_LENGTH + "个字符";
+            } else if (status != null && !STATUSES.contains(status)) {
+                error = "无效的状态: " + status;
+            }
+            if (error != null) {
+                errors.add(new BulkGradeResultDTO.RowError(rowNumber, studentId, courseId, error));
+                return;
+            }
+            
+            String newStatus = SETTABLE_STATUS.equals(status) ? status : null;
+            String expectedStatus = newStatus == null ? status : null;
+            pending.add(new Object[]{grade, newStatus, now, studentId, courseId, expectedStatus, expectedStatus});
+            pendingRows.add(rowNumber);
+            if (pending.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+        
+        BulkGradeResultDTO finish() {
+            flush();
+            log.info("批量录入成绩完成: 共 {} 行, 成功 {} 行, 失败 {} 行", total, succeeded, total - succeeded);
+            return BulkGradeResultDTO.builder()
+                    .total(total)
+                    .succeeded(succeeded)
+                    .failed(total - succeeded)
+                    .errors(errors)
+                    .build();
+        }
+        
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, pending);
+            for (int i = 0; i < counts.length; i++) {
+                // SUCCESS_NO_INFO(-2)：驱动未返回逐条影响行数，视为成功
+                if (counts[i] == 0) {
+                    Object[] args = pending.get(i);
+                    errors.add(new BulkGradeResultDTO.RowError(pendingRows.get(i),
+                            (Long) args[3], (Long) args[4],
+                            args[5] == null ? "选课记录不存在" : "选课记录不存在或状态不是 " + args[5] + "（导入只能改为 completed）"));
+                } else {
+                    succeeded++;
+                }
+            }
+            pending.clear();
+            pendingRows.clear();
+        }
+        
+        private void parseHeader(String[] cells) {
+            Map<String, Integer> mapping = new HashMap<>();
+            for (int i = 0; i < cells.length; i++) {
+                if (cells[i] != null) {
+                    mapping.putIfAbsent(cells[i].trim().toLowerCase(Locale.ROOT), i);
+                }
+            }
+            if (!mapping.containsKey("studentid")) {
+                throw new IllegalArgumentException("表头缺少 studentId 列");
+            }
+            if (!mapping.containsKey("courseid") && defaultCourseId == null) {
+                throw new IllegalArgumentException("表头缺少 courseId 列，且未指定 courseId 参数");
+            }
+            if (!mapping.containsKey("grade") && !mapping.containsKey("status")) {
+                throw new IllegalArgumentException("表头至少需要 grade 或 status 列");
+            }
+            columns = mapping;
+            header = cells;
+        }
+        
+        private String cell(String[] cells, String column) {
+            Integer index = columns.get(column);
+            return index == null || index >= cells.length ? null : cells[index];
+        }
+    }
+    
+    private static Long parseId(String text) {
+        if (isEmpty(text)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(text.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    private static boolean isEmpty(String text) {
+        return text == null || text.trim().isEmpty();
+    }
+    
+    private static boolean isBlank(String[] cells) {
+        for (String cell : cells) {
+            if (!isEmpty(cell)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
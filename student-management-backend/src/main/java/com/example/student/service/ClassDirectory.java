@@ -0,0 +1,180 @@
+package com.example.student.service;
+
+import com.example.student.entity.Class;
+import com.example.student.repository.ClassRepository;
+import com.example.student.utils.TransactionUtil;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 班级目录（id -> 班级）的本地只读副本
+ *
+ * 班级数量少、读远多于写：学生列表、详情、搜索结果的班级名称都从这里取，不再每行查一次 classes 表。
+ * 目录以不可变 Map 整体替换（写时复制），读取无锁；其中的班级对象是只读副本，修改班级需经 ClassRepository。
+ *
+ * 班级变更（包括学生数变化）后调用 invalidate：本节点在事务提交后重新加载该班级，
+ * 并通过 Redis 频道 class_directory:invalidate 通知其他节点重新加载。
+ * 发布订阅不保证送达，另按 class-directory.refresh-interval-ms 定期全量刷新兜底；
+ * 查不到的 id（如直接写库新增的班级）会回源数据库一次。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClassDirectory implements MessageListener {
+    
+    private static final String CHANNEL = "class_directory:invalidate";
+    
+    private final ClassRepository classRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    
+    /** 本节点标识，忽略自己发出的通知 */
+    private final String nodeId = UUID.randomUUID().toString();
+    
+    private volatile Map<Long, Class> classes;
+    
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+    
+    /**
+     * 按 id 查找班级，不存在返回 null
+     */
+    public Class get(Long classId) {
+        if (classId == null) {
+            return null;
+        }
+        Class clazz = snapshot().get(classId);
+        if (clazz == null) {
+            clazz = classRepository.findById(classId).orElse(null);
+            if (clazz != null) {
+                put(clazz);
+            }
+        }
+        return clazz;
+    }
+    
+    /**
+     * 班级名称，班级不存在返回 null
+     */
+    public String nameOf(Long classId) {
+        Class clazz = get(classId);
+        return clazz == null ? null : clazz.getName();
+    }
+    
+    public boolean exists(Long classId) {
+        return get(classId) != null;
+    }
+    
+    /**
+     * 全部班级，按 id 排序
+     */
+    public List<Class> all() {
+        return new ArrayList<>(snapshot().values());
+    }
+    
+    /**
+     * 班级变更后调用：事务提交后重新加载本节点，并通知其他节点
+     */
+    public void invalidate(Long classId) {
+        TransactionUtil.afterCommit(() -> refresh(classId));
+    }
+    
+    /**
+     * 立即重新加载本节点并通知其他节点（用于已在提交后回调中的场景）
+     */
+    public void refresh(Long classId) {
+        reload(classId);
+        publish(classId.toString());
+    }
+    
+    /**
+     * 定期全量刷新，弥补丢失的失效通知
+     */
+    @Scheduled(fixedDelayString = "${class-directory.refresh-interval-ms:300000}")
+    public void refreshAll() {
+        if (classes != null) {
+            load();
+        }
+    }
+    
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        if (separator < 0 || nodeId.equals(body.substring(0, separator))) {
+            return;
+        }
+        try {
+            reload(Long.parseLong(body.substring(separator + 1)));
+        } catch (Exception e) {
+            log.error("处理班级目录失效通知失败: {}", e.getMessage());
+        }
+    }
+    
+    private Map<Long, Class> snapshot() {
+        Map<Long, Class> current = classes;
+        return current != null ? current : load();
+    }
+    
+    private synchronized Map<Long, Class> load() {
+        Map<Long, Class> loaded = new TreeMap<>();
+        for (Class clazz : classRepository.findAll()) {
+            loaded.put(clazz.getId(), detach(clazz));
+        }
+        classes = Collections.unmodifiableMap(loaded);
+        log.debug("班级目录已加载: {} 个班级", loaded.size());
+        return classes;
+    }
+    
+    private void reload(Long classId) {
+        if (classes == null) {
+            return;
+        }
+        Optional<Class> clazz = classRepository.findById(classId);
+        if (clazz.isPresent()) {
+            put(clazz.get());
+        } else {
+            remove(classId);
+        }
+    }
+    
+    private synchronized void put(Class clazz) {
+        Map<Long, Class> copy = new TreeMap<>(snapshot());
+        copy.put(clazz.getId(), detach(clazz));
+        classes = Collections.unmodifiableMap(copy);
+    }
+    
+    private synchronized void remove(Long classId) {
+        Map<Long, Class> copy = new TreeMap<>(snapshot());
+        copy.remove(classId);
+        classes = Collections.unmodifiableMap(copy);
+    }
+    
+    /**
+     * 复制为游离对象：目录中的实例跨线程共享，不能挂在加载它的持久化上下文上
+     */
+    private static Class detach(Class clazz) {
+        return new Class(clazz.getId(), clazz.getName(), clazz.getGrade(), clazz.getStudentCount(), clazz.getCreatedAt());
+    }
+    
+    private void publish(String target) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId + ":" + target);
+        } catch (Exception e) {
+            log.error("发布班级目录失效通知失败: {}", e.getMessage());
+        }
+    }
+}
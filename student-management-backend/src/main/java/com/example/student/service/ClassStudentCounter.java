@@ -0,0 +1,105 @@
+package com.example.student.service;
+
+import com.example.student.repository.ClassRepository;
+import com.example.student.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 班级学生数（classes.student_count）的增量维护
+ * 
+ * 学生增删、换班时调用 add 记录增量，同一事务内的增量按班级合并，在事务提交前
+ * 对每个班级执行一次原子 UPDATE student_count = student_count + delta（按班级 id 顺序加锁，避免死锁），
+ * 不再每次 COUNT 全班学生，耗时与班级人数无关。
+ * 
+ * 另有后台对账：按 class-count.reconcile-interval-ms 用一次 GROUP BY 统计各班实际人数，
+ * 修正与计数不一致的班级（如直接改库造成的偏差）。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClassStudentCounter {
+    
+    private final ClassRepository classRepository;
+    private final StudentRepository studentRepository;
+    private final ClassDirectory classDirectory;
+    
+    /**
+     * 记录班级学生数增量（加入调用方的事务，没有事务时单独开启一个）
+     */
+    @Transactional
+    public void add(Long classId, long delta) {
+        if (classId == null || delta == 0) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, Long> deltas = (Map<Long, Long>) TransactionSynchronizationManager.getResource(this);
+        if (deltas == null) {
+            Map<Long, Long> pending = new TreeMap<>();
+            deltas = pending;
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    pending.forEach((id, value) -> {
+                        if (value != 0) {
+                            classRepository.adjustStudentCount(id, value.intValue());
+                        }
+                    });
+                }
+                
+                @Override
+                public void afterCommit() {
+                    pending.keySet().forEach(classDirectory::refresh);
+                }
+                
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ClassStudentCounter.this);
+                }
+            });
+        }
+        deltas.merge(classId, delta, Long::sum);
+    }
+    
+    /**
+     * 对账：一次 GROUP BY 统计各班实际人数，修正不一致的班级
+     * 按读取到的旧值做条件更新，期间被并发增量修改过的班级留到下一轮
+     */
+    @Transactional
+    @Scheduled(initialDelayString = "${class-count.reconcile-interval-ms:600000}",
+               fixedDelayString = "${class-count.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        try {
+            Map<Long, Long> actual = new HashMap<>();
+            for (Object[] row : studentRepository.countGroupByClassId()) {
+                actual.put((Long) row[0], ((Number) row[1]).longValue());
+            }
+            int fixed = 0;
+            for (Object[] row : classRepository.findStudentCounts()) {
+                Long classId = (Long) row[0];
+                int recorded = ((Number) row[1]).intValue();
+                int expected = actual.getOrDefault(classId, 0L).intValue();
+                if (recorded != expected && classRepository.resetStudentCount(classId, recorded, expected) > 0) {
+                    log.warn("班级学生数不一致已修正: classId={}, {} -> {}", classId, recorded, expected);
+                    classDirectory.invalidate(classId);
+                    fixed++;
+                }
+            }
+            if (fixed > 0) {
+                log.info("班级学生数对账完成，修正 {} 个班级", fixed);
+            }
+        } catch (Exception e) {
+            log.error("班级学生数对账失败: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.student.service;
+
+import com.example.student.dto.PageResponse;
+import com.example.student.event.CourseChangedEvent;
+import com.example.student.event.StudentChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * 分页总数策略
+ *
+ * 数据查询统一走 Slice（多取一行判断是否有下一页，不执行 COUNT），总数按策略补充：
+ * <ul>
+ *   <li>最后一页：偏移量 + 本页条数即为精确总数，不查询</li>
+ *   <li>AUTO 且无过滤条件：表行数超过 paging.count.estimate-threshold 时使用 EXPLAIN 估算值</li>
+ *   <li>其余：按"表 + 归一化过滤条件"缓存 COUNT 结果（Redis，短 TTL）；
+ *       学生/课程变更时递增表的版本号使旧缓存整体失效</li>
+ *   <li>NONE：不统计，total 为已知下限，由 hasNext 判断翻页</li>
+ * </ul>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CountService {
+
+    /**
+     * 总数统计方式
+     */
+    public enum Mode {
+        /** 总是执行 COUNT（不读缓存，结果写回缓存） */
+        EXACT,
+        /** 缓存 COUNT，大表无过滤时估算 */
+        AUTO,
+        /** 不统计总数 */
+        NONE;
+
+        public static Mode from(String value) {
+            for (Mode mode : values()) {
+                if (mode.name().equalsIgnoreCase(value)) {
+                    return mode;
+                }
+            }
+            throw new IllegalArgumentException("不支持的总数统计方式: " + value);
+        }
+    }
+
+    public static final String STUDENTS = "students";
+    public static final String COURSES = "courses";
+
+    private static final String COUNT_PREFIX = "page_count:";
+    private static final long ESTIMATE_CACHE_MILLIS = 60_000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    /** 表名 -> [估算行数, 过期时间] */
+    private final Map<String, long[]> estimates = new ConcurrentHashMap<>();
+
+    @Value("${paging.count.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${paging.count.estimate-threshold:100000}")
+    private long estimateThreshold;
+
+    /**
+     * 执行分页查询并按策略计算总数
+     *
+     * @param table     表名（STUDENTS / COURSES），同时作为缓存命名空间
+     * @param filterKey 过滤条件的归一化表示，无过滤条件时为 null（见 filterKey(...)）
+     * @param query     Slice 查询；返回 Page 时（如内存索引）直接使用其总数
+     * @param counter   精确 COUNT
+     */
+    public <E, T> PageResponse<T> page(String table, String filterKey, Pageable pageable, Mode mode,
+                                       Function<Pageable, Slice<E>> query, LongSupplier counter,
+                                       Function<E, T> converter) {
+        Slice<E> slice = query.apply(pageable);
+        List<T> records = slice.getContent().stream().map(converter).collect(Collectors.toList());
+
+        PageResponse<T> response = new PageResponse<>(null, pageable.getPageNumber() + 1, pageable.getPageSize(), records);
+        response.setHasNext(slice.hasNext());
+
+        if (slice instanceof Page) {
+            response.setTotal(((Page<E>) slice).getTotalElements());
+        } else if (!slice.hasNext() && (slice.hasContent() || pageable.getOffset() == 0)) {
+            response.setTotal(pageable.getOffset() + slice.getNumberOfElements());
+        } else if (mode == Mode.NONE) {
+            response.setTotal(pageable.getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0));
+            response.setTotalExact(false);
+        } else {
+            Long estimate = mode == Mode.AUTO && filterKey == null ? estimateLargeTable(table) : null;
+            if (estimate != null) {
+                response.setTotal(estimate);
+                response.setTotalExact(false);
+            } else {
+                response.setTotal(cachedCount(table, filterKey, mode == Mode.EXACT, counter));
+            }
+        }
+        return response;
+    }
+
+    /**
+     * 过滤条件的归一化表示：去空白、小写（与数据库默认排序规则下 LIKE 不区分大小写一致），全部为空时返回 null
+     */
+    public static String filterKey(Object... parts) {
+        boolean filtered = false;
+        StringBuilder key = new StringBuilder();
+        for (Object part : parts) {
+            String value = part == null ? "" : part.toString().trim().toLowerCase(Locale.ROOT);
+            filtered |= !value.isEmpty();
+            key.append(value.length()).append(':').append(value).append('|');
+        }
+        return filtered ? key.toString() : null;
+    }
+
+    private long cachedCount(String table, String filterKey, boolean refresh, LongSupplier counter) {
+        String key = null;
+        try {
+            String version = redisTemplate.opsForValue().get(COUNT_PREFIX + table + ":version");
+            key = COUNT_PREFIX + table + ":" + (version == null ? "0" : version) + ":" + (filterKey == null ? "*" : filterKey);
+            if (!refresh) {
+                String cached = redisTemplate.opsForValue().get(key);
+                if (cached != null) {
+                    return Long.parseLong(cached);
+                }
+            }
+        } catch (Exception e) {
+            log.error("读取分页总数缓存失败: {}", e.getMessage());
+        }
+
+        long count = counter.getAsLong();
+        if (key != null) {
+            try {
+                redisTemplate.opsForValue().set(key, Long.toString(count), Duration.ofSeconds(ttlSeconds));
+            } catch (Exception e) {
+                log.error("写入分页总数缓存失败: {}", e.getMessage());
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 大表估算行数（EXPLAIN 的 rows 列，来自 InnoDB 统计信息），小于阈值或取不到时返回 null
+     */
+    private Long estimateLargeTable(String table) {
+        long now = System.currentTimeMillis();
+        long[] cached = estimates.get(table);
+        if (cached == null || cached[1] < now) {
+            long rows = -1;
+            try {
+                // 表名只来自本类常量
+                Map<String, Object> plan = jdbcTemplate.queryForList("EXPLAIN SELECT * FROM " + table).get(0);
+                Object value = plan.get("rows");
+                if (value instanceof Number) {
+                    rows = ((Number) value).longValue();
+                }
+            } catch (Exception e) {
+                log.error("估算表行数失败: {}", e.getMessage());
+            }
+            cached = new long[]{rows, now + ESTIMATE_CACHE_MILLIS};
+            estimates.put(table, cached);
+        }
+        return cached[0] >= estimateThreshold ? cached[0] : null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        bumpVersion(STUDENTS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        bumpVersion(COURSES);
+    }
+
+    private void bumpVersion(String table) {
+        try {
+            redisTemplate.opsForValue().increment(COUNT_PREFIX + table + ":version");
+        } catch (Exception e) {
+            log.error("刷新分页总数缓存版本失败: {}", e.getMessage());
+        }
+    }
+}
@@ -1,23 +1,40 @@
 package com.example.student.service;
 
 import com.example.student.dto.CourseDTO;
+import com.example.student.dto.CourseFacetsDTO;
+import com.example.student.dto.CourseFilter;
+import com.example.student.dto.CourseSummaryDTO;
 import com.example.student.dto.CourseScheduleDTO;
 import com.example.student.dto.CourseAttachmentDTO;
+import com.example.student.dto.PageResponse;
 import com.example.student.entity.Course;
 import com.example.student.entity.CourseSchedule;
 import com.example.student.entity.CourseAttachment;
+import com.example.student.entity.User;
+import com.example.student.event.CourseChangedEvent;
 import com.example.student.repository.CourseRepository;
 import com.example.student.repository.CourseScheduleRepository;
 import com.example.student.repository.CourseAttachmentRepository;
+import com.example.student.repository.CourseSpecifications;
+import com.example.student.repository.UserRepository;
+import com.example.student.utils.CursorUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,24 +50,160 @@ public class CourseService {
     @Autowired
     private CourseAttachmentRepository attachmentRepository;
     
+    @Autowired
+    private TimetableIndex timetableIndex;
+    
+    @Autowired
+    private WaitlistService waitlistService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private CountService countService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    /**
+     * 获取课程列表：筛选条件任意组合（动态 Criteria 查询），总数按 countMode 统计，见 CountService
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<CourseDTO> listCourses(CourseFilter filter, Pageable pageable, CountService.Mode countMode) {
+        Specification<Course> spec = CourseSpecifications.matching(filter);
+        return countService.page(CountService.COURSES, filterKey(filter), pageable, countMode,
+                p -> courseRepository.findSlice(spec, p),
+                () -> courseRepository.count(spec),
+                this::convertToDTO);
+    }
+    
+    /**
+     * 游标分页获取课程列表：按主键顺序 seek，游标为上一页最后一条的 id，不返回总数
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<CourseDTO> listCoursesByCursor(CourseFilter filter, String cursor, int size) {
+        if (size < 1 || size > 100) {
+            size = 10;
+        }
+        long lastId = CursorUtil.decodeId(cursor, 0);
+        Specification<Course> spec = CourseSpecifications.matching(filter).and(CourseSpecifications.idAfter(lastId));
+        List<Course> rows = courseRepository.findSlice(spec, PageRequest.of(0, size + 1, Sort.by("id"))).getContent();
+        return CursorUtil.toPage(rows, size,
+                page -> page.stream().map(this::convertToDTO).collect(Collectors.toList()),
+                last -> CursorUtil.encode(last.getId()));
+    }
+    
+    /**
+     * 获取课程列表行（只查询列表展示需要的列，不读取 TEXT 列），筛选与总数统计同 listCourses
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<CourseSummaryDTO> listCourseSummaries(CourseFilter filter, Pageable pageable,
+                                                              CountService.Mode countMode) {
+        Specification<Course> spec = CourseSpecifications.matching(filter);
+        return countService.page(CountService.COURSES, filterKey(filter), pageable, countMode,
+                p -> courseRepository.findSummarySlice(spec, p),
+                () -> courseRepository.count(spec),
+                Function.identity());
+    }
+    
     /**
-     * 获取课程列表
+     * 游标分页获取课程列表行
      */
     @Transactional(readOnly = true)
-    public Page<CourseDTO> listCourses(String keyword, String status, Pageable pageable) {
-        Page<Course> coursePage;
+    public PageResponse<CourseSummaryDTO> listCourseSummariesByCursor(CourseFilter filter, String cursor, int size) {
+        if (size < 1 || size > 100) {
+            size = 10;
+        }
+        long lastId = CursorUtil.decodeId(cursor, 0);
+        Specification<Course> spec = CourseSpecifications.matching(filter).and(CourseSpecifications.idAfter(lastId));
+        List<CourseSummaryDTO> rows = courseRepository.findSummarySlice(spec, PageRequest.of(0, size + 1, Sort.by("id")))
+                .getContent();
+        return CursorUtil.toPage(rows, size, Function.identity(), last -> CursorUtil.encode(last.getId()));
+    }
+    
+    /**
+     * 课程分面计数
+     *
+     * 关键词、日期范围在数据库过滤，按 (分类, 状态, 学分, 教师, 是否有余量) 一次 GROUP BY 取回分组计数，
+     * 分组数远小于课程数；各维度计数在内存中汇总，每个维度应用除自身以外的全部分面条件，不为每个分面单独 COUNT
+     */
+    @Transactional(readOnly = true)
+    public CourseFacetsDTO getCourseFacets(CourseFilter filter) {
+        List<Object[]> groups = courseRepository.countFacetGroups(CourseSpecifications.baseOf(filter));
+        
+        long total = 0;
+        Map<String, Long> categories = new TreeMap<>();
+        Map<String, Long> statuses = new TreeMap<>();
+        Map<Integer, Long> credits = new TreeMap<>();
+        Map<Long, Long> teachers = new LinkedHashMap<>();
+        Map<Boolean, Long> openSeats = new TreeMap<>(Comparator.reverseOrder());
         
-        if (keyword != null && !keyword.isEmpty() && status != null && !status.isEmpty()) {
-            coursePage = courseRepository.findByCourseByKeywordAndStatus(keyword, status, pageable);
-        } else if (keyword != null && !keyword.isEmpty()) {
-            coursePage = courseRepository.findByKeyword(keyword, pageable);
-        } else if (status != null && !status.isEmpty()) {
-            coursePage = courseRepository.findByStatus(status, pageable);
-        } else {
-            coursePage = courseRepository.findAll(pageable);
+        for (Object[] group : groups) {
+            String category = (String) group[0];
+            String status = (String) group[1];
+            Integer credit = (Integer) group[2];
+            Long teacherId = (Long) group[3];
+            boolean open = group[4] != null && ((Number) group[4]).intValue() > 0;
+            long count = ((Number) group[5]).longValue();
+            
+            boolean categoryMatch = !hasText(filter.getCategory()) || filter.getCategory().equals(category);
+            boolean statusMatch = !hasText(filter.getStatus()) || filter.getStatus().equals(status);
+            boolean creditsMatch = (filter.getMinCredits() == null || credit != null && credit >= filter.getMinCredits())
+                    && (filter.getMaxCredits() == null || credit != null && credit <= filter.getMaxCredits());
+            boolean teacherMatch = filter.getTeacherId() == null || filter.getTeacherId().equals(teacherId);
+            boolean openMatch = filter.getHasOpenSeats() == null || filter.getHasOpenSeats().equals(open);
+            
+            if (categoryMatch && statusMatch && creditsMatch && teacherMatch && openMatch) {
+                total += count;
+            }
+            if (category != null && statusMatch && creditsMatch && teacherMatch && openMatch) {
+                categories.merge(category, count, Long::sum);
+            }
+            if (status != null && categoryMatch && creditsMatch && teacherMatch && openMatch) {
+                statuses.merge(status, count, Long::sum);
+            }
+            if (credit != null && categoryMatch && statusMatch && teacherMatch && openMatch) {
+                credits.merge(credit, count, Long::sum);
+            }
+            if (teacherId != null && categoryMatch && statusMatch && creditsMatch && openMatch) {
+                teachers.merge(teacherId, count, Long::sum);
+            }
+            if (categoryMatch && statusMatch && creditsMatch && teacherMatch) {
+                openSeats.merge(open, count, Long::sum);
+            }
         }
         
-        return coursePage.map(this::convertToDTO);
+        Map<Long, String> teacherNames = userRepository.findAllById(teachers.keySet()).stream()
+                .collect(Collectors.toMap(User::getId, User::getUsername));
+        List<CourseFacetsDTO.FacetCount> teacherFacets = teachers.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                .map(e -> new CourseFacetsDTO.FacetCount(e.getKey().toString(), teacherNames.get(e.getKey()), e.getValue()))
+                .collect(Collectors.toList());
+        
+        return CourseFacetsDTO.builder()
+                .total(total)
+                .categories(toFacets(categories))
+                .statuses(toFacets(statuses))
+                .credits(toFacets(credits))
+                .teachers(teacherFacets)
+                .openSeats(toFacets(openSeats))
+                .build();
+    }
+    
+    private static List<CourseFacetsDTO.FacetCount> toFacets(Map<?, Long> counts) {
+        return counts.entrySet().stream()
+                .map(e -> new CourseFacetsDTO.FacetCount(e.getKey().toString(), null, e.getValue()))
+                .collect(Collectors.toList());
+    }
+    
+    private static String filterKey(CourseFilter filter) {
+        return CountService.filterKey(filter.getKeyword(), filter.getCategory(), filter.getStatus(),
+                filter.getMinCredits(), filter.getMaxCredits(), filter.getTeacherId(),
+                filter.getStartDate(), filter.getEndDate(), filter.getHasOpenSeats());
+    }
+    
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
     }
     
     /**
@@ -105,6 +258,7 @@ public class CourseService {
         course.setEnrolled(0);
         
         course = courseRepository.save(course);
+        eventPublisher.publishEvent(CourseChangedEvent.saved(course.getId()));
         log.info("课程创建成功: {}", course.getName());
         
         return convertToDTO(course);
@@ -126,6 +280,7 @@ public class CourseService {
         if (courseDTO.getDescription() != null) course.setDescription(courseDTO.getDescription());
         if (courseDTO.getTeacherId() != null) course.setTeacherId(courseDTO.getTeacherId());
         if (courseDTO.getCategory() != null) course.setCategory(courseDTO.getCategory());
+        boolean capacityIncreased = courseDTO.getCapacity() != null && courseDTO.getCapacity() > course.getCapacity();
         if (courseDTO.getCapacity() != null) course.setCapacity(courseDTO.getCapacity());
         if (courseDTO.getStatus() != null) course.setStatus(courseDTO.getStatus());
         if (courseDTO.getStartDate() != null) course.setStartDate(courseDTO.getStartDate());
@@ -136,8 +291,18 @@ public class CourseService {
         if (courseDTO.getRequirements() != null) course.setRequirements(courseDTO.getRequirements());
         
         course = courseRepository.save(course);
+        eventPublisher.publishEvent(CourseChangedEvent.saved(courseId));
         log.info("课程更新成功: {}", course.getName());
         
+        // 扩容后把新增座位依次分配给候补队列
+        if (capacityIncreased) {
+            int promoted = waitlistService.promoteIntoFreeSeats(courseId);
+            if (promoted > 0) {
+                log.info("课程扩容后候补递补 {} 人: {}", promoted, course.getName());
+                course = courseRepository.findById(courseId).orElse(course);
+            }
+        }
+        
         return convertToDTO(course);
     }
     
@@ -155,6 +320,8 @@ public class CourseService {
         attachmentRepository.deleteAll(attachmentRepository.findByCourseId(courseId));
         
         courseRepository.deleteById(courseId);
+        timetableIndex.invalidateCourse(courseId);
+        eventPublisher.publishEvent(CourseChangedEvent.deleted(courseId));
         log.info("课程删除成功: {}", courseId);
     }
     
@@ -175,6 +342,7 @@ public class CourseService {
         schedule.setLocation(scheduleDTO.getLocation());
         
         schedule = scheduleRepository.save(schedule);
+        timetableIndex.invalidateCourse(courseId);
         log.info("课程日程添加成功: courseId={}", courseId);
         
         return convertScheduleToDTO(schedule);
@@ -185,11 +353,11 @@ public class CourseService {
      */
     @Transactional
     public void deleteCourseSchedule(Long scheduleId) {
-        if (!scheduleRepository.existsById(scheduleId)) {
-            throw new RuntimeException("Schedule not found");
-        }
+        CourseSchedule schedule = scheduleRepository.findById(scheduleId)
+                .orElseThrow(() -> new RuntimeException("Schedule not found"));
         
-        scheduleRepository.deleteById(scheduleId);
+        scheduleRepository.delete(schedule);
+        timetableIndex.invalidateCourse(schedule.getCourseId());
         log.info("课程日程删除成功: {}", scheduleId);
     }
     
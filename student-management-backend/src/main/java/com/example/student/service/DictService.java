@@ -2,7 +2,6 @@ package com.example.student.service;
 
 import com.example.student.entity.Class;
 import com.example.student.entity.DictData;
-import com.example.student.repository.ClassRepository;
 import com.example.student.repository.DictDataRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,7 +20,7 @@ public class DictService {
     private DictDataRepository dictDataRepository;
     
     @Autowired
-    private ClassRepository classRepository;
+    private ClassDirectory classDirectory;
     
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
@@ -57,10 +56,9 @@ public class DictService {
     /**
      * 获取班级列表
      */
-    @Transactional(readOnly = true)
     public List<Map<String, Object>> getClasses() {
-        // 直接从数据库查询，不使用 Redis 缓存以避免类型转换问题
-        List<Class> classes = classRepository.findAll();
+        // 从班级目录读取（本地副本，班级变更时刷新），不使用 Redis 缓存以避免类型转换问题
+        List<Class> classes = classDirectory.all();
         
         if (classes == null || classes.isEmpty()) {
             log.warn("数据库中没有班级数据");
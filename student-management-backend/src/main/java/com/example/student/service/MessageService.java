@@ -1,18 +1,25 @@
 package com.example.student.service;
 
 import com.example.student.dto.MessageDTO;
+import com.example.student.dto.PageResponse;
 import com.example.student.entity.Message;
 import com.example.student.entity.User;
 import com.example.student.repository.MessageRepository;
 import com.example.student.repository.UserRepository;
+import com.example.student.utils.CursorUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -78,6 +85,48 @@ public class MessageService {
         });
     }
     
+    /**
+     * 获取收件箱消息（游标分页，新消息在前）
+     * 游标为上一页最后一条的 id，按主键 seek，不返回总数
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<MessageDTO> getInboxMessagesByCursor(Long receiverId, String cursor, int size) {
+        if (size < 1 || size > 100) {
+            size = 10;
+        }
+        long lastId = CursorUtil.decodeId(cursor, Long.MAX_VALUE);
+        List<Message> rows = messageRepository.findInboxBefore(receiverId, lastId, PageRequest.of(0, size + 1));
+        return CursorUtil.toPage(rows, size, this::convertAll, last -> CursorUtil.encode(last.getId()));
+    }
+    
+    /**
+     * 获取未读消息（游标分页）
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<MessageDTO> getUnreadMessagesByCursor(Long receiverId, String cursor, int size) {
+        if (size < 1 || size > 100) {
+            size = 10;
+        }
+        long lastId = CursorUtil.decodeId(cursor, Long.MAX_VALUE);
+        List<Message> rows = messageRepository.findByStatusBefore(receiverId, "unread", lastId,
+                PageRequest.of(0, size + 1));
+        return CursorUtil.toPage(rows, size, this::convertAll, last -> CursorUtil.encode(last.getId()));
+    }
+    
+    /**
+     * 获取消息会话（游标分页）
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<MessageDTO> getConversationByCursor(Long userId1, Long userId2, String cursor, int size) {
+        if (size < 1 || size > 100) {
+            size = 10;
+        }
+        long lastId = CursorUtil.decodeId(cursor, Long.MAX_VALUE);
+        List<Message> rows = messageRepository.findConversationBefore(userId1, userId2, lastId,
+                PageRequest.of(0, size + 1));
+        return CursorUtil.toPage(rows, size, this::convertAll, last -> CursorUtil.encode(last.getId()));
+    }
+    
     /**
      * 标记消息为已读（验证消息属于指定用户）
      */
@@ -141,6 +190,26 @@ public class MessageService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * 整页转换：发送者/接收者一次 IN 查询读出
+     */
+    private List<MessageDTO> convertAll(List<Message> messages) {
+        Set<Long> userIds = new HashSet<>();
+        for (Message msg : messages) {
+            if (msg.getSenderId() != null) {
+                userIds.add(msg.getSenderId());
+            }
+            if (msg.getReceiverId() != null) {
+                userIds.add(msg.getReceiverId());
+            }
+        }
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return messages.stream()
+                .map(msg -> convertToDTO(msg, users.get(msg.getSenderId()), users.get(msg.getReceiverId())))
+                .collect(Collectors.toList());
+    }
+    
     /**
      * DTO转换
      */
@@ -1,31 +1,102 @@
 package com.example.student.service;
 
 import com.example.student.dto.CourseDTO;
+import com.example.student.dto.PageResponse;
 import com.example.student.dto.StudentDTO;
+import com.example.student.dto.SuggestionDTO;
 import com.example.student.entity.Course;
 import com.example.student.entity.Student;
 import com.example.student.repository.CourseRepository;
 import com.example.student.repository.StudentRepository;
+import com.example.student.search.KeywordTracker;
+import com.example.student.search.LikeSearchBackend;
+import com.example.student.search.ScoredSlice;
+import com.example.student.search.SearchCache;
+import com.example.student.search.SearchBackend;
+import com.example.student.search.SuggestionIndex;
+import com.example.student.utils.CursorUtil;
+import com.fasterxml.jackson.core.type.TypeReference;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 @Transactional(readOnly = true)
 public class SearchService {
     private final CourseRepository courseRepository;
     private final StudentRepository studentRepository;
+    private final List<SearchBackend> searchBackends;
+    private final LikeSearchBackend likeSearchBackend;
+    private final SuggestionIndex suggestionIndex;
+    private final KeywordTracker keywordTracker;
+    private final PlatformTransactionManager transactionManager;
+    private final CountService countService;
+    private final SearchCache searchCache;
+    private final ClassDirectory classDirectory;
+    
+    /** 搜索后端：memory（内存倒排索引）| fulltext（MySQL 全文索引）| like（数据库 LIKE） */
+    @Value("${search.backend:memory}")
+    private String backendName;
+    
+    /** 全局搜索整体超时时间 */
+    @Value("${search.global.timeout-ms:800}")
+    private long globalTimeoutMs;
+    
+    /** 全局搜索并行线程数（每个请求占用两个线程，每个线程占用一个数据库连接） */
+    @Value("${search.global.threads:16}")
+    private int globalThreads;
+    
+    @Value("${search.global.queue-capacity:200}")
+    private int globalQueueCapacity;
+    
+    private static final String[] COURSE_NAMESPACE = {SearchCache.COURSES};
+    private static final String[] STUDENT_NAMESPACE = {SearchCache.STUDENTS};
+    private static final String[] GLOBAL_NAMESPACES = {SearchCache.COURSES, SearchCache.STUDENTS};
+    
+    private static final TypeReference<PageResponse<CourseDTO>> COURSE_PAGE = new TypeReference<>() {
+    };
+    private static final TypeReference<PageResponse<StudentDTO>> STUDENT_PAGE = new TypeReference<>() {
+    };
+    private static final TypeReference<SearchResultDTO> GLOBAL_RESULT = new TypeReference<>() {
+    };
+    
+    /** 关键词为空时的游标来源（按 id 顺序列出全部） */
+    private static final String LIST_ALL = "all";
+    
+    private ThreadPoolExecutor globalSearchExecutor;
+    private TransactionTemplate readOnlyTransaction;
+    /** 缓存未命中时的查询事务（公开的搜索方法本身不开启事务，缓存命中时不占用数据库连接） */
+    private TransactionTemplate searchTransaction;
     
     /**
-     * 搜索课程 - 使用数据库LIKE查询（高效）
-     * 查询: name LIKE ?% OR code LIKE ?% OR description LIKE ?%
+     * 搜索课程 - 匹配名称、代码、简介，按相关度排序
      */
     public Page<CourseDTO> searchCourses(String keyword, Pageable pageable) {
         if (keyword == null || keyword.trim().isEmpty()) {
@@ -33,13 +104,12 @@ public class SearchService {
                     .map(this::convertCourseToDTO);
         }
         
-        return courseRepository.findByKeyword(keyword, pageable)
+        return backend().searchCourses(keyword.trim(), pageable)
                 .map(this::convertCourseToDTO);
     }
     
     /**
-     * 搜索学生 - 使用数据库LIKE查询（高效）
-     * 查询: name LIKE ?% OR studentId LIKE ?% OR email LIKE ?% OR phone LIKE ?%
+     * 搜索学生 - 匹配姓名、学号、邮箱、电话，按相关度排序
      */
     public Page<StudentDTO> searchStudents(String keyword, Pageable pageable) {
         if (keyword == null || keyword.trim().isEmpty()) {
@@ -47,52 +117,310 @@ public class SearchService {
                     .map(this::convertStudentToDTO);
         }
         
-        return studentRepository.findByKeyword(keyword, pageable)
+        return backend().searchStudents(keyword.trim(), pageable)
                 .map(this::convertStudentToDTO);
     }
     
     /**
-     * 全局搜索（课程+学生） - 使用数据库LIKE查询（高效）
+     * 搜索课程并按 countMode 统计总数（内存索引的总数随搜索得出，LIKE 后端按 CountService 策略统计）
+     * 结果经两级缓存（SearchCache），课程变更后失效
      */
-    public SearchResultDTO globalSearch(String keyword, Pageable pageable) {
-        SearchResultDTO result = new SearchResultDTO();
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PageResponse<CourseDTO> searchCourses(String keyword, Pageable pageable, CountService.Mode countMode) {
+        String key = "courses:" + backend().getName() + ":" + countMode + ":" + pageable.getPageNumber() + ":"
+                + pageable.getPageSize() + ":" + searchCache.normalize(keyword);
+        return searchCache.get(COURSE_NAMESPACE, key, COURSE_PAGE,
+                () -> searchTransaction.execute(status -> loadCourses(keyword, pageable, countMode)));
+    }
+    
+    /**
+     * 搜索学生并按 countMode 统计总数，结果经两级缓存，学生变更后失效
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PageResponse<StudentDTO> searchStudents(String keyword, Pageable pageable, CountService.Mode countMode) {
+        String key = "students:" + backend().getName() + ":" + countMode + ":" + pageable.getPageNumber() + ":"
+                + pageable.getPageSize() + ":" + searchCache.normalize(keyword);
+        return searchCache.get(STUDENT_NAMESPACE, key, STUDENT_PAGE,
+                () -> searchTransaction.execute(status -> loadStudents(keyword, pageable, countMode)));
+    }
+    
+    private PageResponse<CourseDTO> loadCourses(String keyword, Pageable pageable, CountService.Mode countMode) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return countService.page(CountService.COURSES, null, pageable, countMode,
+                    courseRepository::findAllSlice, courseRepository::count, this::convertCourseToDTO);
+        }
+        String trimmed = keyword.trim();
+        SearchBackend backend = backend();
+        return countService.page(CountService.COURSES, CountService.filterKey("search", trimmed), pageable, countMode,
+                p -> backend.searchCoursesSlice(trimmed, p), () -> backend.countCourses(trimmed),
+                this::convertCourseToDTO);
+    }
+    
+    private PageResponse<StudentDTO> loadStudents(String keyword, Pageable pageable, CountService.Mode countMode) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return countService.page(CountService.STUDENTS, null, pageable, countMode,
+                    studentRepository::findAllSlice, studentRepository::count, this::convertStudentToDTO);
+        }
+        String trimmed = keyword.trim();
+        SearchBackend backend = backend();
+        return countService.page(CountService.STUDENTS, CountService.filterKey("search", trimmed), pageable, countMode,
+                p -> backend.searchStudentsSlice(trimmed, p), () -> backend.countStudents(trimmed),
+                this::convertStudentToDTO);
+    }
+    
+    /**
+     * 游标分页搜索课程：游标编码 (后端名称, 相关度得分, id)，深翻页不随偏移量变慢；
+     * 内存索引顺带返回总数，其余后端不统计总数。结果经两级缓存
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PageResponse<CourseDTO> searchCoursesByCursor(String keyword, String cursor, int size) {
+        String key = "courses_cursor:" + backend().getName() + ":" + size + ":" + cursor + ":"
+                + searchCache.normalize(keyword);
+        return searchCache.get(COURSE_NAMESPACE, key, COURSE_PAGE,
+                () -> searchTransaction.execute(status -> loadCoursesByCursor(keyword, cursor, size)));
+    }
+    
+    /**
+     * 游标分页搜索学生，结果经两级缓存
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PageResponse<StudentDTO> searchStudentsByCursor(String keyword, String cursor, int size) {
+        String key = "students_cursor:" + backend().getName() + ":" + size + ":" + cursor + ":"
+                + searchCache.normalize(keyword);
+        return searchCache.get(STUDENT_NAMESPACE, key, STUDENT_PAGE,
+                () -> searchTransaction.execute(status -> loadStudentsByCursor(keyword, cursor, size)));
+    }
+    
+    private PageResponse<CourseDTO> loadCoursesByCursor(String keyword, String cursor, int size) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return pageByCursor(LIST_ALL, cursor, size, (score, lastId, limit) -> ScoredSlice.unscored(
+                    courseRepository.findByFiltersAfter(null, null, lastId, PageRequest.of(0, limit + 1)), limit),
+                    this::convertCourseToDTO, Course::getId);
+        }
+        String trimmed = keyword.trim();
+        SearchBackend backend = backend();
+        return pageByCursor(backend.getName(), cursor, size,
+                (score, lastId, limit) -> backend.searchCoursesAfter(trimmed, score, lastId, limit),
+                this::convertCourseToDTO, Course::getId);
+    }
+    
+    private PageResponse<StudentDTO> loadStudentsByCursor(String keyword, String cursor, int size) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return pageByCursor(LIST_ALL, cursor, size, (score, lastId, limit) -> ScoredSlice.unscored(
+                    studentRepository.findByFiltersAfter(null, null, null, lastId, PageRequest.of(0, limit + 1)), limit),
+                    this::convertStudentToDTO, Student::getId);
+        }
+        String trimmed = keyword.trim();
+        SearchBackend backend = backend();
+        return pageByCursor(backend.getName(), cursor, size,
+                (score, lastId, limit) -> backend.searchStudentsAfter(trimmed, score, lastId, limit),
+                this::convertStudentToDTO, Student::getId);
+    }
+    
+    /**
+     * 解码游标并取下一页。游标记录生成它的后端，后端切换（如索引构建完成）后
+     * 排序规则不同，旧游标作废，要求前端从第一页重新搜索
+     */
+    private <E, T> PageResponse<T> pageByCursor(String source, String cursor, int size, CursorSearch<E> search,
+                                                Function<E, T> converter, Function<E, Long> idGetter) {
+        int afterScore = Integer.MAX_VALUE;
+        long afterId = 0;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = CursorUtil.decode(cursor, 3);
+            if (!parts[0].equals(source)) {
+                throw new IllegalArgumentException("分页游标已失效，请重新搜索");
+            }
+            try {
+                afterScore = Integer.parseInt(parts[1]);
+                afterId = Long.parseLong(parts[2]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+        }
         
+        ScoredSlice<E> slice = search.after(afterScore, afterId, size);
+        List<E> content = slice.getContent();
+        PageResponse<T> response = new PageResponse<>(slice.getTotal(), null, size,
+                content.stream().map(converter).collect(Collectors.toList()));
+        // 本页命中在读取实体前全部被删除时无法生成游标，视为已到末页
+        boolean hasNext = slice.isHasNext() && !content.isEmpty();
+        response.setHasNext(hasNext);
+        if (hasNext) {
+            int last = content.size() - 1;
+            response.setNextCursor(CursorUtil.encode(source, slice.getScores().get(last),
+                    idGetter.apply(content.get(last))));
+        }
+        return response;
+    }
+    
+    /**
+     * 当前生效的搜索后端：配置的后端未就绪（如索引构建中）时回退到数据库 LIKE
+     */
+    private SearchBackend backend() {
+        for (SearchBackend backend : searchBackends) {
+            if (backend.getName().equals(backendName) && backend.isReady()) {
+                return backend;
+            }
+        }
+        return likeSearchBackend;
+    }
+    
+    /**
+     * 搜索框联想：课程名称/拼音/代码、学生姓名/学号前缀匹配，按热度取前 limit 条
+     * 走内存字典树，不开启事务；索引构建完成前回退到数据库，各取一小页课程和学生
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<SuggestionDTO> suggest(String keyword, int limit) {
         if (keyword == null || keyword.trim().isEmpty()) {
-            keyword = "";
+            return new ArrayList<>();
+        }
+        int size = Math.max(1, Math.min(limit, SuggestionIndex.MAX_LIMIT));
+        if (suggestionIndex.isReady()) {
+            return suggestionIndex.suggest(keyword.trim(), size);
         }
         
-        // 搜索课程 - 数据库查询
-        Page<CourseDTO> coursePage = searchCourses(keyword, pageable);
-        result.setCourses(coursePage.getContent());
-        result.setCourseTotal(coursePage.getTotalElements());
+        List<SuggestionDTO> result = new ArrayList<>();
+        Pageable firstPage = PageRequest.of(0, size);
+        for (Course course : likeSearchBackend.searchCourses(keyword.trim(), firstPage)) {
+            result.add(new SuggestionDTO("course", course.getId(), course.getName(), course.getCode()));
+        }
+        for (Student student : likeSearchBackend.searchStudents(keyword.trim(), firstPage)) {
+            if (result.size() >= size) {
+                break;
+            }
+            result.add(new SuggestionDTO("student", student.getId(), student.getName(), student.getStudentId()));
+        }
+        return result;
+    }
+    
+    /**
+     * 全局搜索（课程+学生）
+     *
+     * 课程和学生两路搜索在有界线程池中并行执行，各自开启只读事务；整体受 search.global.timeout-ms 限制，
+     * 超时、出错或线程池已满的一路返回空结果并置 partial = true。本方法自身不开启事务，等待期间不占用数据库连接。
+     *
+     * 完整结果经两级缓存，课程或学生变更后失效；部分结果不缓存。
+     *
+     * @param exactTotal false 时不执行 COUNT，总数为估计值（已知的下限），totalExact = false
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SearchResultDTO globalSearch(String keyword, Pageable pageable, boolean exactTotal) {
+        String key = "global:" + backend().getName() + ":" + exactTotal + ":" + pageable.getPageNumber() + ":"
+                + pageable.getPageSize() + ":" + searchCache.normalize(keyword);
+        return searchCache.get(GLOBAL_NAMESPACES, key, GLOBAL_RESULT,
+                () -> loadGlobal(keyword, pageable, exactTotal), result -> !result.isPartial());
+    }
+    
+    private SearchResultDTO loadGlobal(String keyword, Pageable pageable, boolean exactTotal) {
+        String trimmed = keyword == null ? "" : keyword.trim();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(globalTimeoutMs);
         
-        // 搜索学生 - 数据库查询
-        Page<StudentDTO> studentPage = searchStudents(keyword, pageable);
-        result.setStudents(studentPage.getContent());
-        result.setStudentTotal(studentPage.getTotalElements());
+        Future<Branch<CourseDTO>> courses = submit(() ->
+                readOnlyTransaction.execute(status -> exactTotal || trimmed.isEmpty()
+                        ? Branch.of(searchCourses(trimmed, pageable), pageable)
+                        : Branch.of(backend().searchCoursesSlice(trimmed, pageable).map(this::convertCourseToDTO), pageable)),
+                "课程");
+        Future<Branch<StudentDTO>> students = submit(() ->
+                readOnlyTransaction.execute(status -> exactTotal || trimmed.isEmpty()
+                        ? Branch.of(searchStudents(trimmed, pageable), pageable)
+                        : Branch.of(backend().searchStudentsSlice(trimmed, pageable).map(this::convertStudentToDTO), pageable)),
+                "学生");
         
-        result.setTotal(coursePage.getTotalElements() + studentPage.getTotalElements());
+        Branch<CourseDTO> courseBranch = await(courses, deadline, "课程");
+        Branch<StudentDTO> studentBranch = await(students, deadline, "学生");
         
+        SearchResultDTO result = new SearchResultDTO();
+        result.setCourses(courseBranch.records);
+        result.setCourseTotal(courseBranch.total);
+        result.setStudents(studentBranch.records);
+        result.setStudentTotal(studentBranch.total);
+        result.setTotal(courseBranch.total + studentBranch.total);
+        result.setPartial(courseBranch.failed || studentBranch.failed);
+        result.setTotalExact(courseBranch.exact && studentBranch.exact);
         return result;
     }
     
     /**
-     * 获取热门搜索关键词（基于课程）
+     * 提交一路搜索；线程池和队列都已满时不再排队，该路直接返回空结果（整体标记为部分结果）
      */
-    public List<String> getPopularKeywords(int limit) {
+    private <T> Future<Branch<T>> submit(Callable<Branch<T>> branch, String name) {
         try {
-            List<Course> courses = courseRepository.findAll();
-            return courses.stream()
-                    .filter(course -> course != null && course.getName() != null && !course.getName().trim().isEmpty())
-                    .map(Course::getName)
-                    .distinct()
-                    .limit(Math.max(1, limit))
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            return new ArrayList<>();
+            return globalSearchExecutor.submit(branch);
+        } catch (RejectedExecutionException e) {
+            log.warn("全局搜索线程池已满，跳过{}分支并返回部分结果", name);
+            return null;
+        }
+    }
+    
+    /**
+     * 在截止时间前等待一路搜索结果，超时或失败时返回空结果
+     * 超时后 cancel(true) 会中断执行中的分支线程，释放其数据库连接
+     */
+    private <T> Branch<T> await(Future<Branch<T>> future, long deadline, String name) {
+        if (future == null) {
+            return Branch.failed();
+        }
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("全局搜索{}分支超时（{} ms），返回部分结果", name, globalTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("全局搜索{}分支失败: {}", name, e.getCause().getMessage(), e.getCause());
+        }
+        return Branch.failed();
+    }
+    
+    @PostConstruct
+    void initGlobalSearch() {
+        searchTransaction = new TransactionTemplate(transactionManager);
+        searchTransaction.setReadOnly(true);
+        
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        // 事务超时会下发为查询超时，分支超时后数据库端的查询也会随之中止（精度为秒）
+        readOnlyTransaction.setTimeout((int) Math.max(1, (globalTimeoutMs + 999) / 1000));
+        
+        AtomicInteger sequence = new AtomicInteger();
+        // 队列满时拒绝提交，由 submit 返回部分结果：调用线程不代为执行，避免超出整体超时
+        globalSearchExecutor = new ThreadPoolExecutor(globalThreads, globalThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(globalQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "global-search-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        globalSearchExecutor.allowCoreThreadTimeOut(true);
+    }
+    
+    @PreDestroy
+    void shutdownGlobalSearch() {
+        globalSearchExecutor.shutdownNow();
+    }
+    
+    /**
+     * 记录用户提交的搜索关键词（内存缓冲，定时汇总，不开启事务）
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void recordKeyword(String keyword) {
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            keywordTracker.record(keyword);
         }
     }
     
+    /**
+     * 获取热门搜索关键词（按用户实际搜索次数）
+     * @param window 统计窗口：1h | 24h | 7d
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<String> getPopularKeywords(int limit, String window) {
+        return keywordTracker.top(Math.max(1, Math.min(limit, 100)), window);
+    }
+    
     /**
      * Course DTO转换
      */
@@ -122,9 +450,51 @@ public class SearchService {
         dto.setEmail(student.getEmail());
         dto.setPhone(student.getPhone());
         dto.setStudentId(student.getStudentId());
+        dto.setClassId(student.getClassId());
+        dto.setClassName(classDirectory.nameOf(student.getClassId()));
         return dto;
     }
     
+    /**
+     * 一次游标分页搜索：取排在 (afterScore, afterId) 之后的最多 limit 条
+     */
+    @FunctionalInterface
+    private interface CursorSearch<E> {
+        ScoredSlice<E> after(int afterScore, long afterId, int limit);
+    }
+    
+    /**
+     * 全局搜索中一路的结果
+     */
+    private static class Branch<T> {
+        private final List<T> records;
+        private final long total;
+        private final boolean exact;
+        private final boolean failed;
+        
+        private Branch(List<T> records, long total, boolean exact, boolean failed) {
+            this.records = records;
+            this.total = total;
+            this.exact = exact;
+            this.failed = failed;
+        }
+        
+        /**
+         * Page 取精确总数；Slice 以 偏移量 + 本页条数（还有下一页时再加 1）作为估计
+         */
+        static <T> Branch<T> of(Slice<T> slice, Pageable pageable) {
+            if (slice instanceof Page) {
+                return new Branch<>(slice.getContent(), ((Page<T>) slice).getTotalElements(), true, false);
+            }
+            long estimate = pageable.getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+            return new Branch<>(slice.getContent(), estimate, false, false);
+        }
+        
+        static <T> Branch<T> failed() {
+            return new Branch<>(new ArrayList<>(), 0, false, true);
+        }
+    }
+    
     /**
      * 搜索结果DTO
      */
@@ -134,6 +504,10 @@ public class SearchService {
         private List<StudentDTO> students = new ArrayList<>();
         private Long studentTotal = 0L;
         private Long total = 0L;
+        /** 是否有分支超时或失败（结果不完整） */
+        private boolean partial;
+        /** 总数是否精确（不要求精确总数时为估计值） */
+        private boolean totalExact = true;
         
         public List<CourseDTO> getCourses() {
             return courses;
@@ -174,5 +548,21 @@ public class SearchService {
         public void setTotal(Long total) {
             this.total = total;
         }
+        
+        public boolean isPartial() {
+            return partial;
+        }
+        
+        public void setPartial(boolean partial) {
+            this.partial = partial;
+        }
+        
+        public boolean isTotalExact() {
+            return totalExact;
+        }
+        
+        public void setTotalExact(boolean totalExact) {
+            this.totalExact = totalExact;
+        }
     }
 }
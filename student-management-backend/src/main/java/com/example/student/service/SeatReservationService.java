@@ -0,0 +1,42 @@
+package com.example.student.service;
+
+import com.example.student.repository.CourseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 课程座位预留
+ * 
+ * 通过单条条件 UPDATE（enrolled < capacity）原子地占座/释放座位，
+ * 不再"读取 enrolled -> 比较 -> 回写整行"，并发选课时不会超卖。
+ * 调用方应先占座、成功后再插入选课记录：先插入会因外键检查持有课程行共享锁，
+ * 随后的 UPDATE 需要升级为排他锁，并发时容易死锁。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatReservationService {
+    private final CourseRepository courseRepository;
+    
+    /**
+     * 尝试占用一个座位
+     * @return true 占座成功；false 课程已满或不存在
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean tryReserve(Long courseId) {
+        return courseRepository.reserveSeat(courseId) == 1;
+    }
+    
+    /**
+     * 释放一个座位
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Long courseId) {
+        if (courseRepository.releaseSeat(courseId) == 0) {
+            log.warn("释放座位未生效（课程不存在或已选人数为0）: courseId={}", courseId);
+        }
+    }
+}
@@ -1,26 +1,34 @@
 package com.example.student.service;
 
+import com.example.student.dto.PageResponse;
 import com.example.student.dto.StudentCourseDTO;
 import com.example.student.entity.Course;
 import com.example.student.entity.Student;
 import com.example.student.entity.StudentCourse;
-import com.example.student.entity.User;
 import com.example.student.repository.CourseRepository;
 import com.example.student.repository.StudentCourseRepository;
 import com.example.student.repository.StudentRepository;
 import com.example.student.repository.UserRepository;
+import com.example.student.utils.CursorUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,6 +39,9 @@ public class StudentCourseService {
     private final CourseRepository courseRepository;
     private final StudentRepository studentRepository;
     private final UserRepository userRepository;
+    private final SeatReservationService seatReservationService;
+    private final TimetableIndex timetableIndex;
+    private final WaitlistService waitlistService;
     
     /**
      * 优先使用显式 studentId；否则尝试从登录用户名映射到学生学号；失败则返回 null。
@@ -68,25 +79,39 @@ public class StudentCourseService {
             throw new IllegalArgumentException("学生已选过该课程");
         }
         
-        // 检查课程容量
+        // 检查上课时间是否与已选课程冲突
+        Long conflictCourseId = timetableIndex.findConflict(studentId, courseId);
+        if (conflictCourseId != null) {
+            throw new IllegalArgumentException("与已选课程（ID: " + conflictCourseId + "）上课时间冲突");
+        }
+        
+        // 检查课程容量（快速失败，最终以原子占座结果为准）
         if (course.getEnrolled() >= course.getCapacity()) {
             throw new IllegalArgumentException("课程已满，无法选择");
         }
         
-        // 创建选课记录
-        StudentCourse studentCourse = new StudentCourse();
+        // 原子占座：先对课程行加排他锁再插入选课记录。
+        // 若先插入，外键检查会先持有课程行的共享锁，随后的 UPDATE 需升级为排他锁，并发时互相等待形成死锁
+        if (!seatReservationService.tryReserve(courseId)) {
+            throw new IllegalArgumentException("课程已满，无法选择");
+        }
+        
+        // 创建选课记录（占座成功后才写入；失败时事务回滚，座位随之释放）。
+        // 已有非活跃记录（已退课/已完成）时重新激活，(student_id, course_id) 唯一，不能再插入一条；
+        // 重新选课从头开始，清除上一次的成绩
+        StudentCourse studentCourse = existing.orElseGet(StudentCourse::new);
         studentCourse.setStudentId(studentId);
         studentCourse.setCourseId(courseId);
         studentCourse.setEnrollDate(LocalDateTime.now());
         studentCourse.setStatus("active");
+        studentCourse.setGrade(null);
         
         StudentCourse saved = studentCourseRepository.save(studentCourse);
         
-        // 更新课程已选人数
+        // 占座后持久化上下文已清空，course 为游离对象，这里只修正返回给前端的人数快照
         course.setEnrolled(course.getEnrolled() + 1);
-        courseRepository.save(course);
         
-        return convertToDTO(saved, course);
+        return convertToDTO(saved, course, resolveTeacherName(course));
     }
     
     /**
@@ -114,11 +139,10 @@ public class StudentCourseService {
         // 直接删除选课记录（而不是标记为 dropped）
         studentCourseRepository.delete(studentCourse);
         
-        // 更新课程的已选人数
-        Course course = courseRepository.findById(studentCourse.getCourseId())
-                .orElseThrow(() -> new IllegalArgumentException("课程不存在"));
-        course.setEnrolled(Math.max(0, course.getEnrolled() - 1));
-        courseRepository.save(course);
+        // 空出的座位直接转给候补队首（已选人数不变）；无人候补时才释放座位（原子 -1，不回写整行）
+        if (waitlistService.promoteNext(studentCourse.getCourseId()) == null) {
+            seatReservationService.release(studentCourse.getCourseId());
+        }
     }
     
     /**
@@ -126,10 +150,7 @@ public class StudentCourseService {
      */
     public Page<StudentCourseDTO> getEnrolledCourses(Long studentId, String status, Pageable pageable) {
         Page<StudentCourse> page = studentCourseRepository.findByStudentIdAndStatus(studentId, status, pageable);
-        return page.map(sc -> {
-            Course course = courseRepository.findById(sc.getCourseId()).orElse(null);
-            return convertToDTO(sc, course);
-        });
+        return new PageImpl<>(convertAll(page.getContent()), pageable, page.getTotalElements());
     }
     
     /**
@@ -137,55 +158,34 @@ public class StudentCourseService {
      */
     public List<StudentCourseDTO> getActiveEnrollments(Long studentId) {
         List<StudentCourse> enrollments = studentCourseRepository.findActiveEnrollmentsByStudentId(studentId);
-        return enrollments.stream()
-                .map(sc -> {
-                    Course course = courseRepository.findById(sc.getCourseId()).orElse(null);
-                    return convertToDTO(sc, course);
-                })
-                .collect(Collectors.toList());
+        return convertAll(enrollments);
     }
     
     /**
-     * 获取可选课程列表（学生未选过的课程）
-     * 修复：先获取所有可用课程，再进行分页
+     * 获取可选课程列表（学生未选过的开放课程）
+     * 反连接、状态过滤、教师连接和分页均由数据库完成
      */
+    @Transactional(readOnly = true)
     public Page<StudentCourseDTO> getAvailableCourses(Long studentId, Pageable pageable) {
-        // 获取学生已选的课程ID（只包括活跃的选课，不包括已退课和已完成的）
-        List<Long> enrolledCourseIds = studentCourseRepository.findByStudentId(studentId)
-                .stream()
-                .filter(sc -> "active".equals(sc.getStatus()))
-                .map(StudentCourse::getCourseId)
-                .collect(Collectors.toList());
-        
-        // 获取所有开放课程（不分页）
-        List<Course> allCourses = courseRepository.findAll();
-        
-        // 过滤出可选课程（学生未选且课程状态为 open）
-        List<StudentCourseDTO> availableList = allCourses.stream()
-                .filter(course -> !enrolledCourseIds.contains(course.getId()) && "open".equals(course.getStatus()))
-                .map(this::convertCourseToDTO)
-                .collect(Collectors.toList());
-        
-        // 手动分页：根据 pageable 的 pageNumber 和 pageSize 进行分页
-        int pageNumber = pageable.getPageNumber();
-        int pageSize = pageable.getPageSize();
-        int start = pageNumber * pageSize;
-        int end = Math.min(start + pageSize, availableList.size());
-        
-        // 确保 start 不超过可用列表大小，避免 IndexOutOfBoundsException
-        if (start >= availableList.size()) {
-            return new PageImpl<>(new ArrayList<>(), pageable, availableList.size());
-        }
-        
-        List<StudentCourseDTO> paged = availableList.subList(start, end);
-        
-        return new PageImpl<>(paged, pageable, availableList.size());
+        return getAvailableCourses(studentId, false, pageable);
+    }
+    
+    /**
+     * 获取可选课程列表，excludeConflicts 为 true 时过滤掉与学生课表时间冲突的课程
+     */
+    @Transactional(readOnly = true)
+    public Page<StudentCourseDTO> getAvailableCourses(Long studentId, boolean excludeConflicts, Pageable pageable) {
+        Set<Long> conflicts = excludeConflicts ? timetableIndex.findConflictingCourses(studentId) : Set.of();
+        Page<Object[]> page = conflicts.isEmpty()
+                ? courseRepository.findAvailableForStudent(studentId, pageable)
+                : courseRepository.findAvailableForStudentExcluding(studentId, conflicts, pageable);
+        return page.map(row -> convertCourseToDTO((Course) row[0], (String) row[1]));
     }
     
     /**
      * 将课程实体转换为选课 DTO（用于可选课程列表）
      */
-    private StudentCourseDTO convertCourseToDTO(Course course) {
+    private StudentCourseDTO convertCourseToDTO(Course course, String teacherName) {
         StudentCourseDTO dto = new StudentCourseDTO();
         dto.setId(course.getId());
         dto.setCourseId(course.getId());
@@ -196,14 +196,7 @@ public class StudentCourseService {
         dto.setLocation(course.getLocation());
         dto.setCredits(course.getCredits());
         dto.setStatus(course.getStatus());
-        
-        // 获取教师信息
-        if (course.getTeacherId() != null) {
-            User teacher = userRepository.findById(course.getTeacherId()).orElse(null);
-            dto.setTeacherName(teacher != null ? teacher.getUsername() : "N/A");
-        } else {
-            dto.setTeacherName("N/A");
-        }
+        dto.setTeacherName(teacherName != null ? teacherName : "N/A");
         
         // 初始化附件和时间表为空数组（而不是 null）
         dto.setSchedules(Collections.emptyList());
@@ -215,24 +208,45 @@ public class StudentCourseService {
     }
     
     /**
-     * 获取学生选课历史（所有状态）
+     * 获取学生选课历史（所有状态），按选课时间倒序，分页在数据库完成
      */
+    @Transactional(readOnly = true)
     public Page<StudentCourseDTO> getEnrollmentHistory(Long studentId, Pageable pageable) {
-        List<StudentCourse> allEnrollments = studentCourseRepository.findByStudentId(studentId);
-        List<StudentCourseDTO> dtos = allEnrollments.stream()
-                .map(sc -> {
-                    Course course = courseRepository.findById(sc.getCourseId()).orElse(null);
-                    return convertToDTO(sc, course);
-                })
-                .collect(Collectors.toList());
-        
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), dtos.size());
-        if (start >= dtos.size()) {
-            return new PageImpl<>(List.of(), pageable, dtos.size());
+        Page<StudentCourse> page = studentCourseRepository.findHistoryByStudentId(studentId, pageable);
+        return new PageImpl<>(convertAll(page.getContent()), pageable, page.getTotalElements());
+    }
+    
+    /**
+     * 获取学生选课历史（游标分页）
+     * 游标编码上一页最后一条的 (enrollDate, id)，深翻页与首页代价相同，不返回总数；
+     * 没有选课时间的记录排在最后，游标中时间为空，之后按 id 继续
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<StudentCourseDTO> getEnrollmentHistoryByCursor(Long studentId, String cursor, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("每页条数必须大于0");
         }
-        List<StudentCourseDTO> pageContent = dtos.subList(start, end);
-        return new PageImpl<>(pageContent, pageable, dtos.size());
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<StudentCourse> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = studentCourseRepository.findHistoryHead(studentId, limit);
+        } else {
+            String[] parts = CursorUtil.decode(cursor, 2);
+            LocalDateTime enrollDate;
+            Long lastId;
+            try {
+                enrollDate = parts[0].isEmpty() ? null : LocalDateTime.parse(parts[0]);
+                lastId = Long.parseLong(parts[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+            rows = enrollDate == null
+                    ? studentCourseRepository.findUndatedHistoryBefore(studentId, lastId, limit)
+                    : studentCourseRepository.findHistoryBefore(studentId, enrollDate, lastId, limit);
+        }
+        
+        return CursorUtil.toPage(rows, size, this::convertAll,
+                last -> CursorUtil.encode(last.getEnrollDate(), last.getId()));
     }
     
     /**
@@ -245,7 +259,7 @@ public class StudentCourseService {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new IllegalArgumentException("课程不存在"));
         
-        return convertToDTO(studentCourse, course);
+        return convertToDTO(studentCourse, course, resolveTeacherName(course));
     }
     
     /**
@@ -270,28 +284,58 @@ public class StudentCourseService {
         studentCourseRepository.save(studentCourse);
     }
 
-    public String exportEnrollmentsCsv(Long studentId) {
-        List<StudentCourseDTO> data = getEnrolledCourses(studentId, "active", Pageable.unpaged()).getContent();
-        StringBuilder sb = new StringBuilder();
-        sb.append("id,courseId,courseName,status,enrollDate\n");
-        for (StudentCourseDTO dto : data) {
-            sb.append(dto.getId()).append(',')
-                    .append(dto.getCourseId()).append(',')
-                    .append(safe(dto.getCourseName())).append(',')
-                    .append(safe(dto.getStatus())).append(',')
-                    .append(dto.getEnrollDate()).append('\n');
+    /**
+     * 批量转换选课记录：一页内的课程和教师各用一次 IN 查询解析，避免逐行 findById
+     */
+    private List<StudentCourseDTO> convertAll(List<StudentCourse> enrollments) {
+        if (enrollments.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        Set<Long> courseIds = enrollments.stream()
+                .map(StudentCourse::getCourseId)
+                .collect(Collectors.toSet());
+        Map<Long, Course> courses = courseRepository.findAllById(courseIds).stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+        
+        Set<Long> teacherIds = courses.values().stream()
+                .map(Course::getTeacherId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, String> teacherNames = resolveTeacherNames(teacherIds);
+        
+        return enrollments.stream()
+                .map(sc -> {
+                    Course course = courses.get(sc.getCourseId());
+                    String teacherName = course != null && course.getTeacherId() != null
+                            ? teacherNames.get(course.getTeacherId()) : null;
+                    return convertToDTO(sc, course, teacherName);
+                })
+                .collect(Collectors.toList());
+    }
+    
+    private String resolveTeacherName(Course course) {
+        if (course == null || course.getTeacherId() == null) {
+            return null;
         }
-        return sb.toString();
+        return resolveTeacherNames(List.of(course.getTeacherId())).get(course.getTeacherId());
     }
     
-    private String safe(String v) {
-        return v == null ? "" : v.replace(',', ' ');
+    private Map<Long, String> resolveTeacherNames(Collection<Long> teacherIds) {
+        if (teacherIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, String> names = new HashMap<>();
+        for (Object[] row : userRepository.findUsernamesByIdIn(teacherIds)) {
+            names.put((Long) row[0], (String) row[1]);
+        }
+        return names;
     }
     
     /**
      * DTO转换助手
      */
-    private StudentCourseDTO convertToDTO(StudentCourse studentCourse, Course course) {
+    private StudentCourseDTO convertToDTO(StudentCourse studentCourse, Course course, String teacherName) {
         StudentCourseDTO dto = new StudentCourseDTO();
         dto.setId(studentCourse.getId());
         dto.setStudentId(studentCourse.getStudentId());
@@ -309,12 +353,7 @@ public class StudentCourseService {
             dto.setEnrolled(course.getEnrolled());
             dto.setCredits(course.getCredits());
             dto.setLocation(course.getLocation());
-            
-            // 获取教师名称
-            if (course.getTeacherId() != null) {
-                userRepository.findById(course.getTeacherId())
-                        .ifPresent(user -> dto.setTeacherName(user.getUsername()));
-            }
+            dto.setTeacherName(teacherName);
         }
         
         return dto;
@@ -0,0 +1,97 @@
+package com.example.student.service;
+
+import com.example.student.event.StudentChangedEvent;
+import com.example.student.repository.CourseRepository;
+import com.example.student.repository.StudentCourseRepository;
+import com.example.student.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * 学生级联删除（集合操作）
+ * 
+ * 按 CHUNK_SIZE 分批，每批一个事务，固定几条语句，与每个学生的选课数无关：
+ * 按课程 id 顺序锁定涉及的课程 → 按课程统计活跃选课 → 删除选课记录 → 各课程归还座位（每门课一条 UPDATE）
+ * → 删除候补记录 → 按班级统计并删除学生 → 班级学生数按增量更新。
+ * 归还座位的课程如有候补，在同一事务内递补。
+ * 
+ * 在已有事务中调用时（如删除单个学生）各批并入调用方事务。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StudentDeletionService {
+    
+    private static final int CHUNK_SIZE = 1000;
+    
+    private final StudentRepository studentRepository;
+    private final StudentCourseRepository studentCourseRepository;
+    private final CourseRepository courseRepository;
+    private final WaitlistService waitlistService;
+    private final ClassStudentCounter classStudentCounter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    
+    /**
+     * 删除学生及其选课、候补记录，返回实际删除的学生数（不存在的 id 忽略）
+     */
+    public int deleteStudents(Collection<Long> ids) {
+        List<Long> sorted = new ArrayList<>(new TreeSet<>(ids));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int deleted = 0;
+        for (int from = 0; from < sorted.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = sorted.subList(from, Math.min(from + CHUNK_SIZE, sorted.size()));
+            Integer count = transaction.execute(tx -> deleteChunk(chunk));
+            deleted += count == null ? 0 : count;
+        }
+        log.info("批量删除学生: 请求 {} 个, 删除 {} 个", sorted.size(), deleted);
+        return deleted;
+    }
+    
+    private int deleteChunk(List<Long> ids) {
+        List<Object[]> classCounts = studentRepository.countByClassIdForIds(ids);
+        if (classCounts.isEmpty()) {
+            return 0;
+        }
+        
+        // 先按课程 id 顺序对涉及的课程行加排他锁，再统计并删除选课记录、归还座位：
+        // 与选课一样先锁父行，避免删除/更新过程中从共享锁升级为排他锁造成死锁
+        List<Object[]> seatCounts = studentCourseRepository.countActiveByCourseForStudents(ids);
+        if (!seatCounts.isEmpty()) {
+            List<Long> courseIds = new ArrayList<>(seatCounts.size());
+            for (Object[] row : seatCounts) {
+                courseIds.add((Long) row[0]);
+            }
+            courseRepository.findAllByIdForUpdate(courseIds);
+            // 加锁前的统计可能已过期，加锁后重新统计
+            seatCounts = studentCourseRepository.countActiveByCourseForStudents(ids);
+        }
+        studentCourseRepository.deleteByStudentIdIn(ids);
+        for (Object[] row : seatCounts) {
+            courseRepository.releaseSeats((Long) row[0], ((Number) row[1]).intValue());
+        }
+        
+        waitlistService.removeStudents(ids);
+        int deleted = studentRepository.deleteByIdIn(ids);
+        
+        for (Object[] row : classCounts) {
+            classStudentCounter.add((Long) row[0], -((Number) row[1]).longValue());
+        }
+        // 空出的座位转给候补（此时被删学生已移出候补队列）
+        for (Object[] row : seatCounts) {
+            waitlistService.promoteIntoFreeSeats((Long) row[0]);
+        }
+        
+        eventPublisher.publishEvent(StudentChangedEvent.deleted(new ArrayList<>(ids)));
+        return deleted;
+    }
+}
@@ -0,0 +1,447 @@
+package com.example.student.service;
+
+import com.example.student.dto.StudentImportJobDTO;
+import com.example.student.entity.Class;
+import com.example.student.event.StudentChangedEvent;
+import com.example.student.repository.StudentRepository;
+import com.example.student.utils.ExportFormat;
+import com.example.student.utils.RowReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 学生批量导入（CSV / XLSX）
+ * 
+ * 上传后立即返回任务 ID，文件在后台线程中边解析边处理：每行先做本地校验（必填、长度、班级是否存在、
+ * 文件内学号重复），通过的行攒够 BATCH_SIZE 条后用一次 IN 查询校验学号是否已存在，再用一次
+ * JDBC 批量 INSERT 写入（配合连接串 rewriteBatchedStatements=true 合并为多值 INSERT）。
+ * 每批一个事务，中途失败时已提交的批次保留；各班级的 student_count 在导入结束时按增量各更新一次。
+ * 
+ * 任务进度保存在本地并同步到 Redis（student_import:job:{jobId}），任一节点都可查询。
+ * 
+ * 文件需带表头，按列名匹配（忽略大小写）：studentId、name、classId 或 className 必填，
+ * 可选 gender、age、phone、email、major、admissionYear、status，其余列忽略。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StudentImportService {
+    
+    private static final int BATCH_SIZE = 1000;
+    
+    private static final int MAX_ERRORS = 1000;
+    
+    private static final String JOB_PREFIX = "student_import:job:";
+    
+    private static final Set<String> STATUSES = Set.of("active", "inactive", "graduated");
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO students (student_id, name, class_id, gender, age, phone, email, major, admission_year, " +
+            "status, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final StudentRepository studentRepository;
+    private final ClassDirectory classDirectory;
+    private final ClassStudentCounter classStudentCounter;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${student-import.threads:2}")
+    private int threads;
+    
+    @Value("${student-import.job-ttl-hours:24}")
+    private long jobTtlHours;
+    
+    /** 本节点执行中或最近完成的任务 */
+    private final Map<String, StudentImportJobDTO> jobs = new ConcurrentHashMap<>();
+    
+    private ThreadPoolExecutor executor;
+    private TransactionTemplate transaction;
+    
+    @PostConstruct
+    void init() {
+        transaction = new TransactionTemplate(transactionManager);
+        AtomicInteger sequence = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(100),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "student-import-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * 提交导入任务：上传文件先落到临时文件（请求结束后上传流不可再读），返回初始任务状态
+     */
+    public StudentImportJobDTO submit(MultipartFile file) throws IOException {
+        ExportFormat format = ExportFormat.fromFilename(file.getOriginalFilename());
+        Path tempFile = Files.createTempFile("student-import-", "." + format.getExtension());
+        file.transferTo(tempFile);
+        
+        String jobId = UUID.randomUUID().toString();
+        ImportJob job = new ImportJob(jobId, file.getOriginalFilename());
+        StudentImportJobDTO pending = job.publish("pending");
+        try {
+            executor.execute(() -> run(job, tempFile, format));
+        } catch (RejectedExecutionException e) {
+            Files.deleteIfExists(tempFile);
+            jobs.remove(jobId);
+            throw new IllegalStateException("导入任务过多，请稍后重试");
+        }
+        log.info("学生导入任务已提交: {} ({})", jobId, file.getOriginalFilename());
+        // 任务可能已在后台线程开始甚至结束（结束后本地不再保留），直接返回提交时的状态快照
+        return pending;
+    }
+    
+    /**
+     * 查询任务进度，任务不存在或已过期返回 null
+     */
+    public StudentImportJobDTO getJob(String jobId) {
+        StudentImportJobDTO job = jobs.get(jobId);
+        if (job != null) {
+            return job;
+        }
+        try {
+            String json = redisTemplate.opsForValue().get(JOB_PREFIX + jobId);
+            return json == null ? null : objectMapper.readValue(json, StudentImportJobDTO.class);
+        } catch (Exception e) {
+            log.error("读取导入任务状态失败: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    private void run(ImportJob job, Path file, ExportFormat format) {
+        job.publish("running");
+        try (InputStream in = Files.newInputStream(file); RowReader reader = format.openReader(in)) {
+            reader.read(job::acceptRow);
+            if (job.columns == null) {
+                throw new IllegalArgumentException("文件为空或缺少表头");
+            }
+            job.flush();
+            job.publish("completed");
+            log.info("学生导入完成: {} 共 {} 行, 成功 {} 行, 失败 {} 行, 耗时 {} ms", job.jobId, job.processed,
+                    job.succeeded, job.failed, Duration.between(job.startedAt, LocalDateTime.now()).toMillis());
+        } catch (Exception e) {
+            log.error("学生导入失败: {} {}", job.jobId, e.getMessage(), e);
+            job.message = e.getMessage();
+            job.publish("failed");
+        } finally {
+            job.applyClassCounts();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("删除导入临时文件失败: {}", file);
+            }
+        }
+    }
+    
+    /**
+     * 一次导入任务的累积状态：表头映射、待写批次、计数、失败行和各班级新增人数
+     */
+    private class ImportJob {
+        private final String jobId;
+        private final String fileName;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final Timestamp now = Timestamp.valueOf(startedAt);
+        
+        private final Map<String, Long> classIdsByName = new HashMap<>();
+        private Map<String, Integer> columns;
+        private String[] header;
+        
+        /** 本次导入中已出现的学号（文件内去重） */
+        private final Set<String> seen = new HashSet<>();
+        private final List<Object[]> pending = new ArrayList<>(BATCH_SIZE);
+        private final List<Long> pendingRows = new ArrayList<>(BATCH_SIZE);
+        private final List<StudentImportJobDTO.RowError> errors = new ArrayList<>();
+        private final Map<Long, Long> classDeltas = new HashMap<>();
+        private long processed;
+        private long succeeded;
+        private long failed;
+        private String message;
+        
+        ImportJob(String jobId, String fileName) {
+            this.jobId = jobId;
+            this.fileName = fileName;
+            for (Class clazz : classDirectory.all()) {
+                classIdsByName.put(clazz.getName().trim(), clazz.getId());
+            }
+        }
+        
+        void acceptRow(long rowNumber, String[] cells) {
+            if (columns == null) {
+                parseHeader(cells);
+                return;
+            }
+            // 多工作表时每个工作表都带表头
+            if (Arrays.equals(cells, header) || isBlank(cells)) {
+                return;
+            }
+            processed++;
+            
+            String studentId = trim(cell(cells, "studentid"));
+            String name = trim(cell(cells, "name"));
+            String gender = trim(cell(cells, "gender"));
+            String phone = trim(cell(cells, "phone"));
+            String email = trim(cell(cells, "email"));
+            String major = trim(cell(cells, "major"));
+            String status = trim(cell(cells, "status"));
+            status = status == null ? "active" : status.toLowerCase(Locale.ROOT);
+            Long classId = resolveClass(cells);
+            
+            String error = null;
+            if (studentId == null || studentId.length() > 50) {
+                error = "学号不能为空且不能超过50个字符";
+            } else if (name == null || name.length() > 100) {
+                error = "姓名不能为空且不能超过100个字符";
+            } else if (classId == null) {
+                error = "班级不存在";
+            } else if (gender != null && gender.length() > 1) {
+                error = "性别无效: " + gender;
+            } else if (tooLong(phone, 20)) {
+                error = "电话不能超过20个字符";
+            } else if (tooLong(email, 100)) {
+                error = "邮箱不能超过100个字符";
+            } else if (tooLong(major, 100)) {
+                error = "专业不能超过100个字符";
+            } else if (!STATUSES.contains(status)) {
+                error = "无效的状态: " + status;
+            } else if (!seen.add(studentId)) {
+                error = "文件中学号重复";
+            }
+            Integer age = null;
+            Integer admissionYear = null;
+            if (error == null) {
+                try {
+                    age = parseInt(cell(cells, "age"));
+                    admissionYear = parseInt(cell(cells, "admissionyear"));
+                } catch (NumberFormatException e) {
+                    error = "年龄或入学年份不是整数";
+                }
+            }
+            if (error != null) {
+                reject(rowNumber, studentId, error);
+                return;
+            }
+            
+            pending.add(new Object[]{studentId, name, classId, gender, age, phone, email, major,
+                    admissionYear, status, now, now});
+            pendingRows.add(rowNumber);
+            if (pending.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+        
+        /**
+         * 写入当前批次：一次 IN 查询剔除已存在的学号，其余一次批量 INSERT，同一事务内发布变更事件
+         */
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<String> studentIds = new ArrayList<>(pending.size());
+            for (Object[] row : pending) {
+                studentIds.add((String) row[0]);
+            }
+            Set<String> existing = new HashSet<>(studentRepository.findExistingStudentIds(studentIds));
+            
+            List<Object[]> rows = new ArrayList<>(pending.size());
+            List<Long> rowNumbers = new ArrayList<>(pending.size());
+            for (int i = 0; i < pending.size(); i++) {
+                Object[] row = pending.get(i);
+                if (existing.contains(row[0])) {
+                    reject(pendingRows.get(i), (String) row[0], "学号已存在");
+                } else {
+                    rows.add(row);
+                    rowNumbers.add(pendingRows.get(i));
+                }
+            }
+            
+            if (!rows.isEmpty()) {
+                try {
+                    insert(rows);
+                } catch (DataIntegrityViolationException e) {
+                    // 整批已回滚（如校验与写入之间学号被并发写入），逐行重试，只有出错的行记为失败
+                    log.warn("导入批次写入失败，改为逐行写入: {} {}", jobId, e.getMessage());
+                    for (int i = 0; i < rows.size(); i++) {
+                        try {
+                            insert(Collections.singletonList(rows.get(i)));
+                        } catch (DataIntegrityViolationException rowError) {
+                            reject(rowNumbers.get(i), (String) rows.get(i)[0], rowError instanceof DuplicateKeyException
+                                    ? "学号已存在" : "数据不符合约束: " + rowError.getMostSpecificCause().getMessage());
+                        }
+                    }
+                }
+            }
+            pending.clear();
+            pendingRows.clear();
+            publish("running");
+        }
+        
+        /**
+         * 在一个事务内批量插入并发布变更事件，成功后计入成功数和班级增量
+         */
+        private void insert(List<Object[]> rows) {
+            List<String> insertedIds = new ArrayList<>(rows.size());
+            Map<Long, Long> deltas = new HashMap<>();
+            for (Object[] row : rows) {
+                insertedIds.add((String) row[0]);
+                deltas.merge((Long) row[2], 1L, Long::sum);
+            }
+            transaction.executeWithoutResult(tx -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+                eventPublisher.publishEvent(new StudentChangedEvent(
+                        studentRepository.findIdsByStudentIdIn(insertedIds), false));
+            });
+            succeeded += rows.size();
+            deltas.forEach((classId, delta) -> classDeltas.merge(classId, delta, Long::sum));
+        }
+        
+        /**
+         * 各班级学生数按增量各更新一次（已提交的批次都计入，任务失败也执行）
+         */
+        void applyClassCounts() {
+            if (classDeltas.isEmpty()) {
+                return;
+            }
+            try {
+                transaction.executeWithoutResult(tx -> classDeltas.forEach(classStudentCounter::add));
+            } catch (Exception e) {
+                log.error("更新班级学生数失败: {} {}", jobId, e.getMessage());
+            }
+        }
+        
+        StudentImportJobDTO publish(String status) {
+            boolean finished = "completed".equals(status) || "failed".equals(status);
+            StudentImportJobDTO snapshot = StudentImportJobDTO.builder()
+                    .jobId(jobId)
+                    .status(status)
+                    .fileName(fileName)
+                    .processed(processed)
+                    .succeeded(succeeded)
+                    .failed(failed)
+                    .errors(new ArrayList<>(errors))
+                    .message(message)
+                    .startedAt(startedAt)
+                    .finishedAt(finished ? LocalDateTime.now() : null)
+                    .build();
+            jobs.put(jobId, snapshot);
+            try {
+                redisTemplate.opsForValue().set(JOB_PREFIX + jobId, objectMapper.writeValueAsString(snapshot),
+                        Duration.ofHours(jobTtlHours));
+            } catch (Exception e) {
+                log.error("保存导入任务状态失败: {}", e.getMessage());
+            }
+            if (finished) {
+                // 完成后只保留 Redis 中的状态
+                jobs.remove(jobId);
+            }
+            return snapshot;
+        }
+        
+        private void reject(long rowNumber, String studentId, String error) {
+            failed++;
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(new StudentImportJobDTO.RowError(rowNumber, studentId, error));
+            }
+        }
+        
+        private Long resolveClass(String[] cells) {
+            String classIdText = trim(cell(cells, "classid"));
+            if (classIdText != null) {
+                try {
+                    Long classId = Long.parseLong(classIdText);
+                    return classDirectory.exists(classId) ? classId : null;
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+            String className = trim(cell(cells, "classname"));
+            return className == null ? null : classIdsByName.get(className);
+        }
+        
+        private void parseHeader(String[] cells) {
+            Map<String, Integer> mapping = new HashMap<>();
+            for (int i = 0; i < cells.length; i++) {
+                if (cells[i] != null) {
+                    mapping.putIfAbsent(cells[i].trim().toLowerCase(Locale.ROOT), i);
+                }
+            }
+            if (!mapping.containsKey("studentid") || !mapping.containsKey("name")) {
+                throw new IllegalArgumentException("表头缺少 studentId 或 name 列");
+            }
+            if (!mapping.containsKey("classid") && !mapping.containsKey("classname")) {
+                throw new IllegalArgumentException("表头缺少 classId 或 className 列");
+            }
+            columns = mapping;
+            header = cells;
+        }
+        
+        private String cell(String[] cells, String column) {
+            Integer index = columns.get(column);
+            return index == null || index >= cells.length ? null : cells[index];
+        }
+    }
+    
+    private static boolean tooLong(String value, int maxLength) {
+        return value != null && value.length() > maxLength;
+    }
+    
+    private static Integer parseInt(String text) {
+        String value = trim(text);
+        return value == null ? null : Integer.valueOf(value);
+    }
+    
+    private static String trim(String text) {
+        if (text == null) {
+            return null;
+        }
+        String value = text.trim();
+        return value.isEmpty() ? null : value;
+    }
+    
+    private static boolean isBlank(String[] cells) {
+        for (String cell : cells) {
+            if (trim(cell) != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -2,19 +2,21 @@ package com.example.student.service;
 
 import com.example.student.dto.PageResponse;
 import com.example.student.dto.StudentDTO;
-import com.example.student.entity.Class;
+import com.example.student.dto.StudentSummaryDTO;
 import com.example.student.entity.Student;
-import com.example.student.repository.ClassRepository;
+import com.example.student.event.StudentChangedEvent;
 import com.example.student.repository.StudentRepository;
+import com.example.student.utils.CursorUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,13 +27,26 @@ public class StudentService {
     private StudentRepository studentRepository;
     
     @Autowired
-    private ClassRepository classRepository;
+    private ClassDirectory classDirectory;
+    
+    @Autowired
+    private ClassStudentCounter classStudentCounter;
+    
+    @Autowired
+    private StudentDeletionService studentDeletionService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private CountService countService;
     
     /**
-     * 分页查询学生列表
+     * 分页查询学生列表（总数按 countMode 统计，见 CountService）
      */
     @Transactional(readOnly = true)
-    public PageResponse<StudentDTO> listStudents(Integer current, Integer size, String keyword, Long classId, String status) {
+    public PageResponse<StudentDTO> listStudents(Integer current, Integer size, String keyword, Long classId, String status,
+                                                 CountService.Mode countMode) {
         // 验证分页参数
         if (current == null || current < 1) {
             current = 1;
@@ -42,20 +57,63 @@ public class StudentService {
         
         Pageable pageable = PageRequest.of(current - 1, size);
         
-        // 查询学生数据
-        Page<Student> page = studentRepository.findByFilters(keyword, classId, status, pageable);
+        return countService.page(CountService.STUDENTS, CountService.filterKey(keyword, classId, status), pageable, countMode,
+                p -> studentRepository.findSliceWithClassNameByFilters(keyword, classId, status, p),
+                () -> studentRepository.countByFilters(keyword, classId, status),
+                row -> convertToDTO((Student) row[0], (String) row[1]));
+    }
+    
+    /**
+     * 游标分页查询学生列表：按主键顺序 seek，游标为上一页最后一条的 id，不返回总数
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<StudentDTO> listStudentsByCursor(String cursor, Integer size, String keyword, Long classId,
+                                                         String status) {
+        if (size == null || size < 1 || size > 100) {
+            size = 10;
+        }
+        long lastId = CursorUtil.decodeId(cursor, 0);
+        List<Student> rows = studentRepository.findByFiltersAfter(keyword, classId, status, lastId,
+                PageRequest.of(0, size + 1));
+        return CursorUtil.toPage(rows, size,
+                page -> page.stream().map(this::convertToDTO).collect(Collectors.toList()),
+                last -> CursorUtil.encode(last.getId()));
+    }
+    
+    /**
+     * 分页查询学生列表行（只查询列表展示需要的列），筛选与总数统计同 listStudents
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<StudentSummaryDTO> listStudentSummaries(Integer current, Integer size, String keyword, Long classId,
+                                                                String status, CountService.Mode countMode) {
+        if (current == null || current < 1) {
+            current = 1;
+        }
+        if (size == null || size < 1 || size > 100) {
+            size = 10;
+        }
         
-        // 转换为 DTO
-        List<StudentDTO> records = page.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        Pageable pageable = PageRequest.of(current - 1, size);
         
-        return PageResponse.<StudentDTO>builder()
-                .total(page.getTotalElements())
-                .current(current)
-                .size(size)
-                .records(records)
-                .build();
+        return countService.page(CountService.STUDENTS, CountService.filterKey(keyword, classId, status), pageable, countMode,
+                p -> studentRepository.findSummarySliceByFilters(keyword, classId, status, p),
+                () -> studentRepository.countByFilters(keyword, classId, status),
+                Function.identity());
+    }
+    
+    /**
+     * 游标分页查询学生列表行
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<StudentSummaryDTO> listStudentSummariesByCursor(String cursor, Integer size, String keyword,
+                                                                        Long classId, String status) {
+        if (size == null || size < 1 || size > 100) {
+            size = 10;
+        }
+        long lastId = CursorUtil.decodeId(cursor, 0);
+        List<StudentSummaryDTO> rows = studentRepository.findSummariesByFiltersAfter(keyword, classId, status, lastId,
+                PageRequest.of(0, size + 1));
+        return CursorUtil.toPage(rows, size, Function.identity(), last -> CursorUtil.encode(last.getId()));
     }
     
     /**
@@ -80,8 +138,9 @@ public class StudentService {
         }
         
         // 验证班级是否存在
-        Class clazz = classRepository.findById(dto.getClassId())
-                .orElseThrow(() -> new RuntimeException("class not found"));
+        if (!classDirectory.exists(dto.getClassId())) {
+            throw new RuntimeException("class not found");
+        }
         
         // 创建学生
         Student student = new Student();
@@ -97,9 +156,10 @@ public class StudentService {
         student.setStatus(dto.getStatus() != null ? dto.getStatus() : "active");
         
         student = studentRepository.save(student);
+        eventPublisher.publishEvent(StudentChangedEvent.saved(student.getId()));
         
         // 更新班级学生数
-        updateClassStudentCount(dto.getClassId());
+        classStudentCounter.add(dto.getClassId(), 1);
         
         log.info("创建学生: {} ({})", student.getName(), student.getStudentId());
         
@@ -121,9 +181,12 @@ public class StudentService {
         }
         
         // 验证班级
+        if (!student.getClassId().equals(dto.getClassId()) && !classDirectory.exists(dto.getClassId())) {
+            throw new RuntimeException("class not found");
+        }
         if (!student.getClassId().equals(dto.getClassId())) {
-            classRepository.findById(dto.getClassId())
-                    .orElseThrow(() -> new RuntimeException("class not found"));
+            classStudentCounter.add(student.getClassId(), -1);
+            classStudentCounter.add(dto.getClassId(), 1);
         }
         
         // 更新学生信息
@@ -143,6 +206,7 @@ public class StudentService {
         }
         
         student = studentRepository.save(student);
+        eventPublisher.publishEvent(StudentChangedEvent.saved(student.getId()));
         
         log.info("更新学生: {} ({})", student.getName(), student.getStudentId());
         
@@ -157,42 +221,18 @@ public class StudentService {
         Student student = studentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("student not found"));
         
-        long classId = student.getClassId();
-        
-        studentRepository.deleteById(id);
-        
-        // 更新班级学生数
-        updateClassStudentCount(classId);
+        // 连同选课、候补记录一起删除，并归还座位、更新班级学生数
+        studentDeletionService.deleteStudents(List.of(id));
         
         log.info("删除学生: {} ({})", student.getName(), student.getStudentId());
     }
     
     /**
-     * 批量删除学生
+     * 批量删除学生（分批集合删除，连同选课、候补记录），返回实际删除数
+     * 每批单独提交，不在一个大事务中锁住全部行
      */
-    @Transactional
-    public void batchDeleteStudents(List<Long> ids) {
-        List<Student> students = studentRepository.findByIdIn(ids);
-        
-        if (students.isEmpty()) {
-            return;
-        }
-        
-        // 收集所有受影响的班级ID
-        Set<Long> classIds = new HashSet<>();
-        for (Student student : students) {
-            classIds.add(student.getClassId());
-        }
-        
-        // 删除学生
-        studentRepository.deleteAll(students);
-        
-        // 更新班级学生数
-        for (Long classId : classIds) {
-            updateClassStudentCount(classId);
-        }
-        
-        log.info("批量删除学生: {}个", students.size());
+    public int batchDeleteStudents(List<Long> ids) {
+        return studentDeletionService.deleteStudents(ids);
     }
     
     /**
@@ -209,30 +249,14 @@ public class StudentService {
         log.info("更新学生头像: {} ({})", student.getName(), student.getStudentId());
     }
     
-    /**
-     * 更新班级学生数
-     */
-    private void updateClassStudentCount(Long classId) {
-        Class clazz = classRepository.findById(classId)
-                .orElse(null);
-        
-        if (clazz != null) {
-            long count = studentRepository.countByClassId(classId);
-            clazz.setStudentCount((int) count);
-            classRepository.save(clazz);
-        }
-    }
-    
     /**
      * 将 Student 转换为 StudentDTO
      */
     private StudentDTO convertToDTO(Student student) {
-        String className = null;
-        Optional<Class> classOpt = classRepository.findById(student.getClassId());
-        if (classOpt.isPresent()) {
-            className = classOpt.get().getName();
-        }
-        
+        return convertToDTO(student, classDirectory.nameOf(student.getClassId()));
+    }
+    
+    private StudentDTO convertToDTO(Student student, String className) {
         return StudentDTO.builder()
                 .id(student.getId())
                 .studentId(student.getStudentId())
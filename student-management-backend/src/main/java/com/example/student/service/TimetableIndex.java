@@ -0,0 +1,285 @@
+package com.example.student.service;
+
+import com.example.student.entity.CourseSchedule;
+import com.example.student.repository.CourseScheduleRepository;
+import com.example.student.repository.StudentCourseRepository;
+import com.example.student.utils.TransactionUtil;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 课程时间表索引（用于选课时间冲突检测）
+ * 
+ * 每门课程的上课时段被编码为位图：一周 7 天，每天按 5 分钟切分为 288 个槽位，
+ * 共 7 * 5 个 long。学生的课表即其活跃选课对应位图的按位或，
+ * 冲突检测只需逐字按位与，单次判断在微秒级完成。
+ * 
+ * 位图在首次使用时从 course_schedules 全量构建，之后在课程日程增删时按课程刷新，
+ * 并通过 Redis 频道 timetable:invalidate 通知其他节点刷新同一课程；
+ * 发布订阅不保证送达，另按 timetable.reload-interval-ms 定期全量重建兜底。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TimetableIndex implements MessageListener {
+    
+    private static final String CHANNEL = "timetable:invalidate";
+    
+    private static final int SLOT_MINUTES = 5;
+    private static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    private static final int WORDS_PER_DAY = (SLOTS_PER_DAY + 63) / 64;
+    private static final int WORDS = 7 * WORDS_PER_DAY;
+    
+    private static final Map<String, DayOfWeek> CHINESE_DAYS = Map.of(
+            "一", DayOfWeek.MONDAY, "二", DayOfWeek.TUESDAY, "三", DayOfWeek.WEDNESDAY,
+            "四", DayOfWeek.THURSDAY, "五", DayOfWeek.FRIDAY, "六", DayOfWeek.SATURDAY,
+            "日", DayOfWeek.SUNDAY, "天", DayOfWeek.SUNDAY);
+    
+    private final CourseScheduleRepository scheduleRepository;
+    private final StudentCourseRepository studentCourseRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    
+    /** 本节点标识，忽略自己发出的通知 */
+    private final String nodeId = UUID.randomUUID().toString();
+    
+    /** courseId -> 时段位图（没有日程的课程不在表中）；全量重建时整体替换 */
+    private volatile Map<Long, long[]> courseSlots = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+    
+    /**
+     * 查找与目标课程时间冲突的学生已选课程，没有冲突返回 null
+     */
+    public Long findConflict(Long studentId, Long courseId) {
+        ensureLoaded();
+        if (!courseSlots.containsKey(courseId)) {
+            return null;
+        }
+        return findConflict(studentCourseRepository.findActiveCourseIdsByStudentId(studentId), courseId);
+    }
+    
+    /**
+     * 在给定课程集合中查找与目标课程时间冲突的课程（纯内存，用于批量场景），没有冲突返回 null
+     */
+    public Long findConflict(Collection<Long> enrolledCourseIds, Long courseId) {
+        ensureLoaded();
+        long[] target = courseSlots.get(courseId);
+        if (target == null) {
+            return null;
+        }
+        for (Long enrolledId : enrolledCourseIds) {
+            if (enrolledId.equals(courseId)) {
+                continue;
+            }
+            long[] slots = courseSlots.get(enrolledId);
+            if (slots != null && intersects(target, slots)) {
+                return enrolledId;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * 与学生当前课表冲突的所有课程 ID
+     */
+    public Set<Long> findConflictingCourses(Long studentId) {
+        ensureLoaded();
+        List<Long> enrolledIds = studentCourseRepository.findActiveCourseIdsByStudentId(studentId);
+        long[] timetable = new long[WORDS];
+        boolean any = false;
+        for (Long enrolledId : enrolledIds) {
+            long[] slots = courseSlots.get(enrolledId);
+            if (slots != null) {
+                for (int i = 0; i < WORDS; i++) {
+                    timetable[i] |= slots[i];
+                }
+                any = true;
+            }
+        }
+        if (!any) {
+            return Collections.emptySet();
+        }
+        Set<Long> conflicts = new HashSet<>();
+        for (Map.Entry<Long, long[]> entry : courseSlots.entrySet()) {
+            if (intersects(timetable, entry.getValue()) && !enrolledIds.contains(entry.getKey())) {
+                conflicts.add(entry.getKey());
+            }
+        }
+        return conflicts;
+    }
+    
+    /**
+     * 课程日程变更后刷新该课程的位图并通知其他节点；在事务中调用时延迟到提交之后执行
+     */
+    public void invalidateCourse(Long courseId) {
+        TransactionUtil.afterCommit(() -> {
+            refreshCourse(courseId);
+            publish(courseId);
+        });
+    }
+    
+    /**
+     * 定期全量重建，弥补丢失的失效通知
+     */
+    @Scheduled(fixedDelayString = "${timetable.reload-interval-ms:600000}")
+    public void reload() {
+        if (loaded) {
+            courseSlots = loadAll();
+        }
+    }
+    
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        if (separator < 0 || nodeId.equals(body.substring(0, separator))) {
+            return;
+        }
+        try {
+            refreshCourse(Long.parseLong(body.substring(separator + 1)));
+        } catch (Exception e) {
+            log.error("处理课程时间表失效通知失败: {}", e.getMessage());
+        }
+    }
+    
+    private void refreshCourse(Long courseId) {
+        if (!loaded) {
+            return;
+        }
+        long[] slots = buildSlots(scheduleRepository.findByCourseId(courseId));
+        if (slots == null) {
+            courseSlots.remove(courseId);
+        } else {
+            courseSlots.put(courseId, slots);
+        }
+    }
+    
+    private void publish(Long courseId) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId + ":" + courseId);
+        } catch (Exception e) {
+            log.error("发布课程时间表失效通知失败: {}", e.getMessage());
+        }
+    }
+    
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            courseSlots = loadAll();
+            loaded = true;
+            log.info("课程时间表索引构建完成: {} 门课程", courseSlots.size());
+        }
+    }
+    
+    private Map<Long, long[]> loadAll() {
+        Map<Long, List<CourseSchedule>> byCourse = new HashMap<>();
+        for (CourseSchedule schedule : scheduleRepository.findAll()) {
+            byCourse.computeIfAbsent(schedule.getCourseId(), k -> new ArrayList<>()).add(schedule);
+        }
+        Map<Long, long[]> slotsByCourse = new ConcurrentHashMap<>();
+        byCourse.forEach((courseId, schedules) -> {
+            long[] slots = buildSlots(schedules);
+            if (slots != null) {
+                slotsByCourse.put(courseId, slots);
+            }
+        });
+        return slotsByCourse;
+    }
+    
+    private long[] buildSlots(List<CourseSchedule> schedules) {
+        long[] slots = new long[WORDS];
+        boolean any = false;
+        for (CourseSchedule schedule : schedules) {
+            DayOfWeek day = parseDay(schedule.getDayOfWeek());
+            if (day == null || schedule.getStartTime() == null || schedule.getEndTime() == null) {
+                continue;
+            }
+            int from = toStartSlot(schedule.getStartTime());
+            int to = toEndSlot(schedule.getEndTime());
+            if (schedule.getEndTime().equals(LocalTime.MIDNIGHT)) {
+                to = SLOTS_PER_DAY;
+            }
+            int base = (day.getValue() - 1) * WORDS_PER_DAY * 64;
+            // 时段为左闭右开区间，首尾相接的两节课不算冲突
+            for (int slot = from; slot < to; slot++) {
+                int bit = base + slot;
+                slots[bit >>> 6] |= 1L << (bit & 63);
+                any = true;
+            }
+        }
+        return any ? slots : null;
+    }
+    
+    /**
+     * 开始时间向下取整到槽位
+     */
+    private static int toStartSlot(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
+    }
+    
+    /**
+     * 结束时间向上取整到槽位（如 09:47 占到 09:50），否则不足一个槽位的尾部会漏判冲突
+     */
+    private static int toEndSlot(LocalTime time) {
+        int seconds = time.toSecondOfDay();
+        int slotSeconds = SLOT_MINUTES * 60;
+        return (seconds + slotSeconds - 1) / slotSeconds;
+    }
+    
+    private static boolean intersects(long[] a, long[] b) {
+        for (int i = 0; i < WORDS; i++) {
+            if ((a[i] & b[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 解析星期：支持 Monday / MON / 1-7 / 周一 / 星期一
+     */
+    static DayOfWeek parseDay(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String v = value.trim();
+        if (v.chars().allMatch(Character::isDigit)) {
+            int n = Integer.parseInt(v);
+            return n >= 1 && n <= 7 ? DayOfWeek.of(n) : null;
+        }
+        if (v.startsWith("周") || v.startsWith("星期")) {
+            return CHINESE_DAYS.get(v.substring(v.length() - 1));
+        }
+        String upper = v.toUpperCase(Locale.ROOT);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().equals(upper) || day.name().startsWith(upper) && upper.length() >= 3) {
+                return day;
+            }
+        }
+        return null;
+    }
+}
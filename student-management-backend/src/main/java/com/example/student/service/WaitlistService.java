@@ -0,0 +1,327 @@
+package com.example.student.service;
+
+import com.example.student.dto.WaitlistPositionDTO;
+import com.example.student.entity.Course;
+import com.example.student.entity.CourseWaitlist;
+import com.example.student.entity.Student;
+import com.example.student.entity.StudentCourse;
+import com.example.student.repository.CourseRepository;
+import com.example.student.repository.CourseWaitlistRepository;
+import com.example.student.repository.StudentCourseRepository;
+import com.example.student.repository.StudentRepository;
+import com.example.student.utils.TransactionUtil;
+import com.example.student.websocket.NotificationWebSocketHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 选课候补队列
+ *
+ * 数据库表 course_waitlist 是队列的权威数据（自增 id 即 FIFO 顺序），递补时对队首加行锁；
+ * Redis 有序集合 course_waitlist:{courseId}（score = 表 id）只用于高频的位次查询。
+ * 集合只在缓存未命中时由数据库整队重建（带过期时间），之后的入队仅在集合已存在时增量写入，
+ * 避免只含部分成员的集合返回错误位次；Redis 不可用时回退到数据库计数。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WaitlistService {
+    private final CourseWaitlistRepository waitlistRepository;
+    private final StudentCourseRepository studentCourseRepository;
+    private final CourseRepository courseRepository;
+    private final StudentRepository studentRepository;
+    private final SeatReservationService seatReservationService;
+    private final TimetableIndex timetableIndex;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    private static final String WAITLIST_PREFIX = "course_waitlist:";
+
+    /**
+     * 重建后的集合过期时间：提交后写缓存与重建并发时可能漏掉个别成员，到期后整队重建纠正
+     */
+    private static final long CACHE_TTL_MS = 10 * 60 * 1000;
+
+    /**
+     * KEYS[1] 队列 key；ARGV[1] score；ARGV[2] 学生 ID
+     * 集合存在时才追加，不存在时留给下次查询整队重建
+     */
+    private static final DefaultRedisScript<Long> ADD_IF_PRESENT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then\n" +
+            "  return redis.call('ZADD', KEYS[1], ARGV[1], ARGV[2])\n" +
+            "end\n" +
+            "return 0",
+            Long.class);
+
+    /**
+     * KEYS[1] 队列 key；ARGV[1] 过期毫秒数；ARGV[2..] 依次为 score、学生 ID
+     * 原子地整体替换集合
+     */
+    private static final DefaultRedisScript<Long> REBUILD_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('DEL', KEYS[1])\n" +
+            "for i = 2, #ARGV, 2 do\n" +
+            "  redis.call('ZADD', KEYS[1], ARGV[i], ARGV[i + 1])\n" +
+            "end\n" +
+            "if #ARGV > 1 then redis.call('PEXPIRE', KEYS[1], ARGV[1]) end\n" +
+            "return (#ARGV - 1) / 2",
+            Long.class);
+
+    /**
+     * 加入候补队列（仅课程已满时允许）
+     */
+    @Transactional
+    public WaitlistPositionDTO join(Long studentId, Long courseId) {
+        if (!studentRepository.existsById(studentId)) {
+            throw new IllegalArgumentException("学生不存在");
+        }
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new IllegalArgumentException("课程不存在"));
+
+        Optional<StudentCourse> existing = studentCourseRepository.findByStudentIdAndCourseId(studentId, courseId);
+        if (existing.isPresent() && "active".equals(existing.get().getStatus())) {
+            throw new IllegalArgumentException("学生已选过该课程");
+        }
+        if (course.getEnrolled() < course.getCapacity()) {
+            throw new IllegalArgumentException("课程尚有空位，请直接选课");
+        }
+        if (waitlistRepository.existsByCourseIdAndStudentId(courseId, studentId)) {
+            throw new IllegalArgumentException("已在该课程候补队列中");
+        }
+
+        CourseWaitlist entry = new CourseWaitlist();
+        entry.setCourseId(courseId);
+        entry.setStudentId(studentId);
+        entry = waitlistRepository.save(entry);
+
+        Long entryId = entry.getId();
+        TransactionUtil.afterCommit(() -> cacheAdd(courseId, studentId, entryId));
+
+        return WaitlistPositionDTO.builder()
+                .courseId(courseId)
+                .studentId(studentId)
+                .position(waitlistRepository.countAhead(courseId, entryId) + 1)
+                .waitlistSize(waitlistRepository.countByCourseId(courseId))
+                .build();
+    }
+
+    /**
+     * 退出候补队列
+     */
+    @Transactional
+    public void leave(Long studentId, Long courseId) {
+        CourseWaitlist entry = waitlistRepository.findByCourseIdAndStudentId(courseId, studentId)
+                .orElseThrow(() -> new IllegalArgumentException("未在该课程候补队列中"));
+        waitlistRepository.delete(entry);
+        TransactionUtil.afterCommit(() -> cacheRemove(courseId, studentId));
+    }
+
+    /**
+     * 移除给定学生的全部候补记录（删除学生时调用，一条 DELETE），提交后同步清理 Redis
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int removeStudents(Collection<Long> studentIds) {
+        List<Object[]> entries = waitlistRepository.findEntriesByStudentIdIn(studentIds);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        int removed = waitlistRepository.deleteByStudentIdIn(studentIds);
+        TransactionUtil.afterCommit(() -> entries.forEach(entry -> cacheRemove((Long) entry[0], (Long) entry[1])));
+        return removed;
+    }
+
+    /**
+     * 移除已选上该课程的学生的候补记录（批量选课时调用，一条 DELETE），提交后同步清理 Redis
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int removeEnrolled(Long courseId, Collection<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return 0;
+        }
+        int removed = waitlistRepository.deleteByCourseIdAndStudentIdIn(courseId, studentIds);
+        if (removed > 0) {
+            TransactionUtil.afterCommit(() -> studentIds.forEach(studentId -> cacheRemove(courseId, studentId)));
+        }
+        return removed;
+    }
+
+    /**
+     * 查询候补位次：优先读 Redis（ZRANK + ZCARD），未命中时按数据库整队计算位次并重建该课程的集合
+     */
+    @Transactional(readOnly = true)
+    public WaitlistPositionDTO getPosition(Long studentId, Long courseId) {
+        String key = WAITLIST_PREFIX + courseId;
+        try {
+            Long rank = redisTemplate.opsForZSet().rank(key, studentId.toString());
+            if (rank != null) {
+                Long size = redisTemplate.opsForZSet().zCard(key);
+                return WaitlistPositionDTO.builder()
+                        .courseId(courseId)
+                        .studentId(studentId)
+                        .position(rank + 1)
+                        .waitlistSize(size)
+                        .build();
+            }
+        } catch (Exception e) {
+            log.error("读取候补队列缓存失败: {}", e.getMessage());
+        }
+
+        List<Object[]> queue = waitlistRepository.findQueueByCourseId(courseId);
+        long position = 0;
+        for (int i = 0; i < queue.size(); i++) {
+            if (studentId.equals(queue.get(i)[1])) {
+                position = i + 1;
+                break;
+            }
+        }
+        if (position == 0) {
+            throw new IllegalArgumentException("未在该课程候补队列中");
+        }
+        cacheRebuild(courseId, queue);
+
+        return WaitlistPositionDTO.builder()
+                .courseId(courseId)
+                .studentId(studentId)
+                .position(position)
+                .waitlistSize((long) queue.size())
+                .build();
+    }
+
+    /**
+     * 将队首递补进一个已空出的座位（座位数不变，由调用方保证座位已被占住）
+     * 已选该课（活跃记录）或时间冲突的候补者会被移出队列并跳过；已退课/已完成的记录重新激活
+     * @return 被递补的学生 ID；队列为空时返回 null
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Long promoteNext(Long courseId) {
+        while (true) {
+            Optional<CourseWaitlist> head = waitlistRepository.findFirstByCourseIdOrderByIdAsc(courseId);
+            if (head.isEmpty()) {
+                return null;
+            }
+            CourseWaitlist entry = head.get();
+            Long studentId = entry.getStudentId();
+            waitlistRepository.delete(entry);
+            TransactionUtil.afterCommit(() -> cacheRemove(courseId, studentId));
+
+            Optional<StudentCourse> existing = studentCourseRepository.findByStudentIdAndCourseId(studentId, courseId);
+            if (existing.isPresent() && "active".equals(existing.get().getStatus())) {
+                log.info("候补者已选该课程，跳过: studentId={}, courseId={}", studentId, courseId);
+                continue;
+            }
+            Long conflictCourseId = timetableIndex.findConflict(studentId, courseId);
+            if (conflictCourseId != null) {
+                log.info("候补者上课时间冲突，跳过: studentId={}, courseId={}, conflict={}", studentId, courseId, conflictCourseId);
+                continue;
+            }
+
+            // 已退课/已完成的记录重新激活（与 enrollCourse 一致），清除上一次的成绩
+            StudentCourse studentCourse = existing.orElseGet(StudentCourse::new);
+            studentCourse.setStudentId(studentId);
+            studentCourse.setCourseId(courseId);
+            studentCourse.setEnrollDate(LocalDateTime.now());
+            studentCourse.setStatus("active");
+            studentCourse.setGrade(null);
+            studentCourseRepository.save(studentCourse);
+
+            notifyPromoted(studentId, courseId);
+            log.info("候补递补成功: studentId={}, courseId={}", studentId, courseId);
+            return studentId;
+        }
+    }
+
+    /**
+     * 课程扩容后按空余座位依次递补，每个座位先原子占座再递补，队列耗尽时归还座位
+     * @return 递补人数
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int promoteIntoFreeSeats(Long courseId) {
+        if (!waitlistRepository.existsByCourseId(courseId)) {
+            return 0;
+        }
+        int promoted = 0;
+        while (seatReservationService.tryReserve(courseId)) {
+            if (promoteNext(courseId) == null) {
+                seatReservationService.release(courseId);
+                break;
+            }
+            promoted++;
+        }
+        return promoted;
+    }
+
+    /**
+     * 事务提交后通过 WebSocket 通知被递补的学生（登录名即学号）
+     */
+    private void notifyPromoted(Long studentId, Long courseId) {
+        String username = studentRepository.findById(studentId)
+                .map(Student::getStudentId)
+                .orElse(null);
+        if (username == null) {
+            return;
+        }
+        String courseName = courseRepository.findById(courseId)
+                .map(Course::getName)
+                .orElse("");
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("event", "waitlist_promoted");
+        payload.put("courseId", courseId);
+        payload.put("courseName", courseName);
+        payload.put("message", "候补成功，已为您选上课程：" + courseName);
+
+        TransactionUtil.afterCommit(() -> {
+            try {
+                NotificationWebSocketHandler.sendMessageToUser(username, objectMapper.writeValueAsString(payload));
+            } catch (Exception e) {
+                log.error("发送候补递补通知失败: {}", e.getMessage());
+            }
+        });
+    }
+
+    private void cacheAdd(Long courseId, Long studentId, Long entryId) {
+        try {
+            redisTemplate.execute(ADD_IF_PRESENT_SCRIPT, List.of(WAITLIST_PREFIX + courseId),
+                    entryId.toString(), studentId.toString());
+        } catch (Exception e) {
+            log.error("写入候补队列缓存失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 用数据库中的整个队列（[id, studentId]，按 id 升序）替换缓存集合
+     */
+    private void cacheRebuild(Long courseId, List<Object[]> queue) {
+        String[] args = new String[queue.size() * 2 + 1];
+        args[0] = String.valueOf(CACHE_TTL_MS);
+        for (int i = 0; i < queue.size(); i++) {
+            args[i * 2 + 1] = queue.get(i)[0].toString();
+            args[i * 2 + 2] = queue.get(i)[1].toString();
+        }
+        try {
+            redisTemplate.execute(REBUILD_SCRIPT, List.of(WAITLIST_PREFIX + courseId), (Object[]) args);
+        } catch (Exception e) {
+            log.error("重建候补队列缓存失败: {}", e.getMessage());
+        }
+    }
+
+    private void cacheRemove(Long courseId, Long studentId) {
+        try {
+            redisTemplate.opsForZSet().remove(WAITLIST_PREFIX + courseId, studentId.toString());
+        } catch (Exception e) {
+            log.error("删除候补队列缓存失败: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.student.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV 行读取器（RFC 4180，支持引号内的逗号、换行和转义引号，忽略 UTF-8 BOM）
+ */
+public class CsvRowReader implements RowReader {
+    
+    private final Reader reader;
+    
+    public CsvRowReader(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+    }
+    
+    @Override
+    public void read(RowHandler handler) throws IOException {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        boolean rowStarted = false;
+        long rowNumber = 0;
+        
+        int c = reader.read();
+        if (c == '\uFEFF') {
+            c = reader.read();
+        }
+        for (; c != -1; c = reader.read()) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        cell.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    cell.append((char) c);
+                }
+                continue;
+            }
+            
+            if (c == '"') {
+                quoted = true;
+                rowStarted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+                rowStarted = true;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                if (rowStarted || cell.length() > 0) {
+                    cells.add(cell.toString());
+                    handler.handle(++rowNumber, cells.toArray(new String[0]));
+                }
+                cells.clear();
+                cell.setLength(0);
+                rowStarted = false;
+            } else {
+                cell.append((char) c);
+                rowStarted = true;
+            }
+        }
+        
+        if (rowStarted || cell.length() > 0) {
+            cells.add(cell.toString());
+            handler.handle(++rowNumber, cells.toArray(new String[0]));
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        // 不关闭底层流，输入流的生命周期由调用方管理
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.student.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * CSV 行写出器（RFC 4180 转义）
+ */
+public class CsvRowWriter implements RowWriter {
+    
+    private final Writer writer;
+    
+    public CsvRowWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+    
+    @Override
+    public void writeRow(Object... cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCell(cells[i]);
+        }
+        writer.write('\n');
+    }
+    
+    private void writeCell(Object cell) throws IOException {
+        if (cell == null) {
+            return;
+        }
+        String value = cell.toString();
+        boolean needQuote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needQuote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+    
+    @Override
+    public void close() throws IOException {
+        // 只刷新不关闭底层流，输出流的生命周期由调用方（Servlet 容器）管理
+        writer.flush();
+    }
+}
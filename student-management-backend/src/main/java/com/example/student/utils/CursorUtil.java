@@ -0,0 +1,88 @@
+package com.example.student.utils;
+
+import com.example.student.dto.PageResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页令牌工具
+ * 
+ * 将"最后一条记录的排序键 + id"编码为不透明的 Base64URL 字符串返回给前端，
+ * 下一页请求时原样带回，由服务端解码后在索引列上做 seek 查询。
+ */
+public final class CursorUtil {
+    
+    private static final String SEPARATOR = "|";
+    
+    private CursorUtil() {
+    }
+    
+    /**
+     * 编码游标
+     */
+    public static String encode(Object... parts) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                sb.append(SEPARATOR);
+            }
+            sb.append(parts[i] == null ? "" : parts[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * 解码游标，段数不符时抛出 IllegalArgumentException
+     */
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != expectedParts) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+    }
+    
+    /**
+     * 解码只含 id 的游标；首页（null 或空串）返回 firstPageId
+     */
+    public static long decodeId(String cursor, long firstPageId) {
+        if (cursor == null || cursor.isEmpty()) {
+            return firstPageId;
+        }
+        try {
+            return Long.parseLong(decode(cursor, 1)[0]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+    }
+    
+    /**
+     * 由多取一行（size + 1）的 seek 查询结果生成一页游标分页响应：
+     * 多出的一行只用于判断是否还有下一页（converter 按整页批量转换），nextCursor 由本页最后一条记录生成，不返回总数；
+     * size 必须大于 0（调用方通常已先规整分页参数）
+     */
+    public static <E, T> PageResponse<T> toPage(List<E> rows, int size, Function<List<E>, List<T>> converter,
+                                                Function<E, String> cursorOf) {
+        if (size < 1) {
+            throw new IllegalArgumentException("每页条数必须大于0");
+        }
+        boolean hasMore = rows.size() > size;
+        List<E> page = hasMore ? rows.subList(0, size) : rows;
+        
+        PageResponse<T> response = new PageResponse<>(null, null, size, converter.apply(page));
+        response.setHasNext(hasMore);
+        if (hasMore) {
+            response.setNextCursor(cursorOf.apply(page.get(page.size() - 1)));
+        }
+        return response;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.student.utils;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 表格文件格式（导出与导入共用）
+ */
+public enum ExportFormat {
+    CSV("csv", "text/csv; charset=UTF-8"),
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+    
+    private final String extension;
+    private final String contentType;
+    
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+    
+    public String getExtension() {
+        return extension;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public RowWriter open(OutputStream out) {
+        return this == XLSX ? new XlsxRowWriter(out) : new CsvRowWriter(out);
+    }
+    
+    public RowReader openReader(InputStream in) {
+        return this == XLSX ? new XlsxRowReader(in) : new CsvRowReader(in);
+    }
+    
+    /**
+     * 按上传文件名的扩展名解析格式，不支持时抛出 IllegalArgumentException
+     */
+    public static ExportFormat fromFilename(String filename) {
+        int dot = filename == null ? -1 : filename.lastIndexOf('.');
+        String extension = dot < 0 ? "" : filename.substring(dot + 1);
+        for (ExportFormat value : values()) {
+            if (value.extension.equalsIgnoreCase(extension)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("不支持的文件格式，仅支持 csv / xlsx");
+    }
+    
+    /**
+     * 按名称解析导出格式（忽略大小写），不支持时抛出 IllegalArgumentException
+     */
+    public static ExportFormat of(String format) {
+        if (format == null || format.isEmpty()) {
+            return CSV;
+        }
+        for (ExportFormat value : values()) {
+            if (value.extension.equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("不支持的导出格式: " + format);
+    }
+}
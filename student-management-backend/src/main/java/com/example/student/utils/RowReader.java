@@ -0,0 +1,20 @@
+package com.example.student.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 表格行读取器（导入用），逐行回调，不在内存中保留已读取的数据
+ */
+public interface RowReader extends Closeable {
+    
+    /**
+     * 按顺序读取所有行（含表头），rowNumber 从 1 开始连续编号
+     */
+    void read(RowHandler handler) throws IOException;
+    
+    @FunctionalInterface
+    interface RowHandler {
+        void handle(long rowNumber, String[] cells);
+    }
+}
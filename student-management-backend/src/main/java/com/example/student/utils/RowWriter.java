@@ -0,0 +1,15 @@
+package com.example.student.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 表格行写出器（导出用），逐行写出，不在内存中保留已写出的数据
+ */
+public interface RowWriter extends Closeable {
+    
+    /**
+     * 写出一行，单元格为 null 时输出空值
+     */
+    void writeRow(Object... cells) throws IOException;
+}
@@ -0,0 +1,30 @@
+package com.example.student.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务辅助工具
+ */
+public final class TransactionUtil {
+    
+    private TransactionUtil() {
+    }
+    
+    /**
+     * 在当前事务提交后执行；没有活动事务时立即执行
+     * 用于刷新缓存/索引、发送通知等不应在回滚时生效的副作用
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
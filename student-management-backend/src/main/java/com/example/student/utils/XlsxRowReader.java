@@ -0,0 +1,102 @@
+package com.example.student.utils;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * XLSX 流式行读取器
+ * 
+ * 基于 POI 事件模型（XSSFReader + SAX）：工作表 XML 边解析边回调，不构建 DOM，
+ * 堆占用与总行数无关。依次读取所有工作表，上传流先落到临时文件再按 ZIP 随机访问。
+ */
+public class XlsxRowReader implements RowReader {
+    
+    private final Path file;
+    
+    public XlsxRowReader(InputStream in) {
+        try {
+            this.file = Files.createTempFile("import-", ".xlsx");
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new IllegalStateException("无法缓存上传的 XLSX 文件", e);
+        }
+    }
+    
+    @Override
+    public void read(RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            XSSFReader xssfReader = new XSSFReader(pkg);
+            RowCollector collector = new RowCollector(handler);
+            
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(
+                            xssfReader.getStylesTable(), null, strings, collector, new DataFormatter(), false));
+                    parser.parse(new InputSource(sheet));
+                }
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IllegalArgumentException("无法解析 XLSX 文件: " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(file);
+    }
+    
+    /**
+     * 把 SAX 单元格事件拼成行，按列号放置（跳过的空单元格补空串）
+     */
+    private static class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final RowHandler handler;
+        private final List<String> cells = new ArrayList<>();
+        private long rowNumber;
+        
+        RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+        
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+        
+        @Override
+        public void endRow(int rowNum) {
+            handler.handle(++rowNumber, cells.toArray(new String[0]));
+        }
+        
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : cells.size();
+            while (cells.size() < column) {
+                cells.add("");
+            }
+            cells.add(formattedValue);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.student.utils;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * XLSX 流式行写出器
+ * 
+ * 基于 POI SXSSF：内存中只保留最近 ROW_WINDOW 行，其余行压缩写入临时文件，
+ * 堆占用与总行数无关。单个工作表写满后自动新建工作表，表头重复写出。
+ */
+public class XlsxRowWriter implements RowWriter {
+    
+    private static final int ROW_WINDOW = 200;
+    
+    /** 单个工作表最大行数（Excel 上限 1,048,576，预留表头） */
+    private static final int MAX_ROWS_PER_SHEET = 1_000_000;
+    
+    private final OutputStream out;
+    private final SXSSFWorkbook workbook;
+    private SXSSFSheet sheet;
+    private Object[] header;
+    private int rowIndex;
+    
+    public XlsxRowWriter(OutputStream out) {
+        this.out = out;
+        this.workbook = new SXSSFWorkbook(ROW_WINDOW);
+        this.workbook.setCompressTempFiles(true);
+    }
+    
+    @Override
+    public void writeRow(Object... cells) throws IOException {
+        if (header == null) {
+            header = cells;
+        }
+        if (sheet == null || rowIndex >= MAX_ROWS_PER_SHEET) {
+            sheet = workbook.createSheet("Sheet" + (workbook.getNumberOfSheets() + 1));
+            rowIndex = 0;
+            if (cells != header) {
+                fillRow(sheet.createRow(rowIndex++), header);
+            }
+        }
+        fillRow(sheet.createRow(rowIndex++), cells);
+    }
+    
+    private void fillRow(Row row, Object[] cells) {
+        for (int i = 0; i < cells.length; i++) {
+            Object value = cells[i];
+            if (value == null) {
+                continue;
+            }
+            Cell cell = row.createCell(i);
+            if (value instanceof Number number) {
+                cell.setCellValue(number.doubleValue());
+            } else {
+                cell.setCellValue(value.toString());
+            }
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            if (sheet == null) {
+                workbook.createSheet("Sheet1");
+            }
+            workbook.write(out);
+            out.flush();
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+}
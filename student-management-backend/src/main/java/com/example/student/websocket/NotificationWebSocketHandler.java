@@ -72,6 +72,20 @@ public class NotificationWebSocketHandler implements WebSocketHandler {
         }
     }
     
+    /**
+     * Send message to all sessions of a user (principal name set by the JWT handshake)
+     */
+    public static void sendMessageToUser(String username, String message) throws IOException {
+        for (WebSocketSession session : sessions) {
+            if (session.isOpen() && session.getPrincipal() != null
+                    && username.equals(session.getPrincipal().getName())) {
+                session.sendMessage(new org.springframework.web.socket.TextMessage(
+                        "{\"type\":\"notification\",\"data\":" + message + ",\"timestamp\":" + System.currentTimeMillis() + "}"
+                ));
+            }
+        }
+    }
+    
     /**
      * Send message to specific client
      */
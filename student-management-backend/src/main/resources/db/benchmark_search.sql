@@ -0,0 +1,127 @@
+-- 搜索性能对比：LIKE '%kw%' vs FULLTEXT ngram（MATCH ... AGAINST）
+--
+-- 在独立的 student_bench 库中生成 100 万学生、100 万课程（不影响业务库），
+-- 分别用 EXPLAIN ANALYZE（MySQL 8.0.18+）执行 LIKE 查询和全文查询，对比 actual time 与扫描行数。
+-- 用法：mysql -uroot -p < benchmark_search.sql
+-- 生成数据约需数分钟，创建全文索引约需数分钟；重复执行前先 DROP DATABASE student_bench。
+
+CREATE DATABASE IF NOT EXISTS student_bench DEFAULT CHARSET utf8mb4 COLLATE utf8mb4_unicode_ci;
+USE student_bench;
+
+CREATE TABLE IF NOT EXISTS students (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    student_id VARCHAR(50) NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    email VARCHAR(100),
+    phone VARCHAR(20),
+    UNIQUE KEY uk_student_id (student_id),
+    INDEX idx_name (name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS courses (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    name VARCHAR(200) NOT NULL,
+    code VARCHAR(50) NOT NULL,
+    description TEXT,
+    UNIQUE KEY uk_code (code)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ==================== 生成数据 ====================
+-- 姓名 = 姓 + 名（两个字典笛卡尔积），学号/邮箱/课程代码按序号生成，课程简介由若干主题词拼接
+
+SET SESSION cte_max_recursion_depth = 1000000;
+
+INSERT INTO students (student_id, name, email, phone)
+WITH RECURSIVE seq (n) AS (
+    SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000000
+)
+SELECT CONCAT('S', LPAD(n, 8, '0')),
+       CONCAT(ELT(1 + n % 20, '张', '王', '李', '赵', '刘', '陈', '杨', '黄', '周', '吴',
+                              '徐', '孙', '马', '朱', '胡', '郭', '何', '林', '罗', '高'),
+              ELT(1 + (n DIV 20) % 30, '伟', '芳', '娜', '敏', '静', '丽', '强', '磊', '洋', '艳',
+                                       '勇', '军', '杰', '娟', '涛', '明', '超', '秀英', '霞', '平',
+                                       '刚', '桂英', '思远', '子涵', '浩然', '雨桐', '欣怡', '梓轩', '一诺', '宇航')),
+       CONCAT('user', n, '@example.com'),
+       CONCAT('138', LPAD(n, 8, '0'))
+FROM seq;
+
+INSERT INTO courses (name, code, description)
+WITH RECURSIVE seq (n) AS (
+    SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000000
+)
+SELECT CONCAT(ELT(1 + n % 12, '高等数学', '线性代数', '概率论与数理统计', '大学物理', '数据结构', '操作系统',
+                              '计算机网络', '数据库原理', '编译原理', '软件工程', '人工智能导论', '机器学习'),
+              ' ', ELT(1 + (n DIV 12) % 4, 'A', 'B', '上', '下'), ' 第', n, '班'),
+       CONCAT('C', LPAD(n, 8, '0')),
+       CONCAT('本课程介绍', ELT(1 + n % 7, '基本概念', '核心算法', '工程实践', '数学基础', '前沿进展', '案例分析', '实验方法'),
+              '，内容涵盖', ELT(1 + (n DIV 7) % 5, '理论推导', '编程实现', '系统设计', '性能优化', '课程项目'),
+              '，适合', ELT(1 + n % 4, '大一', '大二', '大三', '研究生'), '学生选修。')
+FROM seq;
+
+ANALYZE TABLE students, courses;
+
+-- ==================== LIKE（当前 like 后端） ====================
+-- 前导通配符无法使用 B+ 树索引，每次查询全表扫描 100 万行
+
+EXPLAIN ANALYZE
+SELECT * FROM courses c
+WHERE c.name LIKE '%数据结构%' OR c.code LIKE '%数据结构%' OR c.description LIKE '%数据结构%'
+LIMIT 10 OFFSET 0;
+
+EXPLAIN ANALYZE
+SELECT COUNT(*) FROM courses c
+WHERE c.name LIKE '%数据结构%' OR c.code LIKE '%数据结构%' OR c.description LIKE '%数据结构%';
+
+EXPLAIN ANALYZE
+SELECT * FROM students s
+WHERE s.name LIKE '%思远%' OR s.student_id LIKE '%思远%' OR s.email LIKE '%思远%' OR s.phone LIKE '%思远%'
+LIMIT 10 OFFSET 0;
+
+EXPLAIN ANALYZE
+SELECT COUNT(*) FROM students s
+WHERE s.name LIKE '%思远%' OR s.student_id LIKE '%思远%' OR s.email LIKE '%思远%' OR s.phone LIKE '%思远%';
+
+-- 命中很少时 LIMIT 也无法提前结束
+EXPLAIN ANALYZE
+SELECT * FROM students s
+WHERE s.name LIKE '%S00123456%' OR s.student_id LIKE '%S00123456%' OR s.email LIKE '%S00123456%'
+LIMIT 10 OFFSET 0;
+
+-- ==================== FULLTEXT ngram（fulltext 后端） ====================
+
+ALTER TABLE courses ADD FULLTEXT INDEX ft_courses (name, code, description) WITH PARSER ngram;
+ALTER TABLE students ADD FULLTEXT INDEX ft_students (name, student_id, email) WITH PARSER ngram;
+
+-- 与 CourseRepository.findFulltextHits / countFulltext 相同的查询
+EXPLAIN ANALYZE
+SELECT c.id, FLOOR(MATCH(c.name, c.code, c.description) AGAINST ('"数据结构"' IN BOOLEAN MODE) * 1000) AS score
+FROM courses c
+WHERE MATCH(c.name, c.code, c.description) AGAINST ('"数据结构"' IN BOOLEAN MODE)
+ORDER BY score DESC, c.id LIMIT 10 OFFSET 0;
+
+EXPLAIN ANALYZE
+SELECT COUNT(*) FROM courses c
+WHERE MATCH(c.name, c.code, c.description) AGAINST ('"数据结构"' IN BOOLEAN MODE);
+
+EXPLAIN ANALYZE
+SELECT s.id, FLOOR(MATCH(s.name, s.student_id, s.email) AGAINST ('"思远"' IN BOOLEAN MODE) * 1000) AS score
+FROM students s
+WHERE MATCH(s.name, s.student_id, s.email) AGAINST ('"思远"' IN BOOLEAN MODE)
+ORDER BY score DESC, s.id LIMIT 10 OFFSET 0;
+
+EXPLAIN ANALYZE
+SELECT COUNT(*) FROM students s
+WHERE MATCH(s.name, s.student_id, s.email) AGAINST ('"思远"' IN BOOLEAN MODE);
+
+EXPLAIN ANALYZE
+SELECT s.id, FLOOR(MATCH(s.name, s.student_id, s.email) AGAINST ('"S00123456"' IN BOOLEAN MODE) * 1000) AS score
+FROM students s
+WHERE MATCH(s.name, s.student_id, s.email) AGAINST ('"S00123456"' IN BOOLEAN MODE)
+ORDER BY score DESC, s.id LIMIT 10 OFFSET 0;
+
+-- 游标分页（StudentRepository.findFulltextHitsAfter），以上一页最后一条的 (score, id) 继续
+-- SELECT hits.id, hits.score FROM (...) hits WHERE hits.score < ? OR (hits.score = ? AND hits.id > ?)
+-- ORDER BY hits.score DESC, hits.id LIMIT 11;
+
+-- 结论参考：高频词（命中数万行）两者都需要读取全部命中再排序，全文检索省去逐行 LIKE 匹配；
+-- 低频词（如学号）全文检索只读取倒排链，LIKE 仍扫描全表。
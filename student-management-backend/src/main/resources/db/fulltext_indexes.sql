@@ -0,0 +1,10 @@
+-- 全文检索索引（search.backend = fulltext 时使用）
+-- 应用启动时会检查并自动创建；数据量大时建议在低峰期预先手工执行本脚本。
+-- ngram 分词的 n 由 MySQL 参数 ngram_token_size 决定（默认 2，只读参数，需在 my.cnf 中设置后重启），
+-- 应用配置 search.fulltext.ngram-token-size 须与之一致；短于该长度的关键词回退为 LIKE 查询。
+
+USE student_db;
+
+ALTER TABLE courses ADD FULLTEXT INDEX ft_courses (name, code, description) WITH PARSER ngram;
+
+ALTER TABLE students ADD FULLTEXT INDEX ft_students (name, student_id, email) WITH PARSER ngram;
@@ -30,6 +30,10 @@ CREATE TABLE IF NOT EXISTS courses (
     INDEX idx_teacher_id (teacher_id),
     INDEX idx_status (status),
     INDEX idx_code (code),
+    INDEX idx_category (category),
+    INDEX idx_credits (credits),
+    INDEX idx_start_date (start_date),
+    INDEX idx_end_date (end_date),
     FOREIGN KEY (teacher_id) REFERENCES users(id) ON DELETE SET NULL
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='课程表';
 
@@ -73,10 +77,24 @@ CREATE TABLE IF NOT EXISTS student_courses (
     INDEX idx_student_id (student_id),
     INDEX idx_course_id (course_id),
     INDEX idx_status (status),
+    INDEX idx_student_enroll_date (student_id, enroll_date, id),
     FOREIGN KEY (student_id) REFERENCES students(id) ON DELETE CASCADE,
     FOREIGN KEY (course_id) REFERENCES courses(id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='学生选课表';
 
+-- 选课候补队列表（Redis 有序集合的持久化兜底）
+CREATE TABLE IF NOT EXISTS course_waitlist (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    course_id BIGINT NOT NULL COMMENT '课程ID',
+    student_id BIGINT NOT NULL COMMENT '学生ID',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '加入时间',
+    UNIQUE KEY uk_waitlist_course_student (course_id, student_id),
+    INDEX idx_waitlist_course_id (course_id, id),
+    INDEX idx_waitlist_student_id (student_id),
+    FOREIGN KEY (student_id) REFERENCES students(id) ON DELETE CASCADE,
+    FOREIGN KEY (course_id) REFERENCES courses(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='选课候补队列表';
+
 -- 角色表
 CREATE TABLE IF NOT EXISTS roles (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
@@ -129,6 +147,8 @@ CREATE TABLE IF NOT EXISTS messages (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     INDEX idx_recipient_id (recipient_id),
+    INDEX idx_recipient_status (recipient_id, status),
+    INDEX idx_sender_recipient (sender_id, recipient_id),
     INDEX idx_status (status),
     INDEX idx_created_at (created_at),
     FOREIGN KEY (recipient_id) REFERENCES users(id) ON DELETE CASCADE,
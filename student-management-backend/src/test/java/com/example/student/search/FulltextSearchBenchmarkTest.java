@@ -0,0 +1,170 @@
+package com.example.student.search;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 搜索性能对比：LIKE '%kw%'（like 后端）vs FULLTEXT ngram（fulltext 后端），100 万行
+ *
+ * 需要 MySQL 8，默认跳过。数据由 db/benchmark_search.sql 的生成部分写入独立的 student_bench 库，
+ * 已有 100 万行时不再重复生成。运行方式：
+ * mvn test -Dtest=FulltextSearchBenchmarkTest -Dbenchmark.mysql.url=jdbc:mysql://localhost:3306/
+ *   -Dbenchmark.mysql.username=root -Dbenchmark.mysql.password=...
+ * 查询语句与 CourseRepository / StudentRepository 中的 LIKE 查询和全文查询一致，每页 10 条并带 COUNT。
+ */
+@EnabledIfSystemProperty(named = "benchmark.mysql.url", matches = ".+")
+class FulltextSearchBenchmarkTest {
+    private static final int ROWS = 1_000_000;
+    private static final int PAGE_SIZE = 10;
+    private static final int ROUNDS = 5;
+    private static final String SEED_SCRIPT = "db/benchmark_search.sql";
+    private static final String SEED_END_MARKER = "-- ==================== LIKE";
+
+    private static final String COURSE_LIKE_PAGE = "SELECT * FROM courses c "
+            + "WHERE c.name LIKE ? OR c.code LIKE ? OR c.description LIKE ? LIMIT " + PAGE_SIZE;
+    private static final String COURSE_LIKE_COUNT = "SELECT COUNT(*) FROM courses c "
+            + "WHERE c.name LIKE ? OR c.code LIKE ? OR c.description LIKE ?";
+    private static final String COURSE_FULLTEXT_PAGE = "SELECT c.id, FLOOR(MATCH(c.name, c.code, c.description) "
+            + "AGAINST (? IN BOOLEAN MODE) * 1000) AS score FROM courses c "
+            + "WHERE MATCH(c.name, c.code, c.description) AGAINST (? IN BOOLEAN MODE) "
+            + "ORDER BY score DESC, c.id LIMIT " + PAGE_SIZE;
+    private static final String COURSE_FULLTEXT_COUNT = "SELECT COUNT(*) FROM courses c "
+            + "WHERE MATCH(c.name, c.code, c.description) AGAINST (? IN BOOLEAN MODE)";
+
+    private static final String STUDENT_LIKE_PAGE = "SELECT * FROM students s "
+            + "WHERE s.name LIKE ? OR s.student_id LIKE ? LIMIT " + PAGE_SIZE;
+    private static final String STUDENT_LIKE_COUNT = "SELECT COUNT(*) FROM students s "
+            + "WHERE s.name LIKE ? OR s.student_id LIKE ?";
+    private static final String STUDENT_FULLTEXT_PAGE = "SELECT s.id, FLOOR(MATCH(s.name, s.student_id, s.email) "
+            + "AGAINST (? IN BOOLEAN MODE) * 1000) AS score FROM students s "
+            + "WHERE MATCH(s.name, s.student_id, s.email) AGAINST (? IN BOOLEAN MODE) "
+            + "ORDER BY score DESC, s.id LIMIT " + PAGE_SIZE;
+    private static final String STUDENT_FULLTEXT_COUNT = "SELECT COUNT(*) FROM students s "
+            + "WHERE MATCH(s.name, s.student_id, s.email) AGAINST (? IN BOOLEAN MODE)";
+
+    private static SingleConnectionDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void seed() throws IOException, SQLException {
+        dataSource = new SingleConnectionDataSource(System.getProperty("benchmark.mysql.url"),
+                System.getProperty("benchmark.mysql.username", "root"),
+                System.getProperty("benchmark.mysql.password", ""), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE DATABASE IF NOT EXISTS student_bench DEFAULT CHARSET utf8mb4 COLLATE utf8mb4_unicode_ci");
+        jdbcTemplate.execute("USE student_bench");
+
+        long courses = tableRows("courses");
+        long students = tableRows("students");
+        if (courses == 0 && students == 0) {
+            String script = new String(new ClassPathResource(SEED_SCRIPT).getInputStream().readAllBytes(),
+                    StandardCharsets.UTF_8);
+            String generators = script.substring(0, script.indexOf(SEED_END_MARKER));
+            try (Connection connection = dataSource.getConnection()) {
+                ScriptUtils.executeSqlScript(connection,
+                        new ByteArrayResource(generators.getBytes(StandardCharsets.UTF_8)));
+            }
+        } else if (courses != ROWS || students != ROWS) {
+            throw new IllegalStateException("student_bench 数据不完整，请先 DROP DATABASE student_bench 后重试");
+        }
+
+        createFulltextIndex("courses", "ft_courses", "name, code, description");
+        createFulltextIndex("students", "ft_students", "name, student_id, email");
+    }
+
+    @AfterAll
+    static void close() {
+        if (dataSource != null) {
+            dataSource.destroy();
+        }
+    }
+
+    @Test
+    void compareCourseSearch() {
+        for (String keyword : new String[]{"数据结构", "机器学习", "C00123456"}) {
+            compare("courses", keyword,
+                    () -> like(COURSE_LIKE_PAGE, COURSE_LIKE_COUNT, keyword, 3),
+                    () -> fulltext(COURSE_FULLTEXT_PAGE, COURSE_FULLTEXT_COUNT, keyword));
+        }
+    }
+
+    @Test
+    void compareStudentSearch() {
+        for (String keyword : new String[]{"思远", "张子涵", "S00123456"}) {
+            compare("students", keyword,
+                    () -> like(STUDENT_LIKE_PAGE, STUDENT_LIKE_COUNT, keyword, 2),
+                    () -> fulltext(STUDENT_FULLTEXT_PAGE, STUDENT_FULLTEXT_COUNT, keyword));
+        }
+    }
+
+    private void compare(String table, String keyword, LongSupplier like, LongSupplier fulltext) {
+        // 预热一轮，同时校验两种查询命中行数一致
+        assertThat(fulltext.getAsLong()).as("%s '%s' 命中数", table, keyword).isEqualTo(like.getAsLong());
+
+        double likeMs = medianMillis(like);
+        double fulltextMs = medianMillis(fulltext);
+        System.out.printf("%-8s %-12s LIKE %9.2f ms  FULLTEXT %9.2f ms  (%.1fx)%n",
+                table, keyword, likeMs, fulltextMs, likeMs / fulltextMs);
+    }
+
+    private static double medianMillis(LongSupplier query) {
+        long[] samples = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            query.getAsLong();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[ROUNDS / 2] / 1e6;
+    }
+
+    /**
+     * 一页 + COUNT，返回命中总数
+     */
+    private static long like(String pageSql, String countSql, String keyword, int columns) {
+        Object[] args = new Object[columns];
+        Arrays.fill(args, "%" + keyword + "%");
+        jdbcTemplate.queryForList(pageSql, args);
+        return jdbcTemplate.queryForObject(countSql, Long.class, args);
+    }
+
+    /**
+     * 与 FulltextSearchBackend 相同的短语查询：一页 + COUNT，返回命中总数
+     */
+    private static long fulltext(String pageSql, String countSql, String keyword) {
+        String query = '"' + keyword + '"';
+        jdbcTemplate.queryForList(pageSql, query, query);
+        return jdbcTemplate.queryForObject(countSql, Long.class, query);
+    }
+
+    private static long tableRows(String table) {
+        Long exists = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.tables "
+                + "WHERE table_schema = 'student_bench' AND table_name = ?", Long.class, table);
+        return exists == 0 ? 0 : jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private static void createFulltextIndex(String table, String index, String columns) {
+        Long exists = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.statistics "
+                + "WHERE table_schema = 'student_bench' AND table_name = ? AND index_name = ?", Long.class, table, index);
+        if (exists == 0) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ADD FULLTEXT INDEX " + index
+                    + " (" + columns + ") WITH PARSER ngram");
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.student.search;
+
+import com.example.student.search.analysis.Analyzer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex(Analyzer.chinese(), true, 5, 4, 1);
+        index.put(1L, "高等数学", "MATH-101", "微积分基础");
+        index.put(2L, "高等数学（下）", "MATH-102", "多元微积分");
+        index.put(3L, "线性代数", "MATH-201", "矩阵与向量空间");
+    }
+
+    @Test
+    void findsByChineseSubstringAndPinyinInitials() {
+        assertThat(index.search("高数", 0, 10).getIds()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("gdsx", 0, 10).getIds()).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void offsetPastEndReturnsEmptyPageWithTotal() {
+        SearchHits hits = index.search("高等数学", 5, 10);
+
+        assertThat(hits.getIds()).isEmpty();
+        assertThat(hits.getTotal()).isEqualTo(2);
+    }
+
+    @Test
+    void hugeOffsetAndLimitDoNotOverflow() {
+        SearchHits hits = index.search("高等数学", (long) Integer.MAX_VALUE * 100, Integer.MAX_VALUE);
+        assertThat(hits.getIds()).isEmpty();
+
+        SearchHits all = index.search("高等数学", 1, Integer.MAX_VALUE);
+        assertThat(all.getIds()).hasSize(1);
+        assertThat(all.getTotal()).isEqualTo(2);
+    }
+}
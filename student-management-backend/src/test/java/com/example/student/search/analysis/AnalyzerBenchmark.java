@@ -0,0 +1,137 @@
+package com.example.student.search.analysis;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分析器吞吐基准：归一化、拼音扩展、文档分词和查询分词
+ *
+ * 运行方式：mvn test -Dtest=AnalyzerBenchmark -Dbenchmark=true，
+ * 或在 IDE 中直接运行 main 方法。默认构建中跳过。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalyzerBenchmark {
+    private static final String[] SUBJECTS = {
+            "高等数学", "线性代数", "概率论与数理统计", "大学物理", "数据结构", "操作系统",
+            "计算机网络", "编译原理", "数据库系统概论", "Java程序设计", "软件工程", "大学英语"
+    };
+    private static final String[] SUFFIXES = {"", "（上）", "（下）", "Ａ班", "实验", " II"};
+    private static final String[] QUERIES = {"高数", "gs", "gdsx", "数据", "sjjg", "java", "Ｊａｖａ程序"};
+
+    private Analyzer standard;
+    private Analyzer chinese;
+    private String[] names;
+    private String[] normalizedNames;
+    private String[] variants;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        standard = Analyzer.standard();
+        chinese = Analyzer.chinese();
+        names = new String[SUBJECTS.length * SUFFIXES.length * 4];
+        int n = 0;
+        for (int grade = 1; grade <= 4; grade++) {
+            for (String subject : SUBJECTS) {
+                for (String suffix : SUFFIXES) {
+                    names[n++] = subject + suffix + (grade == 1 ? "" : grade + "级");
+                }
+            }
+        }
+        normalizedNames = new String[names.length];
+        for (int i = 0; i < names.length; i++) {
+            normalizedNames[i] = chinese.normalize(names[i]);
+        }
+        variants = new String[chinese.variantCount()];
+    }
+
+    private int next() {
+        cursor = cursor + 1 == names.length ? 0 : cursor + 1;
+        return cursor;
+    }
+
+    @Benchmark
+    public String normalize() {
+        return standard.normalize(names[next()]);
+    }
+
+    /**
+     * 中文管道：归一化 + 拼音全拼 + 首字母，建索引时每个字段都要走一遍
+     */
+    @Benchmark
+    public String[] analyzeWithPinyin() {
+        chinese.analyze(names[next()], variants, 0);
+        return variants;
+    }
+
+    @Benchmark
+    public Set<String> documentTerms() {
+        Set<String> terms = new HashSet<>();
+        chinese.tokenizer().documentTerms(normalizedNames[next()], true, terms);
+        return terms;
+    }
+
+    /**
+     * 完整建索引路径（课程索引）：分析出全部形式后逐一分词
+     */
+    @Benchmark
+    public Set<String> analyzeAndTokenize() {
+        chinese.analyze(names[next()], variants, 0);
+        Set<String> terms = new HashSet<>();
+        for (String variant : variants) {
+            if (variant != null) {
+                chinese.tokenizer().documentTerms(variant, true, terms);
+            }
+        }
+        return terms;
+    }
+
+    @Benchmark
+    public void queryTerms(Blackhole blackhole) {
+        NGramTokenizer tokenizer = chinese.tokenizer();
+        for (String query : QUERIES) {
+            String normalized = chinese.normalize(query);
+            List<String> terms = tokenizer.queryTerms(normalized, tokenizer.isPrefixQuery(normalized));
+            blackhole.consume(terms);
+            blackhole.consume(tokenizer.abbreviationTerms(normalized));
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void runBenchmarks() throws RunnerException {
+        main(new String[0]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AnalyzerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.student.service;
+
+import com.example.student.dto.StudentCourseDTO;
+import com.example.student.entity.Course;
+import com.example.student.entity.StudentCourse;
+import com.example.student.entity.User;
+import com.example.student.repository.CourseRepository;
+import com.example.student.repository.StudentCourseRepository;
+import com.example.student.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 可选课程列表：5 万门课程下由数据库完成反连接过滤与分页
+ *
+ * 默认只校验结果与逐条过滤一致、每页 SQL 条数恒定；
+ * 加 -Dbenchmark=true 时额外对比数据库分页与"全量加载后内存过滤"的耗时。
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({StudentCourseService.class, SeatReservationService.class})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AvailableCoursesBenchmarkTest {
+    private static final int COURSES = 50_000;
+    private static final int TEACHERS = 50;
+    private static final int ENROLLED = 500;
+    private static final long STUDENT_ID = 1L;
+    private static final int PAGE_SIZE = 20;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private StudentCourseService studentCourseService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentCourseRepository studentCourseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private TimetableIndex timetableIndex;
+
+    @MockBean
+    private WaitlistService waitlistService;
+
+    @BeforeEach
+    void setUp() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM courses", Long.class) == COURSES) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM student_courses");
+        jdbcTemplate.update("DELETE FROM courses");
+        jdbcTemplate.update("DELETE FROM users");
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> teachers = new ArrayList<>(TEACHERS);
+        for (int i = 1; i <= TEACHERS; i++) {
+            teachers.add(new Object[]{(long) i, "teacher" + i, "x", now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, username, password, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?)", teachers);
+
+        List<Object[]> courses = new ArrayList<>(COURSES);
+        for (int i = 1; i <= COURSES; i++) {
+            // 每 10 门课有一门已关闭
+            String status = i % 10 == 0 ? "closed" : "open";
+            courses.add(new Object[]{(long) i, "课程" + i, "C" + i, 100, 0, status,
+                    (long) (i % TEACHERS + 1), now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO courses (id, name, code, capacity, enrolled, status, teacher_id, "
+                + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", courses);
+
+        List<Object[]> enrollments = new ArrayList<>(ENROLLED * 2);
+        for (int i = 0; i < ENROLLED * 2; i++) {
+            // 前一半为有效选课，后一半已退课（退课后的课程仍可再选）
+            String status = i < ENROLLED ? "active" : "dropped";
+            enrollments.add(new Object[]{STUDENT_ID, (long) (i * 7 + 1), status, now, now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO student_courses (student_id, course_id, status, enroll_date, "
+                + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)", enrollments);
+    }
+
+    @Test
+    void databasePageMatchesInMemoryFilter() {
+        for (int pageNo : new int[]{0, 7, 1000}) {
+            PageRequest pageable = PageRequest.of(pageNo, PAGE_SIZE);
+            Page<StudentCourseDTO> page = studentCourseService.getAvailableCourses(STUDENT_ID, pageable);
+            List<StudentCourseDTO> expected = naiveAvailableCourses(pageable);
+
+            assertThat(page.getContent()).extracting(StudentCourseDTO::getCourseId)
+                    .containsExactlyElementsOf(expected.stream().map(StudentCourseDTO::getCourseId).toList());
+            assertThat(page.getContent()).extracting(StudentCourseDTO::getTeacherName)
+                    .containsExactlyElementsOf(expected.stream().map(StudentCourseDTO::getTeacherName).toList());
+        }
+        long open = COURSES - COURSES / 10;
+        long activeOpen = studentCourseRepository.findByStudentIdAndStatus(STUDENT_ID, "active").stream()
+                .filter(sc -> sc.getCourseId() % 10 != 0)
+                .count();
+        assertThat(studentCourseService.getAvailableCourses(STUDENT_ID, PageRequest.of(0, PAGE_SIZE))
+                .getTotalElements()).isEqualTo(open - activeOpen);
+    }
+
+    @Test
+    void queryCountDoesNotGrowWithPageSize() {
+        Statistics statistics = statistics();
+        long small = countStatements(statistics, PageRequest.of(3, 10));
+        long large = countStatements(statistics, PageRequest.of(3, 500));
+
+        // 内容查询 + 计数查询，与页大小、课程总数无关
+        assertThat(small).isEqualTo(2);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void databasePagingOutperformsInMemoryFilter() {
+        // 预热
+        for (int i = 0; i < 3; i++) {
+            studentCourseService.getAvailableCourses(STUDENT_ID, PageRequest.of(i, PAGE_SIZE));
+            naiveAvailableCourses(PageRequest.of(i, PAGE_SIZE));
+        }
+
+        long dbStart = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            studentCourseService.getAvailableCourses(STUDENT_ID, PageRequest.of(i * 100, PAGE_SIZE));
+        }
+        long dbNanos = System.nanoTime() - dbStart;
+
+        long naiveStart = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            naiveAvailableCourses(PageRequest.of(i * 100, PAGE_SIZE));
+        }
+        long naiveNanos = System.nanoTime() - naiveStart;
+
+        System.out.printf("可选课程 %d 门课程 %d 页：数据库分页 %.2f ms/页，内存过滤 %.2f ms/页%n",
+                COURSES, ROUNDS, dbNanos / 1e6 / ROUNDS, naiveNanos / 1e6 / ROUNDS);
+        assertThat(dbNanos).isLessThan(naiveNanos);
+    }
+
+    private long countStatements(Statistics statistics, PageRequest pageable) {
+        statistics.clear();
+        studentCourseService.getAvailableCourses(STUDENT_ID, pageable);
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * 改造前的做法：加载全部课程和选课记录，在内存中过滤、截取，再逐条查询教师
+     */
+    private List<StudentCourseDTO> naiveAvailableCourses(PageRequest pageable) {
+        Set<Long> enrolled = studentCourseRepository.findByStudentId(STUDENT_ID).stream()
+                .filter(sc -> "active".equals(sc.getStatus()))
+                .map(StudentCourse::getCourseId)
+                .collect(Collectors.toSet());
+        List<Course> available = courseRepository.findAll().stream()
+                .filter(c -> "open".equals(c.getStatus()) && !enrolled.contains(c.getId()))
+                .sorted((a, b) -> Long.compare(a.getId(), b.getId()))
+                .toList();
+        int from = (int) Math.min(pageable.getOffset(), available.size());
+        int to = Math.min(from + pageable.getPageSize(), available.size());
+
+        List<StudentCourseDTO> result = new ArrayList<>(to - from);
+        for (Course course : available.subList(from, to)) {
+            StudentCourseDTO dto = new StudentCourseDTO();
+            dto.setCourseId(course.getId());
+            dto.setTeacherName(course.getTeacherId() == null ? "N/A"
+                    : userRepository.findById(course.getTeacherId()).map(User::getUsername).orElse("N/A"));
+            result.add(dto);
+        }
+        return result;
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
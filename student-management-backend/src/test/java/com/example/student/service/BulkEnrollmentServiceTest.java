@@ -0,0 +1,91 @@
+package com.example.student.service;
+
+import com.example.student.dto.BulkEnrollRequest;
+import com.example.student.dto.BulkEnrollResultDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * 批量选课：重新激活的记录清除旧成绩，选上的学生移出该课程候补队列
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({BulkEnrollmentService.class, WaitlistService.class, SeatReservationService.class, ObjectMapper.class})
+class BulkEnrollmentServiceTest {
+    private static final long COURSE_ID = 1L;
+    private static final long OTHER_COURSE_ID = 2L;
+
+    @Autowired
+    private BulkEnrollmentService bulkEnrollmentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private TimetableIndex timetableIndex;
+
+    @MockBean
+    private StringRedisTemplate redisTemplate;
+
+    private List<Long> studentIds;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM course_waitlist");
+        jdbcTemplate.update("DELETE FROM student_courses");
+        jdbcTemplate.update("DELETE FROM students");
+        jdbcTemplate.update("DELETE FROM courses");
+        LocalDateTime now = LocalDateTime.now();
+        for (long id : new long[]{COURSE_ID, OTHER_COURSE_ID}) {
+            jdbcTemplate.update("INSERT INTO courses (id, name, code, capacity, enrolled, status, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, 10, 0, 'open', ?, ?)", id, "批量课程" + id, "BULK-" + id, now, now);
+        }
+        for (int i = 1; i <= 2; i++) {
+            jdbcTemplate.update("INSERT INTO students (student_id, name, class_id, status, created_at, updated_at) "
+                    + "VALUES (?, ?, 1, 'active', ?, ?)", "B" + i, "学生" + i, now, now);
+        }
+        studentIds = jdbcTemplate.queryForList("SELECT id FROM students ORDER BY id", Long.class);
+        jdbcTemplate.update("INSERT INTO student_courses (student_id, course_id, status, grade, enroll_date, "
+                + "created_at, updated_at) VALUES (?, ?, 'completed', 'D', ?, ?, ?)", studentIds.get(0), COURSE_ID, now, now, now);
+        for (Long studentId : studentIds) {
+            jdbcTemplate.update("INSERT INTO course_waitlist (course_id, student_id, created_at) VALUES (?, ?, ?)",
+                    COURSE_ID, studentId, now);
+        }
+        // 另一门课程的候补不受影响
+        jdbcTemplate.update("INSERT INTO course_waitlist (course_id, student_id, created_at) VALUES (?, ?, ?)",
+                OTHER_COURSE_ID, studentIds.get(0), now);
+        when(timetableIndex.findConflict(anyCollection(), anyLong())).thenReturn(null);
+    }
+
+    @Test
+    void reactivationClearsGradeAndEnrolledStudentsLeaveWaitlist() {
+        BulkEnrollResultDTO result = bulkEnrollmentService.bulkEnroll(
+                BulkEnrollRequest.builder().studentIds(studentIds).courseIds(List.of(COURSE_ID)).build());
+
+        assertThat(result.getSucceeded()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForList("SELECT grade FROM student_courses WHERE course_id = ? AND status = 'active'",
+                String.class, COURSE_ID)).hasSize(2).containsOnlyNulls();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM course_waitlist WHERE course_id = ?",
+                Long.class, COURSE_ID)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM course_waitlist WHERE course_id = ?",
+                Long.class, OTHER_COURSE_ID)).isEqualTo(1);
+    }
+}
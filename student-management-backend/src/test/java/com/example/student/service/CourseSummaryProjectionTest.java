@@ -0,0 +1,185 @@
+package com.example.student.service;
+
+import com.example.student.dto.CourseDTO;
+import com.example.student.dto.CourseFilter;
+import com.example.student.dto.PageResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 课程列表投影：列表行不读取 TEXT 列，只有详情接口读取；
+ * 并对比 1 万门课程逐页扫描时完整 DTO 与列表行 DTO 的响应体积和堆分配
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(CourseService.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.student.service.CourseSummaryProjectionTest$SqlCapture")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CourseSummaryProjectionTest {
+    private static final int COURSES = 10_000;
+    private static final int PAGE_SIZE = 100;
+    private static final String[] TEXT_COLUMNS = {"description", "syllabus", "requirements"};
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private CountService countService;
+
+    @MockBean
+    private TimetableIndex timetableIndex;
+
+    @MockBean
+    private WaitlistService waitlistService;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    @BeforeEach
+    void setUp() {
+        SqlCapture.STATEMENTS.clear();
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM courses", Long.class) == COURSES) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM student_courses");
+        jdbcTemplate.update("DELETE FROM courses");
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate start = LocalDate.of(2024, 9, 1);
+        List<Object[]> rows = new ArrayList<>(COURSES);
+        for (int i = 1; i <= COURSES; i++) {
+            // 简介、大纲、要求按常见长度生成
+            rows.add(new Object[]{(long) i, "课程" + i, "C" + i, (long) (i % 50 + 1), "专业必修", 100, i % 100,
+                    "open", start, start.plusMonths(4), 3, "教学楼" + (i % 20) + "-101",
+                    "本课程介绍基本概念与核心方法。".repeat(10),
+                    "第一章 绪论；第二章 基础理论；第三章 方法与实践；".repeat(30),
+                    "先修课程：高等数学、线性代数。".repeat(5),
+                    now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO courses (id, name, code, teacher_id, category, capacity, enrolled, "
+                + "status, start_date, end_date, credits, location, description, syllabus, requirements, "
+                + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @Test
+    void summaryQueriesSkipTextColumns() {
+        courseService.listCourseSummariesByCursor(new CourseFilter(), null, PAGE_SIZE);
+        assertThat(courseSelects()).isNotEmpty().allSatisfy(sql -> assertThat(sql).doesNotContain(TEXT_COLUMNS));
+
+        // 完整列表和详情仍读取 TEXT 列
+        SqlCapture.STATEMENTS.clear();
+        courseService.listCoursesByCursor(new CourseFilter(), null, PAGE_SIZE);
+        assertThat(courseSelects()).anySatisfy(sql -> assertThat(sql).contains(TEXT_COLUMNS));
+
+        SqlCapture.STATEMENTS.clear();
+        CourseDTO detail = courseService.getCourseById(1L);
+        assertThat(detail.getSyllabus()).isNotEmpty();
+        assertThat(courseSelects()).anySatisfy(sql -> assertThat(sql).contains(TEXT_COLUMNS));
+    }
+
+    @Test
+    void cursorListsClampOutOfRangeSize() {
+        assertThat(courseService.listCoursesByCursor(new CourseFilter(), "", 0).getRecords()).hasSize(10);
+        assertThat(courseService.listCourseSummariesByCursor(new CourseFilter(), "", 0).getRecords()).hasSize(10);
+        assertThat(courseService.listCourseSummariesByCursor(new CourseFilter(), "", 10_000).getRecords()).hasSize(10);
+    }
+
+    @Test
+    void summaryScanIsSmallerAndAllocatesLess() throws JsonProcessingException {
+        // 预热一轮，避免类加载和 JIT 计入首个被测对象
+        scan(courseService::listCoursesByCursor);
+        scan(courseService::listCourseSummariesByCursor);
+
+        ScanResult full = scan(courseService::listCoursesByCursor);
+        ScanResult summary = scan(courseService::listCourseSummariesByCursor);
+
+        System.out.printf("扫描 %d 门课程（每页 %d 条）：完整 DTO 响应 %d KB、分配 %d MB；列表行 响应 %d KB、分配 %d MB%n",
+                COURSES, PAGE_SIZE, full.payloadBytes / 1024, full.allocatedBytes >> 20,
+                summary.payloadBytes / 1024, summary.allocatedBytes >> 20);
+        assertThat(full.rows).isEqualTo(COURSES);
+        assertThat(summary.rows).isEqualTo(COURSES);
+        assertThat(summary.payloadBytes).isLessThan(full.payloadBytes / 2);
+        assertThat(summary.allocatedBytes).isLessThan(full.allocatedBytes);
+    }
+
+    /**
+     * 按游标逐页扫描全部课程：堆分配只统计查询和转换，响应体积为每页序列化后的字节数之和
+     */
+    private <T> ScanResult scanPages(BiFunction<CourseFilter, String, PageResponse<T>> lister)
+            throws JsonProcessingException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        ScanResult result = new ScanResult();
+        String cursor = null;
+        do {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            PageResponse<T> page = lister.apply(new CourseFilter(), cursor);
+            result.allocatedBytes += threads.getThreadAllocatedBytes(threadId) - before;
+            result.payloadBytes += objectMapper.writeValueAsBytes(page).length;
+            result.rows += page.getRecords().size();
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return result;
+    }
+
+    private <T> ScanResult scan(ListerBySize<T> lister) throws JsonProcessingException {
+        return scanPages((filter, cursor) -> lister.list(filter, cursor, PAGE_SIZE));
+    }
+
+    private static List<String> courseSelects() {
+        return SqlCapture.STATEMENTS.stream()
+                .filter(sql -> sql.startsWith("select") && sql.contains(" from courses"))
+                .toList();
+    }
+
+    @FunctionalInterface
+    private interface ListerBySize<T> {
+        PageResponse<T> list(CourseFilter filter, String cursor, int size);
+    }
+
+    private static class ScanResult {
+        long rows;
+        long payloadBytes;
+        long allocatedBytes;
+    }
+
+    /**
+     * 记录 Hibernate 发出的 SQL（小写）
+     */
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.toLowerCase());
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.student.service;
+
+import com.example.student.dto.PageResponse;
+import com.example.student.dto.StudentCourseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 选课历史游标分页：enroll_date 为 NULL 的记录不丢失，size 非法时拒绝
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({StudentCourseService.class, SeatReservationService.class})
+class StudentCourseHistoryCursorTest {
+    private static final long STUDENT_ID = 1L;
+
+    @Autowired
+    private StudentCourseService studentCourseService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private TimetableIndex timetableIndex;
+
+    @MockBean
+    private WaitlistService waitlistService;
+
+    private final List<Long> expectedOrder = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM student_courses");
+        jdbcTemplate.update("DELETE FROM courses");
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO courses (id, name, code, capacity, enrolled, status, created_at, updated_at) "
+                + "VALUES (1, '历史课程', 'HIS-001', 50, 0, 'open', ?, ?)", now, now);
+
+        LocalDateTime day1 = LocalDateTime.of(2024, 9, 1, 8, 0);
+        LocalDateTime day2 = LocalDateTime.of(2024, 9, 2, 8, 0);
+        // 期望顺序：enroll_date 倒序、id 倒序，NULL 排在最后
+        insert(10L, day2);
+        insert(11L, day2);
+        insert(12L, day1);
+        insert(13L, null);
+        insert(14L, day1);
+        insert(15L, null);
+        insert(16L, null);
+        expectedOrder.addAll(List.of(11L, 10L, 14L, 12L, 16L, 15L, 13L));
+    }
+
+    @Test
+    void cursorPagesVisitEveryRowIncludingNullDates() {
+        List<Long> visited = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            PageResponse<StudentCourseDTO> page =
+                    studentCourseService.getEnrollmentHistoryByCursor(STUDENT_ID, cursor, 2);
+            page.getRecords().forEach(record -> visited.add(record.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null && pages < 10);
+
+        assertThat(visited).containsExactlyElementsOf(expectedOrder);
+    }
+
+    @Test
+    void rejectsNonPositiveSize() {
+        assertThatThrownBy(() -> studentCourseService.getEnrollmentHistoryByCursor(STUDENT_ID, null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void insert(Long id, LocalDateTime enrollDate) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO student_courses (id, student_id, course_id, enroll_date, status, created_at, updated_at) "
+                + "VALUES (?, ?, 1, ?, 'completed', ?, ?)", id, STUDENT_ID,
+                enrollDate == null ? null : Timestamp.valueOf(enrollDate), now, now);
+    }
+}
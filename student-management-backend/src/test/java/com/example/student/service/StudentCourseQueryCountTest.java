@@ -0,0 +1,139 @@
+package com.example.student.service;
+
+import com.example.student.dto.StudentCourseDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 选课 DTO 转换批量加载课程和教师：SQL 条数不随每页行数增长
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({StudentCourseService.class, SeatReservationService.class})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class StudentCourseQueryCountTest {
+    private static final long SMALL_STUDENT = 1L;
+    private static final long LARGE_STUDENT = 2L;
+    private static final int SMALL = 5;
+    private static final int LARGE = 100;
+
+    @Autowired
+    private StudentCourseService studentCourseService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private TimetableIndex timetableIndex;
+
+    @MockBean
+    private WaitlistService waitlistService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM student_courses");
+        jdbcTemplate.update("DELETE FROM courses");
+        jdbcTemplate.update("DELETE FROM users");
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> teachers = new ArrayList<>();
+        List<Object[]> courses = new ArrayList<>();
+        for (int i = 1; i <= LARGE; i++) {
+            // 每门课一个不同的教师，逐条查询时 SQL 条数与行数成正比
+            teachers.add(new Object[]{(long) i, "teacher" + i, "x", now, now});
+            courses.add(new Object[]{(long) i, "课程" + i, "C" + i, 100, 0, "open", (long) i, now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, username, password, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?)", teachers);
+        jdbcTemplate.batchUpdate("INSERT INTO courses (id, name, code, capacity, enrolled, status, teacher_id, "
+                + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", courses);
+
+        List<Object[]> enrollments = new ArrayList<>();
+        for (int i = 1; i <= LARGE; i++) {
+            if (i <= SMALL) {
+                enrollments.add(new Object[]{SMALL_STUDENT, (long) i, now, now, now});
+            }
+            enrollments.add(new Object[]{LARGE_STUDENT, (long) i, now.minusMinutes(i), now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO student_courses (student_id, course_id, status, enroll_date, "
+                + "created_at, updated_at) VALUES (?, ?, 'active', ?, ?, ?)", enrollments);
+    }
+
+    @Test
+    void enrolledCoursesUseConstantQueries() {
+        long small = countStatements(() -> studentCourseService
+                .getEnrolledCourses(SMALL_STUDENT, "active", PageRequest.of(0, SMALL)).getContent());
+        long large = countStatements(() -> studentCourseService
+                .getEnrolledCourses(LARGE_STUDENT, "active", PageRequest.of(0, LARGE)).getContent());
+
+        // 分页查询 + 计数 + 课程 IN + 教师 IN
+        assertThat(small).isLessThanOrEqualTo(4);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void enrollmentHistoryUsesConstantQueries() {
+        long small = countStatements(() -> studentCourseService
+                .getEnrollmentHistory(SMALL_STUDENT, PageRequest.of(0, SMALL)).getContent());
+        long large = countStatements(() -> studentCourseService
+                .getEnrollmentHistory(LARGE_STUDENT, PageRequest.of(0, LARGE)).getContent());
+
+        assertThat(small).isLessThanOrEqualTo(4);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void cursorHistoryAndActiveListUseConstantQueries() {
+        long smallCursor = countStatements(() -> studentCourseService
+                .getEnrollmentHistoryByCursor(SMALL_STUDENT, null, SMALL).getRecords());
+        long largeCursor = countStatements(() -> studentCourseService
+                .getEnrollmentHistoryByCursor(LARGE_STUDENT, null, LARGE).getRecords());
+        assertThat(largeCursor).isEqualTo(smallCursor);
+
+        long smallActive = countStatements(() -> studentCourseService.getActiveEnrollments(SMALL_STUDENT));
+        long largeActive = countStatements(() -> studentCourseService.getActiveEnrollments(LARGE_STUDENT));
+        assertThat(largeActive).isEqualTo(smallActive);
+    }
+
+    @Test
+    void convertedRowsCarryCourseAndTeacher() {
+        Page<StudentCourseDTO> page = studentCourseService
+                .getEnrolledCourses(LARGE_STUDENT, "active", PageRequest.of(0, LARGE));
+
+        assertThat(page.getContent()).hasSize(LARGE).allSatisfy(dto -> {
+            assertThat(dto.getCourseName()).isEqualTo("课程" + dto.getCourseId());
+            assertThat(dto.getTeacherName()).isEqualTo("teacher" + dto.getCourseId());
+        });
+    }
+
+    private long countStatements(Supplier<List<StudentCourseDTO>> call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertThat(call.get()).isNotEmpty();
+        return statistics.getPrepareStatementCount();
+    }
+}
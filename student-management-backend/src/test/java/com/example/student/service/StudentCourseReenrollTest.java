@@ -0,0 +1,73 @@
+package com.example.student.service;
+
+import com.example.student.entity.StudentCourse;
+import com.example.student.repository.StudentCourseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * 重新选课：复用已退课的记录，状态恢复为 active 且清除旧成绩
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({StudentCourseService.class, SeatReservationService.class})
+class StudentCourseReenrollTest {
+    private static final long COURSE_ID = 1L;
+
+    @Autowired
+    private StudentCourseService studentCourseService;
+
+    @Autowired
+    private StudentCourseRepository studentCourseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private TimetableIndex timetableIndex;
+
+    @MockBean
+    private WaitlistService waitlistService;
+
+    private Long studentId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM student_courses");
+        jdbcTemplate.update("DELETE FROM students");
+        jdbcTemplate.update("DELETE FROM courses");
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO courses (id, name, code, capacity, enrolled, status, created_at, updated_at) "
+                + "VALUES (?, '重修课程', 'RE-001', 10, 0, 'open', ?, ?)", COURSE_ID, now, now);
+        jdbcTemplate.update("INSERT INTO students (student_id, name, class_id, status, created_at, updated_at) "
+                + "VALUES ('S1', '学生1', 1, 'active', ?, ?)", now, now);
+        studentId = jdbcTemplate.queryForObject("SELECT id FROM students", Long.class);
+        jdbcTemplate.update("INSERT INTO student_courses (student_id, course_id, status, grade, enroll_date, "
+                + "created_at, updated_at) VALUES (?, ?, 'dropped', 'C', ?, ?, ?)", studentId, COURSE_ID, now, now, now);
+        when(timetableIndex.findConflict(anyLong(), anyLong())).thenReturn(null);
+    }
+
+    @Test
+    void reenrollReusesRowAndClearsGrade() {
+        studentCourseService.enrollCourse(studentId, COURSE_ID);
+
+        StudentCourse row = studentCourseRepository.findByStudentIdAndCourseId(studentId, COURSE_ID).orElseThrow();
+        assertThat(row.getStatus()).isEqualTo("active");
+        assertThat(row.getGrade()).isNull();
+        assertThat(studentCourseRepository.findByCourseId(COURSE_ID)).hasSize(1);
+    }
+}
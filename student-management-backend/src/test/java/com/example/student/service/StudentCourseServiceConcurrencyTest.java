@@ -0,0 +1,133 @@
+package com.example.student.service;
+
+import com.example.student.entity.Course;
+import com.example.student.repository.CourseRepository;
+import com.example.student.repository.StudentCourseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * 并发选课：10000 个学生同时抢 50 个座位，不超卖、不死锁
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({StudentCourseService.class, SeatReservationService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StudentCourseServiceConcurrencyTest {
+    private static final int STUDENTS = 10_000;
+    private static final int SEATS = 50;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private StudentCourseService studentCourseService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentCourseRepository studentCourseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private TimetableIndex timetableIndex;
+
+    @MockBean
+    private WaitlistService waitlistService;
+
+    private Long courseId;
+    private List<Long> studentIds;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM student_courses");
+        jdbcTemplate.update("DELETE FROM students");
+        jdbcTemplate.update("DELETE FROM courses");
+        // 与 schema_v2.sql 一致的外键：插入选课记录时会对课程行加共享锁
+        jdbcTemplate.execute("ALTER TABLE student_courses ADD CONSTRAINT IF NOT EXISTS fk_sc_course "
+                + "FOREIGN KEY (course_id) REFERENCES courses(id)");
+        jdbcTemplate.execute("ALTER TABLE student_courses ADD CONSTRAINT IF NOT EXISTS fk_sc_student "
+                + "FOREIGN KEY (student_id) REFERENCES students(id)");
+
+        Course course = new Course();
+        course.setName("并发选课");
+        course.setCode("CONC-001");
+        course.setCapacity(SEATS);
+        course.setEnrolled(0);
+        course.setStatus("open");
+        courseId = courseRepository.save(course).getId();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(STUDENTS);
+        for (int i = 0; i < STUDENTS; i++) {
+            rows.add(new Object[]{"S" + i, "学生" + i, 1L, "active", now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO students (student_id, name, class_id, status, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+        studentIds = jdbcTemplate.queryForList("SELECT id FROM students", Long.class);
+        // Mockito 对 Long 返回值默认给 0，这里显式表示"无冲突"
+        when(timetableIndex.findConflict(anyLong(), anyLong())).thenReturn(null);
+    }
+
+    @Test
+    void parallelEnrollmentsNeverOversellOrDeadlock() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(STUDENTS);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+        for (Long studentId : studentIds) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    studentCourseService.enrollCourse(studentId, courseId);
+                    succeeded.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    rejected.incrementAndGet();
+                } catch (Throwable e) {
+                    // 死锁、锁等待超时等都会落到这里
+                    failures.add(e);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertThat(done.await(5, TimeUnit.MINUTES)).isTrue();
+        executor.shutdown();
+
+        assertThat(failures).isEmpty();
+        assertThat(succeeded.get()).isEqualTo(SEATS);
+        assertThat(rejected.get()).isEqualTo(STUDENTS - SEATS);
+        assertThat(courseRepository.findById(courseId).orElseThrow().getEnrolled()).isEqualTo(SEATS);
+        assertThat(studentCourseRepository.count()).isEqualTo(SEATS);
+    }
+}
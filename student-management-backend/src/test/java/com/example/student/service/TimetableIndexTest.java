@@ -0,0 +1,65 @@
+package com.example.student.service;
+
+import com.example.student.entity.CourseSchedule;
+import com.example.student.repository.CourseScheduleRepository;
+import com.example.student.repository.StudentCourseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TimetableIndexTest {
+    private final CourseScheduleRepository scheduleRepository = mock(CourseScheduleRepository.class);
+    private TimetableIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TimetableIndex(scheduleRepository, mock(StudentCourseRepository.class),
+                mock(StringRedisTemplate.class), mock(RedisMessageListenerContainer.class));
+    }
+
+    @Test
+    void endTimeInsideSlotStillConflicts() {
+        // 09:47 结束的课与 09:45 开始的课重叠 2 分钟
+        when(scheduleRepository.findAll()).thenReturn(List.of(
+                schedule(1L, "1", "08:00", "09:47"),
+                schedule(2L, "1", "09:45", "10:30")));
+
+        assertThat(index.findConflict(List.of(1L), 2L)).isEqualTo(1L);
+    }
+
+    @Test
+    void backToBackCoursesDoNotConflict() {
+        when(scheduleRepository.findAll()).thenReturn(List.of(
+                schedule(1L, "周一", "08:00", "09:45"),
+                schedule(2L, "Monday", "09:45", "10:30"),
+                schedule(3L, "1", "22:00", "00:00")));
+
+        assertThat(index.findConflict(List.of(1L, 3L), 2L)).isNull();
+    }
+
+    @Test
+    void differentDaysDoNotConflict() {
+        when(scheduleRepository.findAll()).thenReturn(List.of(
+                schedule(1L, "1", "08:00", "09:47"),
+                schedule(2L, "2", "08:00", "09:47")));
+
+        assertThat(index.findConflict(List.of(1L), 2L)).isNull();
+    }
+
+    private static CourseSchedule schedule(Long courseId, String day, String start, String end) {
+        CourseSchedule schedule = new CourseSchedule();
+        schedule.setCourseId(courseId);
+        schedule.setDayOfWeek(day);
+        schedule.setStartTime(LocalTime.parse(start));
+        schedule.setEndTime(LocalTime.parse(end));
+        return schedule;
+    }
+}
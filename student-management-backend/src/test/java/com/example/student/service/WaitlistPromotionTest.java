@@ -0,0 +1,95 @@
+package com.example.student.service;
+
+import com.example.student.entity.StudentCourse;
+import com.example.student.repository.StudentCourseRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * 候补递补：已退课/已完成的候补者重新激活原记录，只跳过已选该课的候补者
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({WaitlistService.class, SeatReservationService.class, ObjectMapper.class})
+class WaitlistPromotionTest {
+    private static final long COURSE_ID = 1L;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private StudentCourseRepository studentCourseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private TimetableIndex timetableIndex;
+
+    @MockBean
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM course_waitlist");
+        jdbcTemplate.update("DELETE FROM student_courses");
+        jdbcTemplate.update("DELETE FROM courses");
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO courses (id, name, code, capacity, enrolled, status, created_at, updated_at) "
+                + "VALUES (?, '候补课程', 'WAIT-001', 1, 1, 'open', ?, ?)", COURSE_ID, now, now);
+        when(timetableIndex.findConflict(anyLong(), anyLong())).thenReturn(null);
+    }
+
+    @Test
+    void reactivatesDroppedEnrollmentAndClearsGrade() {
+        enrollment(10L, "dropped", "B");
+        waitlist(10L);
+
+        assertThat(waitlistService.promoteNext(COURSE_ID)).isEqualTo(10L);
+
+        StudentCourse row = studentCourseRepository.findByStudentIdAndCourseId(10L, COURSE_ID).orElseThrow();
+        assertThat(row.getStatus()).isEqualTo("active");
+        assertThat(row.getGrade()).isNull();
+        assertThat(studentCourseRepository.findByCourseId(COURSE_ID)).hasSize(1);
+    }
+
+    @Test
+    void skipsOnlyActiveEnrollments() {
+        enrollment(20L, "active", null);
+        enrollment(21L, "completed", "A");
+        waitlist(20L);
+        waitlist(21L);
+
+        assertThat(waitlistService.promoteNext(COURSE_ID)).isEqualTo(21L);
+        assertThat(studentCourseRepository.findByStudentIdAndCourseId(21L, COURSE_ID).orElseThrow().getStatus())
+                .isEqualTo("active");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM course_waitlist", Long.class)).isZero();
+    }
+
+    private void enrollment(Long studentId, String status, String grade) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO student_courses (student_id, course_id, status, grade, enroll_date, "
+                + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)", studentId, COURSE_ID, status, grade, now, now, now);
+    }
+
+    private void waitlist(Long studentId) {
+        jdbcTemplate.update("INSERT INTO course_waitlist (course_id, student_id, created_at) VALUES (?, ?, ?)",
+                COURSE_ID, studentId, LocalDateTime.now());
+    }
+}